@@ -0,0 +1,42 @@
+package com.datatool.exceltooracle.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 导入任务线程池配置
+ * 导入任务在独立的有界线程池中执行，队列已满时拒绝新任务，由调用方提示稍后重试
+ */
+@Configuration
+public class ImportExecutorConfig {
+
+    /**
+     * 导入任务线程池
+     *
+     * @param corePoolSize 核心线程数
+     * @param maxPoolSize 最大线程数
+     * @param queueCapacity 等待队列容量
+     * @return 线程池
+     */
+    @Bean("importTaskExecutor")
+    public ThreadPoolTaskExecutor importTaskExecutor(
+            @Value("${excel-to-oracle.import-executor.core-pool-size:2}") int corePoolSize,
+            @Value("${excel-to-oracle.import-executor.max-pool-size:4}") int maxPoolSize,
+            @Value("${excel-to-oracle.import-executor.queue-capacity:10}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("excel-import-");
+        // 队列已满时直接拒绝（抛出TaskRejectedException），不在请求线程中执行导入
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        // 应用关闭时等待正在执行的导入完成，避免留下未提交的事务
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(300);
+        return executor;
+    }
+}
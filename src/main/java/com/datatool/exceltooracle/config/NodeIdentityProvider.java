@@ -0,0 +1,329 @@
+package com.datatool.exceltooracle.config;
+
+import com.datatool.exceltooracle.db.JdbcDataSource;
+import com.datatool.exceltooracle.util.SnowflakeIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * 节点标识提供者
+ * <p>
+ * 为雪花算法确定当前节点的工作机器ID和数据中心ID，多个导入节点需要使用不同的标识才能保证ID不重复。
+ * 支持三种来源：
+ * </p>
+ * <ul>
+ *     <li>CONFIG：直接使用配置的worker-id和datacenter-id</li>
+ *     <li>HOSTNAME：由主机名的CRC32散列得到10位节点号，节点较多时可能冲突</li>
+ *     <li>LEASE：在Oracle租约表中抢占一个节点号并定期续约，应用关闭时释放</li>
+ * </ul>
+ * <p>
+ * LEASE方式下记录租约的到期时间，绑定的ID生成器在续约失败导致租约到期或租约被其他节点接管后拒绝生成ID。
+ * </p>
+ * <p>
+ * 租约表需要预先创建：
+ * </p>
+ * <pre>
+ * CREATE TABLE SNOWFLAKE_NODE_LEASE (
+ *     NODE_ID    NUMBER(4) PRIMARY KEY,
+ *     OWNER      VARCHAR2(200) NOT NULL,
+ *     EXPIRES_AT TIMESTAMP NOT NULL
+ * )
+ * </pre>
+ */
+@Component
+@Slf4j
+public class NodeIdentityProvider implements DisposableBean {
+
+    /**
+     * 节点标识来源
+     */
+    public enum Source {
+        CONFIG,
+        HOSTNAME,
+        LEASE
+    }
+
+    // 工作机器ID和数据中心ID各5位，合计1024个节点号
+    private static final int ID_BITS = 5;
+    private static final int MAX_ID = (1 << ID_BITS) - 1;
+    private static final int NODE_COUNT = 1 << (ID_BITS * 2);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Source source;
+    private final String leaseTable;
+    private final long leaseTtlSeconds;
+    private final String owner;
+    private final long workerId;
+    private final long datacenterId;
+    private ScheduledExecutorService leaseRenewer;
+    // 租约的本地到期时间（发起续约前的本地时间加有效期，不晚于数据库中的到期时间）
+    private volatile long leaseValidUntil = Long.MAX_VALUE;
+    private volatile SnowflakeIdGenerator boundGenerator;
+
+    /**
+     * 构造节点标识提供者
+     *
+     * @param jdbcTemplate JDBC模板（LEASE方式使用）
+     * @param source 节点标识来源
+     * @param workerId 配置的工作机器ID（CONFIG方式使用）
+     * @param datacenterId 配置的数据中心ID（CONFIG方式使用）
+     * @param leaseTable 租约表名
+     * @param leaseTtlSeconds 租约有效期（秒），每隔三分之一有效期续约一次
+     */
+    public NodeIdentityProvider(JdbcTemplate jdbcTemplate,
+                                @Value("${excel-to-oracle.snowflake.node-id-source:HOSTNAME}") Source source,
+                                @Value("${excel-to-oracle.snowflake.worker-id:0}") long workerId,
+                                @Value("${excel-to-oracle.snowflake.datacenter-id:0}") long datacenterId,
+                                @Value("${excel-to-oracle.snowflake.lease-table:SNOWFLAKE_NODE_LEASE}") String leaseTable,
+                                @Value("${excel-to-oracle.snowflake.lease-ttl-seconds:60}") long leaseTtlSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.source = source;
+        this.leaseTable = JdbcDataSource.checkIdentifier(leaseTable);
+        this.leaseTtlSeconds = Math.max(leaseTtlSeconds, 3);
+        String hostName = resolveHostName();
+        this.owner = hostName + "/" + ManagementFactory.getRuntimeMXBean().getName();
+
+        int nodeId;
+        switch (source) {
+            case CONFIG:
+                if (workerId < 0 || workerId > MAX_ID || datacenterId < 0 || datacenterId > MAX_ID) {
+                    throw new IllegalArgumentException("worker-id和datacenter-id必须在0~" + MAX_ID + "之间");
+                }
+                nodeId = (int) (datacenterId << ID_BITS | workerId);
+                break;
+            case LEASE:
+                nodeId = acquireLease(hashNodeId(hostName));
+                startLeaseRenewer(nodeId);
+                break;
+            default:
+                nodeId = hashNodeId(hostName);
+                break;
+        }
+        this.workerId = nodeId & MAX_ID;
+        this.datacenterId = nodeId >>> ID_BITS;
+        log.info("雪花算法节点标识: 来源={}, 主机={}, workerId={}, datacenterId={}",
+                source, hostName, this.workerId, this.datacenterId);
+    }
+
+    /**
+     * 获取工作机器ID
+     *
+     * @return 工作机器ID (0~31)
+     */
+    public long getWorkerId() {
+        return workerId;
+    }
+
+    /**
+     * 获取数据中心ID
+     *
+     * @return 数据中心ID (0~31)
+     */
+    public long getDatacenterId() {
+        return datacenterId;
+    }
+
+    /**
+     * 获取节点标识来源
+     *
+     * @return 节点标识来源
+     */
+    public Source getSource() {
+        return source;
+    }
+
+    /**
+     * 绑定使用当前节点标识的ID生成器，租约到期或丢失后生成器拒绝生成ID
+     *
+     * @param generator ID生成器
+     */
+    public void bind(SnowflakeIdGenerator generator) {
+        boundGenerator = generator;
+        generator.setValidUntil(leaseValidUntil);
+    }
+
+    /**
+     * 更新租约的到期时间并同步到绑定的ID生成器
+     *
+     * @param validUntil 到期时间（毫秒时间戳）
+     */
+    private void updateValidUntil(long validUntil) {
+        leaseValidUntil = validUntil;
+        SnowflakeIdGenerator generator = boundGenerator;
+        if (generator != null) {
+            generator.setValidUntil(validUntil);
+        }
+    }
+
+    /**
+     * 从散列位置开始依次尝试抢占空闲或已过期的节点号
+     *
+     * @param preferred 优先尝试的节点号
+     * @return 抢占到的节点号
+     */
+    private int acquireLease(int preferred) {
+        for (int i = 0; i < NODE_COUNT; i++) {
+            int nodeId = (preferred + i) % NODE_COUNT;
+            long requestedAt = System.currentTimeMillis();
+            if (tryLease(nodeId, true)) {
+                leaseValidUntil = requestedAt + leaseTtlSeconds * 1000;
+                return nodeId;
+            }
+        }
+        throw new IllegalStateException("租约表" + leaseTable + "中没有空闲的雪花算法节点号");
+    }
+
+    /**
+     * 抢占或续约节点号
+     *
+     * @param nodeId 节点号
+     * @param allowTakeover 是否允许接管已过期的租约（续约时只更新自己持有的租约）
+     * @return 是否成功
+     */
+    private boolean tryLease(int nodeId, boolean allowTakeover) {
+        String update = "UPDATE " + leaseTable + " SET OWNER = ?, EXPIRES_AT = SYSTIMESTAMP + NUMTODSINTERVAL(?, 'SECOND')"
+                + " WHERE NODE_ID = ? AND (OWNER = ?" + (allowTakeover ? " OR EXPIRES_AT < SYSTIMESTAMP)" : ")");
+        String insert = "INSERT INTO " + leaseTable + " (NODE_ID, OWNER, EXPIRES_AT)"
+                + " VALUES (?, ?, SYSTIMESTAMP + NUMTODSINTERVAL(?, 'SECOND'))";
+
+        Boolean leased = jdbcTemplate.execute((ConnectionCallback<Boolean>) conn -> {
+            try {
+                boolean success;
+                try (PreparedStatement ps = conn.prepareStatement(update)) {
+                    ps.setString(1, owner);
+                    ps.setLong(2, leaseTtlSeconds);
+                    ps.setInt(3, nodeId);
+                    ps.setString(4, owner);
+                    success = ps.executeUpdate() == 1;
+                }
+                if (!success && allowTakeover) {
+                    success = insertLease(conn, insert, nodeId);
+                }
+                // 连接池关闭了自动提交，需要显式提交
+                if (!conn.getAutoCommit()) {
+                    conn.commit();
+                }
+                return success;
+            } catch (SQLException e) {
+                if (!conn.getAutoCommit()) {
+                    conn.rollback();
+                }
+                throw e;
+            }
+        });
+        return Boolean.TRUE.equals(leased);
+    }
+
+    private boolean insertLease(Connection conn, String insert, int nodeId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(insert)) {
+            ps.setInt(1, nodeId);
+            ps.setString(2, owner);
+            ps.setLong(3, leaseTtlSeconds);
+            return ps.executeUpdate() == 1;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            // 节点号已被其他节点持有
+            return false;
+        }
+    }
+
+    /**
+     * 启动后台续约线程
+     *
+     * @param nodeId 持有的节点号
+     */
+    private void startLeaseRenewer(int nodeId) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("snowflake-lease-");
+        threadFactory.setDaemon(true);
+        leaseRenewer = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        long interval = leaseTtlSeconds / 3;
+        leaseRenewer.scheduleWithFixedDelay(() -> {
+            long requestedAt = System.currentTimeMillis();
+            try {
+                if (tryLease(nodeId, false)) {
+                    updateValidUntil(requestedAt + leaseTtlSeconds * 1000);
+                } else {
+                    // 租约已被其他节点接管，停止续约和生成ID
+                    updateValidUntil(Long.MIN_VALUE);
+                    log.error("雪花算法节点号{}的租约已被其他节点接管，停止生成雪花算法ID", nodeId);
+                    leaseRenewer.shutdown();
+                }
+            } catch (Exception e) {
+                // 保持原到期时间，到期前续约成功即可继续使用
+                log.warn("雪花算法节点号{}续约失败，租约将于{}到期: {}", nodeId,
+                        Instant.ofEpochMilli(leaseValidUntil), e.getMessage());
+            }
+        }, interval, interval, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (leaseRenewer == null) {
+            return;
+        }
+        leaseRenewer.shutdownNow();
+        // 释放租约后不能再使用该节点号
+        updateValidUntil(Long.MIN_VALUE);
+        int nodeId = (int) (datacenterId << ID_BITS | workerId);
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "UPDATE " + leaseTable + " SET EXPIRES_AT = SYSTIMESTAMP WHERE NODE_ID = ? AND OWNER = ?")) {
+                    ps.setInt(1, nodeId);
+                    ps.setString(2, owner);
+                    ps.executeUpdate();
+                }
+                if (!conn.getAutoCommit()) {
+                    conn.commit();
+                }
+                return null;
+            });
+            log.info("已释放雪花算法节点号{}的租约", nodeId);
+        } catch (Exception e) {
+            log.warn("释放雪花算法节点号{}的租约失败: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * 由主机名散列得到节点号
+     *
+     * @param hostName 主机名
+     * @return 节点号 (0~1023)
+     */
+    private static int hashNodeId(String hostName) {
+        CRC32 crc = new CRC32();
+        crc.update(hostName.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % NODE_COUNT);
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            String hostName = System.getenv("HOSTNAME");
+            if (hostName == null) {
+                hostName = System.getenv("COMPUTERNAME");
+            }
+            return hostName != null ? hostName : "localhost";
+        }
+    }
+}
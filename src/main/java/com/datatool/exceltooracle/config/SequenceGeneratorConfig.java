@@ -0,0 +1,35 @@
+package com.datatool.exceltooracle.config;
+
+import com.datatool.exceltooracle.core.ValueGeneratorRegistry;
+import com.datatool.exceltooracle.core.generator.SequenceValueGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 数据库序列生成器配置
+ * 向值生成器注册表注册"seq:"前缀，生成器ID为"seq:序列名"时按需创建对应序列的生成器，
+ * 序列名无效或序列不存在时视为没有该生成器
+ */
+@Configuration
+public class SequenceGeneratorConfig {
+
+    /**
+     * 注册序列生成器工厂
+     *
+     * @param jdbcTemplate JDBC模板
+     * @param prefetchSize 每次预取的序列值数量
+     */
+    public SequenceGeneratorConfig(JdbcTemplate jdbcTemplate,
+                                   @Value("${excel-to-oracle.sequence.prefetch-size:1000}") int prefetchSize) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("sequence-prefetch-");
+        threadFactory.setDaemon(true);
+        ExecutorService refillExecutor = Executors.newCachedThreadPool(threadFactory);
+        ValueGeneratorRegistry.getInstance().registerFactory(SequenceValueGenerator.ID_PREFIX,
+                sequenceName -> SequenceValueGenerator.create(jdbcTemplate, sequenceName, prefetchSize, refillExecutor));
+    }
+}
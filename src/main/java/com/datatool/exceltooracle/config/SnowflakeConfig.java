@@ -0,0 +1,32 @@
+package com.datatool.exceltooracle.config;
+
+import com.datatool.exceltooracle.core.ValueGeneratorRegistry;
+import com.datatool.exceltooracle.core.generator.SnowflakeValueGenerator;
+import com.datatool.exceltooracle.util.SnowflakeIdGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 雪花算法ID生成器配置
+ * 根据节点标识创建ID生成器，替换默认的单例和注册表中的雪花算法生成器，多个节点生成的ID不会重复
+ */
+@Configuration
+public class SnowflakeConfig {
+
+    /**
+     * 当前节点的雪花算法ID生成器
+     *
+     * @param nodeIdentityProvider 节点标识提供者
+     * @return ID生成器
+     */
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(NodeIdentityProvider nodeIdentityProvider) {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(
+                nodeIdentityProvider.getWorkerId(), nodeIdentityProvider.getDatacenterId());
+        // 租约到期或丢失后拒绝生成ID
+        nodeIdentityProvider.bind(generator);
+        SnowflakeIdGenerator.setInstance(generator);
+        ValueGeneratorRegistry.getInstance().register(new SnowflakeValueGenerator(generator));
+        return generator;
+    }
+}
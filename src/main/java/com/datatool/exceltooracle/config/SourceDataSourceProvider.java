@@ -0,0 +1,106 @@
+package com.datatool.exceltooracle.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * 源数据库连接池提供者
+ * <p>
+ * 从其他数据库导入时，在excel-to-oracle.source-datasource下配置源库的连接信息，
+ * 读取使用单独的连接池，不占用应用连接池；未配置时从应用连接池读取源表。
+ * 连接池在第一次使用时创建，不注册为DataSource Bean，避免影响应用数据源的自动配置。
+ * </p>
+ */
+@Component
+@Slf4j
+public class SourceDataSourceProvider implements DisposableBean {
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String driverClassName;
+    private final int maximumPoolSize;
+    private volatile HikariDataSource dataSource;
+
+    public SourceDataSourceProvider(@Value("${excel-to-oracle.source-datasource.url:}") String url,
+                                    @Value("${excel-to-oracle.source-datasource.username:}") String username,
+                                    @Value("${excel-to-oracle.source-datasource.password:}") String password,
+                                    @Value("${excel-to-oracle.source-datasource.driver-class-name:}") String driverClassName,
+                                    @Value("${excel-to-oracle.source-datasource.maximum-pool-size:4}") int maximumPoolSize) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.driverClassName = driverClassName;
+        this.maximumPoolSize = Math.max(1, maximumPoolSize);
+    }
+
+    /**
+     * 是否配置了单独的源数据库
+     *
+     * @return 配置了源库连接地址时为true
+     */
+    public boolean isConfigured() {
+        return url != null && !url.isEmpty();
+    }
+
+    /**
+     * 获取源数据库连接池
+     *
+     * @return 源数据库连接池
+     * @throws IllegalStateException 如果没有配置源数据库
+     */
+    public DataSource getDataSource() {
+        if (!isConfigured()) {
+            throw new IllegalStateException("未配置源数据库（excel-to-oracle.source-datasource.url）");
+        }
+        HikariDataSource ds = dataSource;
+        if (ds == null) {
+            synchronized (this) {
+                if (dataSource == null) {
+                    dataSource = createDataSource();
+                }
+                ds = dataSource;
+            }
+        }
+        return ds;
+    }
+
+    /**
+     * 获取源数据库连接池的最大连接数
+     *
+     * @return 最大连接数
+     */
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    private HikariDataSource createDataSource() {
+        HikariDataSource ds = new HikariDataSource();
+        ds.setPoolName("source-db");
+        ds.setJdbcUrl(url);
+        ds.setUsername(username);
+        ds.setPassword(password);
+        if (driverClassName != null && !driverClassName.isEmpty()) {
+            ds.setDriverClassName(driverClassName);
+        }
+        ds.setMaximumPoolSize(maximumPoolSize);
+        ds.setMinimumIdle(0);
+        // 源库只读取，不需要提交
+        ds.setReadOnly(true);
+        log.info("创建源数据库连接池: {}, 最大连接数: {}", url, maximumPoolSize);
+        return ds;
+    }
+
+    @Override
+    public void destroy() {
+        HikariDataSource ds = dataSource;
+        if (ds != null) {
+            ds.close();
+        }
+    }
+}
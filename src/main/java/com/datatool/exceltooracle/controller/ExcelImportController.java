@@ -5,12 +5,15 @@ import com.datatool.exceltooracle.dto.ImportResponse;
 import com.datatool.exceltooracle.service.ExcelImportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Excel导入控制器
@@ -30,7 +33,7 @@ public class ExcelImportController {
      * 
      * @param file Excel文件
      * @param request 导入请求参数
-     * @return 导入结果
+     * @return 任务信息，导入在后台执行，通过任务ID查询进度和结果
      */
     @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ImportResponse> importExcel(
@@ -39,9 +42,9 @@ public class ExcelImportController {
         
         log.info("接收到Excel导入请求，文件名: {}, 大小: {}, 目标表: {}", 
                 file.getOriginalFilename(), file.getSize(), request.getTableName());
-        log.info("导入参数: headerRowNum={}, dataStartRowNum={}, autoMapping={}, batchSize={}, isInsert={}",
+        log.info("导入参数: headerRowNum={}, dataStartRowNum={}, autoMapping={}, batchSize={}, writeMode={}",
                 request.getHeaderRowNum(), request.getDataStartRowNum(), request.isAutoMapping(),
-                request.getBatchSize(), request.isInsert());
+                request.getBatchSize(), request.resolveWriteMode());
         
         if (file.isEmpty()) {
             log.error("上传的文件为空");
@@ -50,11 +53,16 @@ public class ExcelImportController {
         }
         
         try {
-            ImportResponse response = excelImportService.importExcel(file, request);
-            log.info("导入处理完成，任务ID: {}, 总记录数: {}, 成功: {}, 失败: {}", 
-                    response.getTaskId(), response.getTotalRecords(), 
-                    response.getSuccessRecords(), response.getFailureRecords());
-            return ResponseEntity.ok(response);
+            ImportResponse response = excelImportService.submitImport(file, request);
+            if (!response.isSuccess()) {
+                return ResponseEntity.badRequest().body(response);
+            }
+            log.info("导入任务已提交，任务ID: {}", response.getTaskId());
+            return ResponseEntity.accepted().body(response);
+        } catch (TaskRejectedException e) {
+            log.warn("导入任务队列已满: {}", e.getMessage());
+            ImportResponse errorResponse = ImportResponse.failure("导入任务队列已满，请稍后重试");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
         } catch (IOException e) {
             log.error("处理Excel文件时出错: {}", e.getMessage(), e);
             ImportResponse errorResponse = ImportResponse.failure("处理Excel文件时出错: " + e.getMessage());
@@ -66,18 +74,96 @@ public class ExcelImportController {
         }
     }
     
+    /**
+     * 流式导入Excel文件
+     * 请求体即文件内容（application/octet-stream），导入参数通过查询参数传递，
+     * 文件直接写入导入临时目录，不受multipart大小限制
+     * 
+     * @param fileName 原文件名（用于识别文件格式）
+     * @param request 导入请求参数
+     * @param inputStream 请求体
+     * @return 任务信息，导入在后台执行，通过任务ID查询进度和结果
+     */
+    @PostMapping(value = "/import/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ImportResponse> importExcelStream(
+            @RequestParam("fileName") String fileName,
+            @ModelAttribute ImportRequest request,
+            InputStream inputStream) {
+        
+        log.info("接收到Excel流式导入请求，文件名: {}, 目标表: {}", fileName, request.getTableName());
+        
+        try {
+            ImportResponse response = excelImportService.submitImport(inputStream, fileName, request);
+            if (!response.isSuccess()) {
+                return ResponseEntity.badRequest().body(response);
+            }
+            log.info("导入任务已提交，任务ID: {}", response.getTaskId());
+            return ResponseEntity.accepted().body(response);
+        } catch (TaskRejectedException e) {
+            log.warn("导入任务队列已满: {}", e.getMessage());
+            ImportResponse errorResponse = ImportResponse.failure("导入任务队列已满，请稍后重试");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+        } catch (IOException e) {
+            log.error("保存上传文件时出错: {}", e.getMessage(), e);
+            ImportResponse errorResponse = ImportResponse.failure("保存上传文件时出错: " + e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            log.error("导入过程中发生未预期的错误: {}", e.getMessage(), e);
+            ImportResponse errorResponse = ImportResponse.failure("导入过程中发生未预期的错误: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+    }
+    
+    /**
+     * 从数据库表导入
+     * 源表通过sourceTable参数指定，配置了源数据库时从源库读取，否则使用应用的数据库连接读取，其余参数与文件导入相同
+     * 
+     * @param request 导入请求参数
+     * @return 任务信息，导入在后台执行，通过任务ID查询进度和结果
+     */
+    @PostMapping("/import/database")
+    public ResponseEntity<ImportResponse> importFromDatabase(@ModelAttribute ImportRequest request) {
+        
+        log.info("接收到数据库导入请求，源表: {}, 目标表: {}", request.getSourceTable(), request.getTableName());
+        
+        try {
+            ImportResponse response = excelImportService.submitDatabaseImport(request);
+            if (!response.isSuccess()) {
+                return ResponseEntity.badRequest().body(response);
+            }
+            log.info("导入任务已提交，任务ID: {}", response.getTaskId());
+            return ResponseEntity.accepted().body(response);
+        } catch (TaskRejectedException e) {
+            log.warn("导入任务队列已满: {}", e.getMessage());
+            ImportResponse errorResponse = ImportResponse.failure("导入任务队列已满，请稍后重试");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+        } catch (Exception e) {
+            log.error("导入过程中发生未预期的错误: {}", e.getMessage(), e);
+            ImportResponse errorResponse = ImportResponse.failure("导入过程中发生未预期的错误: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+    }
+    
     /**
      * 查询导入结果
      * 
      * @param taskId 任务ID
-     * @return 导入结果
+     * @param errorPage 错误明细页码（从0开始）
+     * @param errorPageSize 每页错误明细条数
+     * @return 导入结果，任务未结束时返回当前进度（已读取、已写入、失败记录数和吞吐量）
      */
     @GetMapping("/status/{taskId}")
-    public ResponseEntity<ImportResponse> getImportStatus(@PathVariable String taskId) {
+    public ResponseEntity<ImportResponse> getImportStatus(
+            @PathVariable String taskId,
+            @RequestParam(defaultValue = "0") int errorPage,
+            @RequestParam(defaultValue = "100") int errorPageSize) {
         log.info("查询导入任务状态，任务ID: {}", taskId);
         
-        ImportResponse response = excelImportService.getImportResult(taskId);
-        if (response.isSuccess()) {
+        if (errorPage < 0 || errorPageSize < 1 || errorPageSize > 1000) {
+            return ResponseEntity.badRequest().body(ImportResponse.failure("错误明细分页参数无效"));
+        }
+        ImportResponse response = excelImportService.getImportResult(taskId, errorPage, errorPageSize);
+        if (response.getTaskId() != null) {
             return ResponseEntity.ok(response);
         } else {
             return ResponseEntity.notFound().build();
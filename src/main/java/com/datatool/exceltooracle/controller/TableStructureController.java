@@ -5,6 +5,7 @@ import com.datatool.exceltooracle.core.ValueGeneratorRegistry;
 import com.datatool.exceltooracle.dto.TableStructureDTO;
 import com.datatool.exceltooracle.dto.ValueGeneratorDTO;
 import com.datatool.exceltooracle.service.TableMetadataService;
+import com.datatool.exceltooracle.service.impl.CachingTableMetadataService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -25,6 +26,7 @@ import java.util.stream.Collectors;
 public class TableStructureController {
     
     private final TableMetadataService tableMetadataService;
+    private final CachingTableMetadataService cachingTableMetadataService;
     
     /**
      * 获取表结构
@@ -61,6 +63,30 @@ public class TableStructureController {
         return ResponseEntity.ok(exists);
     }
     
+    /**
+     * 清除指定表的结构缓存
+     * 表结构变更后调用，使下一次请求重新从数据库加载
+     * 
+     * @param tableName 表名
+     * @return 是否存在该表的缓存
+     */
+    @DeleteMapping("/cache/{tableName}")
+    public ResponseEntity<Boolean> invalidateCache(@PathVariable String tableName) {
+        log.info("清除表结构缓存: {}", tableName);
+        return ResponseEntity.ok(cachingTableMetadataService.invalidate(tableName));
+    }
+    
+    /**
+     * 清除所有表的结构缓存
+     * 
+     * @return 清除的缓存数量
+     */
+    @DeleteMapping("/cache")
+    public ResponseEntity<Integer> invalidateAllCache() {
+        log.info("清除所有表结构缓存");
+        return ResponseEntity.ok(cachingTableMetadataService.invalidateAll());
+    }
+    
     /**
      * 获取所有可用的值生成器
      * 
@@ -0,0 +1,466 @@
+package com.datatool.exceltooracle.core;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * 按列存储的批数据
+ * <p>
+ * 对外表现为行记录列表，内部每个字段一列：整数、浮点数和日期分别保存在long[]、double[]
+ * 和毫秒数long[]中，其余类型保存在Object[]中，空值用位图标记。
+ * 整数包括JDBC NUMBER列读出的无小数位BigDecimal，日期包括Date、Timestamp、LocalDate和LocalDateTime
+ * （精确到毫秒），列记录值的原始类型，取值时还原为相同类型。
+ * 行数据加入批次后不再持有原来的行对象，写入时可按列直接绑定参数。
+ * 同一列出现不同类型的值时自动退化为Object[]存储。
+ * </p>
+ */
+public class ColumnarBatch extends AbstractList<Map<String, Object>> {
+
+    /**
+     * 列存储类型：尚未确定
+     */
+    public static final int KIND_UNSET = 0;
+
+    /**
+     * 列存储类型：整数（long[]）
+     */
+    public static final int KIND_LONG = 1;
+
+    /**
+     * 列存储类型：浮点数（double[]）
+     */
+    public static final int KIND_DOUBLE = 2;
+
+    /**
+     * 列存储类型：日期（毫秒数long[]）
+     */
+    public static final int KIND_DATE = 3;
+
+    /**
+     * 列存储类型：其他对象（Object[]）
+     */
+    public static final int KIND_OBJECT = 4;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final RowRecord.Schema schema;
+    private final Column[] columns;
+    private int capacity;
+    private int size;
+
+    /**
+     * 构造按列存储的批数据
+     *
+     * @param schema 字段结构
+     * @param capacity 初始容量
+     */
+    public ColumnarBatch(RowRecord.Schema schema, int capacity) {
+        this.schema = schema;
+        this.capacity = Math.max(capacity, 16);
+        this.columns = new Column[schema.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new Column(this.capacity);
+        }
+    }
+
+    /**
+     * 获取字段结构
+     *
+     * @return 字段结构
+     */
+    public RowRecord.Schema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public boolean add(Map<String, Object> row) {
+        if (size == capacity) {
+            grow();
+        }
+
+        if (row instanceof RowRecord && ((RowRecord) row).getSchema() == schema) {
+            RowRecord record = (RowRecord) row;
+            for (int slot = 0; slot < columns.length; slot++) {
+                columns[slot].set(size, record.getValue(slot));
+            }
+        } else {
+            for (String key : row.keySet()) {
+                if (schema.slotOf(key) < 0) {
+                    throw new IllegalArgumentException("字段不在批数据结构中: " + key);
+                }
+            }
+            for (int slot = 0; slot < columns.length; slot++) {
+                columns[slot].set(size, row.get(schema.fieldName(slot)));
+            }
+        }
+        size++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * 从另一个结构相同的批数据复制一行，不组装行记录
+     *
+     * @param source 源批数据
+     * @param row 源行下标
+     */
+    public void copyRow(ColumnarBatch source, int row) {
+        if (source.schema != schema) {
+            throw new IllegalArgumentException("批数据结构不同");
+        }
+        source.checkIndex(row);
+        if (size == capacity) {
+            grow();
+        }
+        for (int slot = 0; slot < columns.length; slot++) {
+            columns[slot].copy(size, source.columns[slot], row);
+        }
+        size++;
+        modCount++;
+    }
+
+    /**
+     * 获取一行数据（按需组装为行记录）
+     *
+     * @param index 行下标
+     * @return 行记录
+     */
+    @Override
+    public Map<String, Object> get(int index) {
+        checkIndex(index);
+        RowRecord record = new RowRecord(schema);
+        for (int slot = 0; slot < columns.length; slot++) {
+            record.setValue(slot, columns[slot].get(index));
+        }
+        return record;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (Column column : columns) {
+            column.clear(size);
+        }
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * 判断值是否为空
+     *
+     * @param slot 字段位置
+     * @param row 行下标
+     * @return 是否为空
+     */
+    public boolean isNull(int slot, int row) {
+        return columns[slot].isNull(row);
+    }
+
+    /**
+     * 获取列的存储类型
+     *
+     * @param slot 字段位置
+     * @return 存储类型（KIND_*）
+     */
+    public int getKind(int slot) {
+        return columns[slot].kind;
+    }
+
+    /**
+     * 获取整数值，仅用于KIND_LONG列
+     *
+     * @param slot 字段位置
+     * @param row 行下标
+     * @return 整数值
+     */
+    public long getLong(int slot, int row) {
+        return columns[slot].longs[row];
+    }
+
+    /**
+     * 获取浮点数值，仅用于KIND_DOUBLE列
+     *
+     * @param slot 字段位置
+     * @param row 行下标
+     * @return 浮点数值
+     */
+    public double getDouble(int slot, int row) {
+        return columns[slot].doubles[row];
+    }
+
+    /**
+     * 获取日期的毫秒数，仅用于KIND_DATE列（LocalDate和LocalDateTime按UTC换算）
+     *
+     * @param slot 字段位置
+     * @param row 行下标
+     * @return 毫秒数
+     */
+    public long getDateMillis(int slot, int row) {
+        return columns[slot].longs[row];
+    }
+
+    /**
+     * 获取日期对应的Timestamp，仅用于KIND_DATE列，LocalDate和LocalDateTime按本地时间转换
+     *
+     * @param slot 字段位置
+     * @param row 行下标
+     * @return 时间戳
+     */
+    public Timestamp getTimestamp(int slot, int row) {
+        Column column = columns[slot];
+        long millis = column.longs[row];
+        if (column.valueType == LocalDateTime.class) {
+            return Timestamp.valueOf(toLocalDateTime(millis));
+        } else if (column.valueType == LocalDate.class) {
+            return Timestamp.valueOf(toLocalDate(millis).atStartOfDay());
+        }
+        return new Timestamp(millis);
+    }
+
+    /**
+     * 获取值（装箱）
+     *
+     * @param slot 字段位置
+     * @param row 行下标
+     * @return 值（可能为null）
+     */
+    public Object getValue(int slot, int row) {
+        checkIndex(row);
+        return columns[slot].get(row);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+                (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    private static LocalDate toLocalDate(long millis) {
+        return LocalDate.ofEpochDay(Math.floorDiv(millis, MILLIS_PER_DAY));
+    }
+
+    private void grow() {
+        capacity = capacity * 2;
+        for (Column column : columns) {
+            column.grow(capacity);
+        }
+    }
+
+    /**
+     * 单列存储
+     */
+    private static final class Column {
+
+        private int kind = KIND_UNSET;
+        private Class<?> valueType;
+        private long[] longs;
+        private double[] doubles;
+        private Object[] objects;
+        private long[] nullBits;
+
+        Column(int capacity) {
+            this.nullBits = new long[(capacity + 63) >>> 6];
+        }
+
+        void set(int row, Object value) {
+            if (value == null) {
+                nullBits[row >>> 6] |= 1L << row;
+                return;
+            }
+            nullBits[row >>> 6] &= ~(1L << row);
+
+            Class<?> type = storedType(value);
+            int valueKind = kindOf(type);
+            if (kind == KIND_UNSET) {
+                allocate(valueKind, type);
+            } else if (kind != KIND_OBJECT && type != valueType) {
+                promoteToObject(row);
+            }
+
+            switch (kind) {
+                case KIND_LONG:
+                    longs[row] = ((Number) value).longValue();
+                    break;
+                case KIND_DOUBLE:
+                    doubles[row] = ((Number) value).doubleValue();
+                    break;
+                case KIND_DATE:
+                    longs[row] = toMillis(value);
+                    break;
+                default:
+                    objects[row] = value;
+                    break;
+            }
+        }
+
+        /**
+         * 从另一列复制一个值，存储类型相同时直接复制基本类型
+         */
+        void copy(int row, Column source, int sourceRow) {
+            if (source.isNull(sourceRow) || kind != source.kind || valueType != source.valueType) {
+                set(row, source.get(sourceRow));
+                return;
+            }
+            nullBits[row >>> 6] &= ~(1L << row);
+            switch (kind) {
+                case KIND_LONG:
+                case KIND_DATE:
+                    longs[row] = source.longs[sourceRow];
+                    break;
+                case KIND_DOUBLE:
+                    doubles[row] = source.doubles[sourceRow];
+                    break;
+                default:
+                    objects[row] = source.objects[sourceRow];
+                    break;
+            }
+        }
+
+        Object get(int row) {
+            if (isNull(row)) {
+                return null;
+            }
+            switch (kind) {
+                case KIND_LONG:
+                    return valueType == BigDecimal.class ? BigDecimal.valueOf(longs[row]) : (Object) longs[row];
+                case KIND_DOUBLE:
+                    return doubles[row];
+                case KIND_DATE:
+                    return fromMillis(longs[row]);
+                default:
+                    return objects[row];
+            }
+        }
+
+        boolean isNull(int row) {
+            return kind == KIND_UNSET || (nullBits[row >>> 6] & (1L << row)) != 0;
+        }
+
+        void clear(int size) {
+            Arrays.fill(nullBits, 0L);
+            if (objects != null) {
+                Arrays.fill(objects, 0, size, null);
+            }
+        }
+
+        void grow(int capacity) {
+            nullBits = Arrays.copyOf(nullBits, (capacity + 63) >>> 6);
+            if (longs != null) {
+                longs = Arrays.copyOf(longs, capacity);
+            }
+            if (doubles != null) {
+                doubles = Arrays.copyOf(doubles, capacity);
+            }
+            if (objects != null) {
+                objects = Arrays.copyOf(objects, capacity);
+            }
+        }
+
+        private void allocate(int valueKind, Class<?> type) {
+            int capacity = nullBits.length << 6;
+            kind = valueKind;
+            valueType = type;
+            if (valueKind == KIND_LONG || valueKind == KIND_DATE) {
+                longs = new long[capacity];
+            } else if (valueKind == KIND_DOUBLE) {
+                doubles = new double[capacity];
+            } else {
+                objects = new Object[capacity];
+            }
+        }
+
+        /**
+         * 列中出现不同类型的值时，将已有的值装箱后改为Object[]存储
+         *
+         * @param rowCount 已写入的行数
+         */
+        private void promoteToObject(int rowCount) {
+            Object[] boxed = new Object[nullBits.length << 6];
+            for (int i = 0; i < rowCount; i++) {
+                boxed[i] = get(i);
+            }
+            kind = KIND_OBJECT;
+            valueType = Object.class;
+            objects = boxed;
+            longs = null;
+            doubles = null;
+        }
+
+        private Object fromMillis(long millis) {
+            if (valueType == LocalDateTime.class) {
+                return toLocalDateTime(millis);
+            } else if (valueType == LocalDate.class) {
+                return toLocalDate(millis);
+            } else if (valueType == Timestamp.class) {
+                return new Timestamp(millis);
+            } else if (valueType == java.sql.Date.class) {
+                return new java.sql.Date(millis);
+            }
+            return new Date(millis);
+        }
+
+        private static long toMillis(Object value) {
+            if (value instanceof LocalDateTime) {
+                LocalDateTime dateTime = (LocalDateTime) value;
+                return dateTime.toEpochSecond(ZoneOffset.UTC) * 1000 + dateTime.getNano() / 1_000_000;
+            } else if (value instanceof LocalDate) {
+                return ((LocalDate) value).toEpochDay() * MILLIS_PER_DAY;
+            }
+            return ((Date) value).getTime();
+        }
+
+        /**
+         * 值在列中的存储类型：同一列只有存储类型相同的值才能按基本类型保存
+         *
+         * @param value 非空值
+         * @return 存储类型，不能按基本类型保存时为Object.class
+         */
+        private static Class<?> storedType(Object value) {
+            Class<?> type = value.getClass();
+            if (type == Long.class || type == Integer.class || type == Short.class || type == Byte.class) {
+                return Long.class;
+            } else if (type == Double.class || type == Float.class) {
+                return Double.class;
+            } else if (type == BigDecimal.class) {
+                // 没有小数位且不超过long范围的数值，取值时还原为BigDecimal
+                BigDecimal decimal = (BigDecimal) value;
+                return decimal.scale() == 0 && decimal.unscaledValue().bitLength() < 64 ? BigDecimal.class : Object.class;
+            } else if (type == Timestamp.class) {
+                // 超过毫秒精度的部分无法用毫秒数保存
+                return ((Timestamp) value).getNanos() % 1_000_000 == 0 ? Timestamp.class : Object.class;
+            } else if (type == LocalDateTime.class) {
+                return ((LocalDateTime) value).getNano() % 1_000_000 == 0 ? LocalDateTime.class : Object.class;
+            } else if (type == Date.class || type == java.sql.Date.class || type == LocalDate.class) {
+                return type;
+            }
+            return Object.class;
+        }
+
+        private static int kindOf(Class<?> type) {
+            if (type == Long.class || type == BigDecimal.class) {
+                return KIND_LONG;
+            } else if (type == Double.class) {
+                return KIND_DOUBLE;
+            } else if (type == Object.class) {
+                return KIND_OBJECT;
+            }
+            return KIND_DATE;
+        }
+    }
+}
@@ -34,12 +34,22 @@ public interface DataTarget<T> {
     
     /**
      * 批量写入数据
+     * 调用后数据列表交由数据目标持有（异步写入的实现可能在返回后才读取），调用方不应再修改
      * 
      * @param data 要写入的数据列表
      * @throws IOException 如果写入失败
      */
     void write(List<T> data) throws IOException;
     
+    /**
+     * 确保已写入的数据全部完成
+     * 异步写入的实现需要在此等待所有写入结束并抛出写入过程中的错误
+     * 
+     * @throws IOException 如果写入失败
+     */
+    default void flush() throws IOException {
+    }
+    
     /**
      * 获取数据目标名称
      * 
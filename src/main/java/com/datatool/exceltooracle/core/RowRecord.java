@@ -0,0 +1,241 @@
+package com.datatool.exceltooracle.core;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 紧凑的行记录
+ * <p>
+ * 同一批数据共享一个{@link Schema}，每行只保存按字段位置排列的值数组。
+ * 值为null的字段视为不存在，与字段-值映射中不放入空值的约定一致。
+ * </p>
+ */
+public class RowRecord extends AbstractMap<String, Object> {
+
+    private final Schema schema;
+    private final Object[] values;
+    private int size;
+
+    /**
+     * 构造行记录
+     *
+     * @param schema 字段结构
+     */
+    public RowRecord(Schema schema) {
+        this.schema = schema;
+        this.values = new Object[schema.size()];
+    }
+
+    /**
+     * 获取字段结构
+     *
+     * @return 字段结构
+     */
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * 按字段位置获取值
+     *
+     * @param slot 字段位置
+     * @return 字段值（可能为null）
+     */
+    public Object getValue(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * 按字段位置设置值，null表示移除该字段
+     *
+     * @param slot 字段位置
+     * @param value 字段值
+     */
+    public void setValue(int slot, Object value) {
+        if (values[slot] == null) {
+            if (value != null) {
+                size++;
+            }
+        } else if (value == null) {
+            size--;
+        }
+        values[slot] = value;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int slot = schema.slotOf(key);
+        return slot < 0 ? null : values[slot];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int slot = schema.slotOf(key);
+        if (slot < 0) {
+            throw new IllegalArgumentException("字段不在行记录结构中: " + key);
+        }
+        Object previous = values[slot];
+        setValue(slot, value);
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int slot = schema.slotOf(key);
+        if (slot < 0) {
+            return null;
+        }
+        Object previous = values[slot];
+        setValue(slot, null);
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                Iterator<Entry<String, Object>> entries = entrySet().iterator();
+                return new Iterator<String>() {
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public String next() {
+                        return entries.next().getKey();
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object key) {
+                return containsKey(key);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<Entry<String, Object>>() {
+                    private int next = advance(0);
+
+                    private int advance(int from) {
+                        while (from < values.length && values[from] == null) {
+                            from++;
+                        }
+                        return from;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < values.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int slot = next;
+                        next = advance(slot + 1);
+                        return new SimpleImmutableEntry<>(schema.fieldName(slot), values[slot]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * 行记录的字段结构
+     * 字段名到位置的映射只在创建时计算一次，所有行共享
+     */
+    public static class Schema {
+
+        private final String[] fieldNames;
+        private final Map<String, Integer> slots;
+
+        /**
+         * 构造字段结构
+         *
+         * @param fieldNames 字段名，下标即字段位置（不能重复）
+         */
+        public Schema(String[] fieldNames) {
+            this.fieldNames = fieldNames.clone();
+            Map<String, Integer> slotMap = new HashMap<>();
+            for (int i = 0; i < fieldNames.length; i++) {
+                if (slotMap.put(fieldNames[i], i) != null) {
+                    throw new IllegalArgumentException("字段名重复: " + fieldNames[i]);
+                }
+            }
+            this.slots = Collections.unmodifiableMap(slotMap);
+        }
+
+        /**
+         * 获取字段位置
+         *
+         * @param fieldName 字段名
+         * @return 字段位置，不存在时返回-1
+         */
+        public int slotOf(Object fieldName) {
+            Integer slot = slots.get(fieldName);
+            return slot == null ? -1 : slot;
+        }
+
+        /**
+         * 获取字段名
+         *
+         * @param slot 字段位置
+         * @return 字段名
+         */
+        public String fieldName(int slot) {
+            return fieldNames[slot];
+        }
+
+        /**
+         * 获取字段数量
+         *
+         * @return 字段数量
+         */
+        public int size() {
+            return fieldNames.length;
+        }
+    }
+}
@@ -23,6 +23,32 @@ public interface ValueGenerator {
         return generate(null);
     }
     
+    /**
+     * 批量生成值
+     * 默认逐个调用{@link #generate(ProcessContext)}，能够一次取得多个值的生成器（如预留一段ID）应覆盖此方法
+     * 
+     * @param count 生成数量
+     * @param context 处理上下文
+     * @return 生成的值，长度为count
+     */
+    default Object[] generateBatch(int count, ProcessContext context) {
+        Object[] values = new Object[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = generate(context);
+        }
+        return values;
+    }
+    
+    /**
+     * 生成的值能否提前批量获取、缓存到之后的行使用
+     * 值与生成时刻有关的生成器（如当前时间、按时间排序的UUID）应返回false，缓存后的值会过时
+     * 
+     * @return 能否提前获取，默认为true
+     */
+    default boolean isPrefetchable() {
+        return true;
+    }
+    
     /**
      * 获取生成器名称
      * 
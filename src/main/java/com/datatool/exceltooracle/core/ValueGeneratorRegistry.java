@@ -2,10 +2,13 @@ package com.datatool.exceltooracle.core;
 
 import com.datatool.exceltooracle.core.generator.SnowflakeValueGenerator;
 import com.datatool.exceltooracle.core.generator.UuidValueGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * 值生成器注册表
@@ -13,9 +16,17 @@ import java.util.Map;
  */
 public class ValueGeneratorRegistry {
     
+    private static final Logger logger = LoggerFactory.getLogger(ValueGeneratorRegistry.class);
+    
     private static final ValueGeneratorRegistry INSTANCE = new ValueGeneratorRegistry();
     
-    private final Map<String, ValueGenerator> generators = new HashMap<>();
+    private final Map<String, ValueGenerator> generators = new ConcurrentHashMap<>();
+    
+    // 按ID前缀动态创建的生成器工厂（前缀 -> 由前缀之后的部分创建生成器，不可用时返回null）
+    private final Map<String, Function<String, ValueGenerator>> factories = new ConcurrentHashMap<>();
+    
+    // 工厂创建的生成器，只缓存创建成功的，不在生成器列表中列出
+    private final Map<String, ValueGenerator> createdGenerators = new ConcurrentHashMap<>();
     
     /**
      * 私有构造函数
@@ -26,6 +37,13 @@ public class ValueGeneratorRegistry {
         register(new SnowflakeValueGenerator());
         register(new UuidValueGenerator());
         register(new UuidValueGenerator(true));
+        for (UuidValueGenerator.Version version : new UuidValueGenerator.Version[] {
+                UuidValueGenerator.Version.FAST_RANDOM, UuidValueGenerator.Version.TIME_ORDERED}) {
+            for (UuidValueGenerator.Format format : UuidValueGenerator.Format.values()) {
+                register(new UuidValueGenerator(version, format));
+            }
+        }
+        register(new UuidValueGenerator(UuidValueGenerator.Version.RANDOM, UuidValueGenerator.Format.RAW));
         
         // 尝试注册时间戳生成器
         try {
@@ -55,6 +73,16 @@ public class ValueGeneratorRegistry {
         generators.put(generator.getId(), generator);
     }
     
+    /**
+     * 注册按ID前缀动态创建的生成器，如"seq:"，首次使用某个ID时创建，创建成功后缓存
+     * 
+     * @param prefix ID前缀
+     * @param factory 生成器工厂，参数为ID中前缀之后的部分，无法创建时返回null
+     */
+    public void registerFactory(String prefix, Function<String, ValueGenerator> factory) {
+        factories.put(prefix, factory);
+    }
+    
     /**
      * 注销值生成器
      * 
@@ -62,6 +90,7 @@ public class ValueGeneratorRegistry {
      */
     public void unregister(String generatorId) {
         generators.remove(generatorId);
+        createdGenerators.remove(generatorId);
     }
     
     /**
@@ -71,13 +100,53 @@ public class ValueGeneratorRegistry {
      * @return 值生成器
      */
     public ValueGenerator getGenerator(String generatorId) {
-        return generators.get(generatorId);
+        if (generatorId == null) {
+            return null;
+        }
+        ValueGenerator generator = generators.get(generatorId);
+        if (generator == null) {
+            generator = createdGenerators.get(generatorId);
+        }
+        if (generator != null) {
+            return generator;
+        }
+        for (Map.Entry<String, Function<String, ValueGenerator>> entry : factories.entrySet()) {
+            String prefix = entry.getKey();
+            if (generatorId.startsWith(prefix) && generatorId.length() > prefix.length()) {
+                return create(generatorId, entry.getValue(), generatorId.substring(prefix.length()));
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 使用工厂创建生成器，工厂可能查询数据库，不在映射的锁内执行
+     * 
+     * @param generatorId 生成器ID
+     * @param factory 生成器工厂
+     * @param argument ID中前缀之后的部分
+     * @return 生成器，无法创建时为null
+     */
+    private ValueGenerator create(String generatorId, Function<String, ValueGenerator> factory, String argument) {
+        ValueGenerator generator;
+        try {
+            generator = factory.apply(argument);
+        } catch (RuntimeException e) {
+            logger.warn("创建值生成器{}失败: {}", generatorId, e.getMessage());
+            return null;
+        }
+        if (generator == null) {
+            return null;
+        }
+        // 并发创建时使用先放入的实例
+        ValueGenerator existing = createdGenerators.putIfAbsent(generatorId, generator);
+        return existing != null ? existing : generator;
     }
     
     /**
-     * 获取所有值生成器
+     * 获取所有注册的值生成器，不包括按ID前缀动态创建的生成器
      * 
-     * @return 所有值生成器
+     * @return 所有注册的值生成器
      */
     public Collection<ValueGenerator> getAllGenerators() {
         return generators.values();
@@ -90,6 +159,6 @@ public class ValueGeneratorRegistry {
      * @return 是否存在
      */
     public boolean hasGenerator(String generatorId) {
-        return generators.containsKey(generatorId);
+        return getGenerator(generatorId) != null;
     }
 } 
\ No newline at end of file
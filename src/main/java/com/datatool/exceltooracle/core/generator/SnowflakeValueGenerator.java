@@ -29,11 +29,32 @@ public class SnowflakeValueGenerator implements ValueGenerator {
         this.idGenerator = SnowflakeIdGenerator.getInstance(workerId, datacenterId);
     }
     
+    /**
+     * 构造函数，使用指定的SnowflakeIdGenerator
+     * 
+     * @param idGenerator ID生成器
+     */
+    public SnowflakeValueGenerator(SnowflakeIdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+    
     @Override
     public Object generate(ProcessContext context) {
         return idGenerator.nextId();
     }
     
+    @Override
+    public Object[] generateBatch(int count, ProcessContext context) {
+        Object[] values = new Object[count];
+        for (int filled = 0; filled < count; ) {
+            long[] ids = idGenerator.nextIds(Math.min(count - filled, SnowflakeIdGenerator.MAX_BATCH_SIZE));
+            for (long id : ids) {
+                values[filled++] = id;
+            }
+        }
+        return values;
+    }
+    
     @Override
     public String getName() {
         return "雪花算法ID生成器";
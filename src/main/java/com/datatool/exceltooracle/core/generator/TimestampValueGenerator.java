@@ -1 +1,55 @@
- 
\ No newline at end of file
+package com.datatool.exceltooracle.core.generator;
+
+import com.datatool.exceltooracle.core.ProcessContext;
+import com.datatool.exceltooracle.core.ValueGenerator;
+
+import java.sql.Timestamp;
+
+/**
+ * 时间戳值生成器
+ * 生成当前时间，批量生成时同一批的值使用同一次读取的时间
+ */
+public class TimestampValueGenerator implements ValueGenerator {
+    
+    @Override
+    public Object generate(ProcessContext context) {
+        return new Timestamp(System.currentTimeMillis());
+    }
+    
+    @Override
+    public Object[] generateBatch(int count, ProcessContext context) {
+        long now = System.currentTimeMillis();
+        Object[] values = new Object[count];
+        for (int i = 0; i < count; i++) {
+            // Timestamp是可变对象，每行使用单独的实例
+            values[i] = new Timestamp(now);
+        }
+        return values;
+    }
+    
+    @Override
+    public boolean isPrefetchable() {
+        // 提前生成的时间会过时
+        return false;
+    }
+    
+    @Override
+    public String getName() {
+        return "时间戳生成器";
+    }
+    
+    @Override
+    public String getDescription() {
+        return "生成当前时间";
+    }
+    
+    @Override
+    public String getId() {
+        return "timestamp";
+    }
+    
+    @Override
+    public Class<?> getValueType() {
+        return Timestamp.class;
+    }
+}
@@ -3,55 +3,217 @@ package com.datatool.exceltooracle.core.generator;
 import com.datatool.exceltooracle.core.ProcessContext;
 import com.datatool.exceltooracle.core.ValueGenerator;
 
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * UUID值生成器
- * 生成全局唯一的UUID字符串
+ * 生成全局唯一的UUID字符串或RAW(16)字节数组
+ * <p>
+ * 默认的UUID版本使用UUID.randomUUID()（共享的SecureRandom）；FAST_RANDOM和TIME_ORDERED使用ThreadLocalRandom，
+ * 不存在线程间竞争，但随机数不可用于安全用途。TIME_ORDERED为UUID v7，高48位为毫秒时间戳，
+ * 按生成时间大致有序，作为Oracle B树索引的键时插入集中在索引右侧。
+ * </p>
  */
 public class UuidValueGenerator implements ValueGenerator {
-    
-    private final boolean removeDashes;
-    
+
+    /**
+     * UUID版本
+     */
+    public enum Version {
+        /** v4，使用UUID.randomUUID() */
+        RANDOM,
+        /** v4，使用ThreadLocalRandom */
+        FAST_RANDOM,
+        /** v7，时间有序 */
+        TIME_ORDERED
+    }
+
+    /**
+     * 输出格式
+     */
+    public enum Format {
+        /** 带连字符的36位字符串 */
+        STANDARD,
+        /** 不带连字符的32位字符串 */
+        NO_DASHES,
+        /** 16字节数组，对应RAW(16)列 */
+        RAW
+    }
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final Version version;
+    private final Format format;
+
     /**
      * 构造函数，默认保留连字符
      */
     public UuidValueGenerator() {
         this(false);
     }
-    
+
     /**
      * 构造函数
-     * 
+     *
      * @param removeDashes 是否移除连字符
      */
     public UuidValueGenerator(boolean removeDashes) {
-        this.removeDashes = removeDashes;
+        this(Version.RANDOM, removeDashes ? Format.NO_DASHES : Format.STANDARD);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param version UUID版本
+     * @param format 输出格式
+     */
+    public UuidValueGenerator(Version version, Format format) {
+        this.version = version;
+        this.format = format;
     }
-    
+
     @Override
     public Object generate(ProcessContext context) {
-        String uuid = UUID.randomUUID().toString();
-        return removeDashes ? uuid.replace("-", "") : uuid;
+        return generate(ThreadLocalRandom.current(), System.currentTimeMillis());
     }
-    
+
+    @Override
+    public Object[] generateBatch(int count, ProcessContext context) {
+        // 一批值共用一次随机数源和时钟的读取
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now = System.currentTimeMillis();
+        Object[] values = new Object[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = generate(random, now);
+        }
+        return values;
+    }
+
+    private Object generate(ThreadLocalRandom random, long now) {
+        long msb;
+        long lsb;
+        if (version == Version.RANDOM) {
+            UUID uuid = UUID.randomUUID();
+            msb = uuid.getMostSignificantBits();
+            lsb = uuid.getLeastSignificantBits();
+        } else {
+            if (version == Version.TIME_ORDERED) {
+                // 48位时间戳 | 版本7 | 12位随机数
+                msb = (now << 16) | 0x7000L | (random.nextLong() & 0x0FFFL);
+            } else {
+                msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+            }
+            lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        }
+
+        switch (format) {
+            case RAW:
+                return toBytes(msb, lsb);
+            case NO_DASHES:
+                return toHex(msb, lsb, false);
+            default:
+                return toHex(msb, lsb, true);
+        }
+    }
+
+    @Override
+    public boolean isPrefetchable() {
+        // v7的高位是生成时的时间戳
+        return version != Version.TIME_ORDERED;
+    }
+
+    /**
+     * 转换为16字节数组（大端序）
+     */
+    private static byte[] toBytes(long msb, long lsb) {
+        byte[] bytes = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (msb >>> (56 - i * 8));
+            bytes[i + 8] = (byte) (lsb >>> (56 - i * 8));
+        }
+        return bytes;
+    }
+
+    /**
+     * 转换为小写十六进制字符串，只分配结果缓冲区
+     */
+    private static String toHex(long msb, long lsb, boolean dashes) {
+        byte[] buf = new byte[dashes ? 36 : 32];
+        int pos = 0;
+        for (int nibble = 0; nibble < 32; nibble++) {
+            if (dashes && (nibble == 8 || nibble == 12 || nibble == 16 || nibble == 20)) {
+                buf[pos++] = '-';
+            }
+            long bits = nibble < 16 ? msb : lsb;
+            buf[pos++] = HEX_DIGITS[(int) (bits >>> (60 - (nibble & 15) * 4)) & 0xF];
+        }
+        return new String(buf, StandardCharsets.ISO_8859_1);
+    }
+
     @Override
     public String getName() {
-        return "UUID生成器";
+        switch (version) {
+            case FAST_RANDOM:
+                return "快速UUID生成器";
+            case TIME_ORDERED:
+                return "时间有序UUID生成器";
+            default:
+                return "UUID生成器";
+        }
     }
-    
+
     @Override
     public String getDescription() {
-        return "生成全局唯一的UUID字符串" + (removeDashes ? "（不含连字符）" : "");
+        String description;
+        switch (version) {
+            case FAST_RANDOM:
+                description = "使用线程本地随机数生成UUID v4";
+                break;
+            case TIME_ORDERED:
+                description = "生成按时间有序的UUID v7";
+                break;
+            default:
+                description = "生成全局唯一的UUID";
+                break;
+        }
+        switch (format) {
+            case RAW:
+                return description + "（RAW(16)字节）";
+            case NO_DASHES:
+                return description + "字符串（不含连字符）";
+            default:
+                return description + "字符串";
+        }
     }
-    
+
     @Override
     public String getId() {
-        return removeDashes ? "uuid-no-dashes" : "uuid";
+        String id;
+        switch (version) {
+            case FAST_RANDOM:
+                id = "uuid-fast";
+                break;
+            case TIME_ORDERED:
+                id = "uuid-v7";
+                break;
+            default:
+                id = "uuid";
+                break;
+        }
+        switch (format) {
+            case RAW:
+                return id + "-raw";
+            case NO_DASHES:
+                return id + "-no-dashes";
+            default:
+                return id;
+        }
     }
-    
+
     @Override
     public Class<?> getValueType() {
-        return String.class;
+        return format == Format.RAW ? byte[].class : String.class;
     }
-} 
\ No newline at end of file
+}
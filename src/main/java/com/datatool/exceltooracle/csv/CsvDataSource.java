@@ -0,0 +1,676 @@
+package com.datatool.exceltooracle.csv;
+
+import com.datatool.exceltooracle.excel.SheetRow;
+import com.datatool.exceltooracle.excel.SheetRowSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * CSV流式数据源实现类
+ * <p>
+ * 通过内存映射按窗口读取文件，逐字节解析引号、分隔符和换行，只在生成字段值时解码为字符串。
+ * 映射窗口在换窗和关闭时立即释放，否则在Windows上映射存在期间无法删除文件；
+ * 运行环境不支持释放映射时改为按位置读取到堆内缓冲区。
+ * 分隔符、引号和换行都是ASCII字节，在UTF-8和GBK编码中都不会出现在多字节字符内部，
+ * 因此可以在解码前按字节切分字段。每条记录作为一行（行号从0开始，空行计入行号但不输出），
+ * 字段值为字符串，空字段为null，表头行和列映射的用法与Excel数据源一致。
+ * </p>
+ * <p>
+ * 通过{@link #split(File, int)}可以在记录边界处将文件切分为多个区间，
+ * 每个区间单独构造一个数据源并行解析。
+ * </p>
+ */
+public class CsvDataSource implements SheetRowSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(CsvDataSource.class);
+
+    /**
+     * 内存映射窗口大小
+     */
+    private static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * 不能释放映射、改为按位置读取时的初始缓冲区大小
+     */
+    private static final int READ_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * 编码检测时读取的字节数
+     */
+    private static final int DETECT_SIZE = 64 * 1024;
+
+    /**
+     * GBK编码
+     */
+    public static final Charset GBK = Charset.forName("GBK");
+
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    /**
+     * 释放内存映射的方法（sun.misc.Unsafe.invokeCleaner），不可用时为null
+     */
+    private static final MethodHandle UNMAPPER = findUnmapper();
+
+    private final File csvFile;
+    private final Charset configuredCharset;
+    private final byte delimiter;
+    private final int headerRowNum;
+    private final boolean ignoreHeader;
+    private final Split split;
+
+    private FileChannel channel;
+    private ByteBuffer window;
+    private ByteBuffer readBuffer;
+    private long windowStart;
+    private int windowLength;
+    private long position;
+    private long end;
+    private Charset charset;
+    private int rowNum;
+
+    private SheetRow headerRow;
+    private SheetRow nextRow;
+    private boolean finished;
+    private final List<String> fieldBuffer = new ArrayList<>();
+    private byte[] byteBuffer = new byte[256];
+
+    /**
+     * 构造CSV流式数据源
+     *
+     * @param csvFile CSV文件
+     * @param charset 文件编码，为null时自动识别（UTF-8或GBK）
+     * @param delimiter 字段分隔符
+     * @param headerRowNum 表头行号，默认为0
+     * @param ignoreHeader 是否忽略表头行
+     */
+    public CsvDataSource(File csvFile, Charset charset, char delimiter, int headerRowNum, boolean ignoreHeader) {
+        this(csvFile, charset, delimiter, headerRowNum, ignoreHeader, null);
+    }
+
+    /**
+     * 构造只读取文件中一个区间的CSV数据源
+     *
+     * @param csvFile CSV文件
+     * @param charset 文件编码，为null时自动识别（UTF-8或GBK）
+     * @param delimiter 字段分隔符
+     * @param headerRowNum 表头行号
+     * @param ignoreHeader 是否忽略表头行
+     * @param split 读取区间，为null时读取整个文件
+     */
+    public CsvDataSource(File csvFile, Charset charset, char delimiter, int headerRowNum,
+                         boolean ignoreHeader, Split split) {
+        if (delimiter == '"' || delimiter == '\r' || delimiter == '\n' || delimiter > 0x7F) {
+            throw new IllegalArgumentException("不支持的CSV分隔符: " + delimiter);
+        }
+        this.csvFile = csvFile;
+        this.configuredCharset = charset;
+        this.delimiter = (byte) delimiter;
+        this.headerRowNum = headerRowNum;
+        this.ignoreHeader = ignoreHeader;
+        this.split = split;
+    }
+
+    /**
+     * 构造CSV流式数据源（自动识别编码，逗号分隔，表头行号为0，忽略表头）
+     *
+     * @param csvFile CSV文件
+     */
+    public CsvDataSource(File csvFile) {
+        this(csvFile, null, ',', 0, true);
+    }
+
+    @Override
+    public void open() throws IOException {
+        if (channel != null) {
+            // 已经打开（例如读取表头时），保持当前读取位置
+            return;
+        }
+
+        logger.debug("打开CSV数据源: {}", csvFile.getAbsolutePath());
+
+        try {
+            channel = FileChannel.open(csvFile.toPath(), StandardOpenOption.READ);
+            long fileSize = channel.size();
+            int bomLength = bomLength(channel);
+            charset = configuredCharset != null ? configuredCharset : detectCharset(channel, bomLength);
+            if (!StandardCharsets.UTF_8.equals(charset) && charset.newEncoder().maxBytesPerChar() > 1
+                    && delimiter >= 0x40) {
+                // GBK等双字节编码的第二个字节可能落在0x40以上的ASCII范围内
+                throw new IOException("编码 " + charset.name() + " 下不支持分隔符: " + (char) delimiter);
+            }
+
+            if (split != null) {
+                position = Math.max(split.getStart(), bomLength);
+                end = Math.min(split.getEnd(), fileSize);
+                rowNum = split.getFirstRowNum();
+            } else {
+                position = bomLength;
+                end = fileSize;
+                rowNum = 0;
+            }
+
+            // 读取到表头行为止，表头之后的第一行数据暂存为下一行
+            int startRowNum = ignoreHeader ? headerRowNum + 1 : headerRowNum;
+            SheetRow row;
+            while ((row = readNextRow()) != null) {
+                if (row.getRowNum() == headerRowNum) {
+                    headerRow = row;
+                }
+                if (row.getRowNum() >= startRowNum) {
+                    nextRow = row;
+                    break;
+                }
+            }
+            finished = nextRow == null;
+
+            logger.debug("CSV数据源已打开，编码: {}, 区间: {}-{}, 起始行: {}", charset, position, end, startRowNum);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        release(window);
+        window = null;
+        readBuffer = null;
+        nextRow = null;
+        if (channel != null) {
+            channel.close();
+            channel = null;
+            logger.debug("CSV数据源已关闭: {}", csvFile.getAbsolutePath());
+        }
+    }
+
+    @Override
+    public Iterator<SheetRow> iterator() {
+        if (channel == null) {
+            throw new IllegalStateException("数据源未打开");
+        }
+
+        return new Iterator<SheetRow>() {
+            @Override
+            public boolean hasNext() {
+                if (nextRow == null && !finished) {
+                    try {
+                        nextRow = readNextRow();
+                    } catch (IOException e) {
+                        throw new IllegalStateException("读取CSV行数据失败: " + e.getMessage(), e);
+                    }
+                    finished = nextRow == null;
+                }
+                return nextRow != null;
+            }
+
+            @Override
+            public SheetRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("没有更多的行数据");
+                }
+
+                SheetRow row = nextRow;
+                nextRow = null;
+                return row;
+            }
+        };
+    }
+
+    /**
+     * 读取下一条非空记录
+     *
+     * @return 行数据，没有更多记录时返回null
+     */
+    private SheetRow readNextRow() throws IOException {
+        while (position < end) {
+            int currentRowNum = rowNum;
+            Object[] values = readRecord();
+            rowNum++;
+            if (values != null) {
+                return new SheetRow(currentRowNum, values);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 从当前位置解析一条记录，记录跨越映射窗口时从记录起点重新映射后再解析
+     *
+     * @return 字段值，空行返回null
+     */
+    private Object[] readRecord() throws IOException {
+        int windowSize = UNMAPPER != null ? WINDOW_SIZE : READ_BUFFER_SIZE;
+        while (true) {
+            ensureWindow(position, windowSize);
+            int consumed = parseRecord();
+            if (consumed >= 0) {
+                position += consumed;
+                if (fieldBuffer.size() == 1 && fieldBuffer.get(0) == null) {
+                    return null;
+                }
+                return fieldBuffer.toArray();
+            }
+            // 记录超出当前窗口：窗口已从记录起点开始仍放不下时扩大窗口
+            if (windowStart == position && windowLength >= windowSize) {
+                if (windowSize > Integer.MAX_VALUE / 2) {
+                    throw new IOException("CSV记录过长，行 " + (rowNum + 1));
+                }
+                windowSize *= 2;
+            }
+            release(window);
+            window = null;
+        }
+    }
+
+    /**
+     * 在映射窗口内解析一条记录，字段值放入fieldBuffer
+     *
+     * @return 记录占用的字节数（含换行），记录未在窗口内结束时返回-1
+     */
+    private int parseRecord() throws IOException {
+        fieldBuffer.clear();
+        int offset = (int) (position - windowStart);
+        int start = offset;
+        int limit = windowLength;
+        boolean atEnd = windowStart + windowLength >= end;
+
+        while (true) {
+            if (offset < limit && window.get(offset) == QUOTE) {
+                // 带引号的字段：""表示一个引号，引号内的分隔符和换行属于字段内容
+                offset++;
+                int length = 0;
+                while (true) {
+                    if (offset >= limit) {
+                        if (atEnd) {
+                            throw new IOException("CSV引号未闭合，行 " + (rowNum + 1));
+                        }
+                        return -1;
+                    }
+                    byte b = window.get(offset++);
+                    if (b == QUOTE) {
+                        if (offset >= limit && !atEnd) {
+                            return -1;
+                        }
+                        if (offset < limit && window.get(offset) == QUOTE) {
+                            offset++;
+                        } else {
+                            break;
+                        }
+                    }
+                    appendByte(length++, b);
+                }
+                // 闭合引号后到分隔符之前的内容按原样追加
+                while (offset < limit && !isFieldEnd(window.get(offset))) {
+                    appendByte(length++, window.get(offset++));
+                }
+                if (offset >= limit && !atEnd) {
+                    return -1;
+                }
+                fieldBuffer.add(length == 0 ? null : new String(byteBuffer, 0, length, charset));
+            } else {
+                int fieldStart = offset;
+                while (offset < limit && !isFieldEnd(window.get(offset))) {
+                    offset++;
+                }
+                if (offset >= limit && !atEnd) {
+                    return -1;
+                }
+                fieldBuffer.add(decode(fieldStart, offset - fieldStart));
+            }
+
+            if (offset >= limit) {
+                // 文件或区间结束，最后一条记录没有换行
+                return offset - start;
+            }
+            byte b = window.get(offset++);
+            if (b == delimiter) {
+                continue;
+            }
+            if (b == CR) {
+                if (offset >= limit && !atEnd) {
+                    return -1;
+                }
+                if (offset < limit && window.get(offset) == LF) {
+                    offset++;
+                }
+            }
+            return offset - start;
+        }
+    }
+
+    private boolean isFieldEnd(byte b) {
+        return b == delimiter || b == LF || b == CR;
+    }
+
+    /**
+     * 解码不带引号的字段
+     *
+     * @param offset 窗口内偏移
+     * @param length 字节数
+     * @return 字段值，空字段返回null
+     */
+    private String decode(int offset, int length) {
+        if (length == 0) {
+            return null;
+        }
+        if (length > byteBuffer.length) {
+            byteBuffer = new byte[Math.max(length, byteBuffer.length * 2)];
+        }
+        window.get(offset, byteBuffer, 0, length);
+        return new String(byteBuffer, 0, length, charset);
+    }
+
+    private void appendByte(int index, byte b) {
+        if (index >= byteBuffer.length) {
+            byteBuffer = Arrays.copyOf(byteBuffer, byteBuffer.length * 2);
+        }
+        byteBuffer[index] = b;
+    }
+
+    /**
+     * 确保映射窗口从指定位置开始覆盖足够的字节
+     *
+     * @param from 文件偏移
+     * @param size 窗口大小
+     */
+    private void ensureWindow(long from, int size) throws IOException {
+        if (window != null && from >= windowStart && from < windowStart + windowLength) {
+            return;
+        }
+        release(window);
+        window = null;
+        windowStart = from;
+        windowLength = (int) Math.min(size, end - from);
+        window = readRegion(channel, windowStart, windowLength, readBuffer);
+        if (!window.isDirect()) {
+            readBuffer = window;
+        }
+    }
+
+    /**
+     * 读取文件的一个区间：能够释放映射时使用内存映射，否则按位置读取到堆内缓冲区
+     *
+     * @param fileChannel 文件通道
+     * @param from 文件偏移
+     * @param length 字节数
+     * @param reuse 可以复用的堆内缓冲区，可以为null
+     * @return 区间内容，下标0对应文件偏移from，用完后调用{@link #release(ByteBuffer)}
+     */
+    private static ByteBuffer readRegion(FileChannel fileChannel, long from, int length, ByteBuffer reuse)
+            throws IOException {
+        if (UNMAPPER != null) {
+            return fileChannel.map(FileChannel.MapMode.READ_ONLY, from, length);
+        }
+        ByteBuffer buffer = reuse != null && reuse.capacity() >= length ? reuse : ByteBuffer.allocate(length);
+        buffer.clear().limit(length);
+        while (buffer.hasRemaining()) {
+            if (fileChannel.read(buffer, from + buffer.position()) < 0) {
+                throw new EOFException("读取CSV文件时遇到意外的文件结尾");
+            }
+        }
+        buffer.position(0);
+        return buffer;
+    }
+
+    /**
+     * 立即释放内存映射，堆内缓冲区不需要释放
+     *
+     * @param buffer 由readRegion返回的缓冲区，可以为null
+     */
+    private static void release(ByteBuffer buffer) {
+        if (buffer instanceof MappedByteBuffer && UNMAPPER != null) {
+            try {
+                UNMAPPER.invokeExact(buffer);
+            } catch (Throwable e) {
+                logger.warn("释放CSV文件的内存映射失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static MethodHandle findUnmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.info("无法释放内存映射，CSV文件改为按位置读取: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 在记录边界处将文件切分为若干区间
+     * <p>
+     * 从头扫描一遍文件，只跟踪引号状态和记录结束位置，在每个目标偏移之后的第一个记录边界处切分，
+     * 同时记录每个区间的起始行号，使并行解析得到的行号与顺序解析一致。
+     * 扫描在调用线程中顺序执行，不解码字段，但仍要读完整个文件，完成之前并行解析不会开始；
+     * 文件不在页缓存中时这一步的耗时接近顺序读取一遍文件。
+     * 要求引号只出现在带引号字段的首尾（转义为""），不带引号的字段中间出现单个引号会使切分位置错误。
+     * </p>
+     *
+     * @param csvFile CSV文件
+     * @param parts 期望的区间数
+     * @return 区间列表（文件较小时可能少于期望数量）
+     * @throws IOException 如果读取文件失败
+     */
+    public static List<Split> split(File csvFile, int parts) throws IOException {
+        List<Split> splits = new ArrayList<>();
+        try (FileChannel fileChannel = FileChannel.open(csvFile.toPath(), StandardOpenOption.READ)) {
+            long fileSize = fileChannel.size();
+            long partSize = Math.max(fileSize / Math.max(parts, 1), 1);
+            long splitStart = 0;
+            int splitRowNum = 0;
+            long nextTarget = partSize;
+
+            boolean inQuotes = false;
+            boolean afterCr = false;
+            int records = 0;
+            int windowSize = UNMAPPER != null ? WINDOW_SIZE : READ_BUFFER_SIZE;
+            ByteBuffer buffer = null;
+            for (long windowStart = 0; windowStart < fileSize; windowStart += windowSize) {
+                int length = (int) Math.min(windowSize, fileSize - windowStart);
+                buffer = readRegion(fileChannel, windowStart, length, buffer);
+                for (int i = 0; i < length; i++) {
+                    byte b = buffer.get(i);
+                    long recordEnd = -1;
+                    if (afterCr) {
+                        // CR后不是LF时记录在CR处结束
+                        afterCr = false;
+                        if (b != LF) {
+                            records++;
+                            recordEnd = windowStart + i;
+                        }
+                    }
+                    if (b == QUOTE) {
+                        inQuotes = !inQuotes;
+                    } else if (!inQuotes && b == LF) {
+                        records++;
+                        recordEnd = windowStart + i + 1;
+                    } else if (!inQuotes && b == CR) {
+                        afterCr = true;
+                    }
+
+                    if (recordEnd >= nextTarget && recordEnd < fileSize && splits.size() < parts - 1) {
+                        splits.add(new Split(splitStart, recordEnd, splitRowNum));
+                        splitStart = recordEnd;
+                        splitRowNum = records;
+                        nextTarget = recordEnd + partSize;
+                    }
+                }
+                release(buffer);
+            }
+            splits.add(new Split(splitStart, fileSize, splitRowNum));
+        }
+        return splits;
+    }
+
+    /**
+     * 识别文件编码：有UTF-8 BOM或开头部分是合法的UTF-8时为UTF-8，否则为GBK
+     *
+     * @param csvFile CSV文件
+     * @return 文件编码
+     * @throws IOException 如果读取文件失败
+     */
+    public static Charset detectCharset(File csvFile) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(csvFile.toPath(), StandardOpenOption.READ)) {
+            return detectCharset(fileChannel, bomLength(fileChannel));
+        }
+    }
+
+    private static Charset detectCharset(FileChannel fileChannel, int bomLength) throws IOException {
+        if (bomLength > 0) {
+            return StandardCharsets.UTF_8;
+        }
+        int length = (int) Math.min(DETECT_SIZE, fileChannel.size());
+        if (length == 0) {
+            return StandardCharsets.UTF_8;
+        }
+        ByteBuffer buffer = readRegion(fileChannel, 0, length, null);
+        try {
+            return isUtf8(buffer, length, length < fileChannel.size()) ? StandardCharsets.UTF_8 : GBK;
+        } finally {
+            release(buffer);
+        }
+    }
+
+    /**
+     * 校验字节序列是否为合法的UTF-8
+     *
+     * @param buffer 字节
+     * @param length 字节数
+     * @param truncated 是否只是文件的开头部分（末尾不完整的字符视为合法）
+     * @return 是否为UTF-8
+     */
+    private static boolean isUtf8(ByteBuffer buffer, int length, boolean truncated) {
+        int i = 0;
+        while (i < length) {
+            int b = buffer.get(i) & 0xFF;
+            int trailing;
+            if (b < 0x80) {
+                i++;
+                continue;
+            } else if (b >= 0xC2 && b <= 0xDF) {
+                trailing = 1;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                trailing = 2;
+            } else if (b >= 0xF0 && b <= 0xF4) {
+                trailing = 3;
+            } else {
+                return false;
+            }
+            if (i + trailing >= length) {
+                return truncated;
+            }
+            for (int j = 1; j <= trailing; j++) {
+                if ((buffer.get(i + j) & 0xC0) != 0x80) {
+                    return false;
+                }
+            }
+            i += trailing + 1;
+        }
+        return true;
+    }
+
+    private static int bomLength(FileChannel fileChannel) throws IOException {
+        if (fileChannel.size() < 3) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(3);
+        while (buffer.hasRemaining() && fileChannel.read(buffer, buffer.position()) >= 0) {
+            // 读满三个字节
+        }
+        boolean bom = (buffer.get(0) & 0xFF) == 0xEF && (buffer.get(1) & 0xFF) == 0xBB && (buffer.get(2) & 0xFF) == 0xBF;
+        return bom ? 3 : 0;
+    }
+
+    @Override
+    public String getName() {
+        return csvFile.getName();
+    }
+
+    @Override
+    public SourceType getType() {
+        return SourceType.CSV;
+    }
+
+    @Override
+    public SheetRow getHeaderRow() {
+        if (channel == null) {
+            throw new IllegalStateException("数据源未打开");
+        }
+        return headerRow;
+    }
+
+    /**
+     * 获取实际使用的文件编码
+     *
+     * @return 文件编码
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * 文件区间，起止位置都在记录边界上
+     */
+    public static class Split {
+
+        private final long start;
+        private final long end;
+        private final int firstRowNum;
+
+        /**
+         * 构造文件区间
+         *
+         * @param start 起始偏移（包含）
+         * @param end 结束偏移（不包含）
+         * @param firstRowNum 区间第一条记录的行号
+         */
+        public Split(long start, long end, int firstRowNum) {
+            this.start = start;
+            this.end = end;
+            this.firstRowNum = firstRowNum;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        public int getFirstRowNum() {
+            return firstRowNum;
+        }
+
+        @Override
+        public String toString() {
+            return "Split[" + start + ", " + end + ") firstRow=" + firstRowNum;
+        }
+    }
+}
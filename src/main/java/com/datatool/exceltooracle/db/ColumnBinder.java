@@ -0,0 +1,194 @@
+package com.datatool.exceltooracle.db;
+
+import com.datatool.exceltooracle.dto.TableColumnDTO;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+
+/**
+ * 列参数绑定器
+ * 根据目标列的类型选择对应的setXxx方法，避免每个值都经过通用的类型推断
+ */
+@FunctionalInterface
+public interface ColumnBinder {
+
+    /**
+     * 绑定参数值
+     *
+     * @param statement 预编译语句
+     * @param index 参数位置（从1开始）
+     * @param value 参数值（可能为null）
+     * @throws SQLException 如果绑定失败
+     */
+    void bind(PreparedStatement statement, int index, Object value) throws SQLException;
+
+    /**
+     * 通用绑定器，类型由驱动推断
+     */
+    ColumnBinder OBJECT = (statement, index, value) -> {
+        if (value == null) {
+            statement.setNull(index, Types.VARCHAR);
+        } else {
+            statement.setObject(index, value);
+        }
+    };
+
+    /**
+     * 数值列绑定器
+     */
+    ColumnBinder NUMBER = (statement, index, value) -> {
+        if (value == null) {
+            statement.setNull(index, Types.NUMERIC);
+        } else if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            statement.setLong(index, ((Number) value).longValue());
+        } else if (value instanceof BigDecimal) {
+            statement.setBigDecimal(index, (BigDecimal) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            statement.setDouble(index, ((Number) value).doubleValue());
+        } else if (value instanceof String) {
+            // CSV等文本数据源的数值按十进制解析，不依赖会话的NLS设置；无法解析时交给数据库转换
+            BigDecimal number = parseNumber((String) value);
+            if (number != null) {
+                statement.setBigDecimal(index, number);
+            } else {
+                statement.setObject(index, value);
+            }
+        } else {
+            statement.setObject(index, value);
+        }
+    };
+
+    /**
+     * 字符列绑定器
+     */
+    ColumnBinder STRING = (statement, index, value) -> {
+        if (value == null) {
+            statement.setNull(index, Types.VARCHAR);
+        } else if (value instanceof String) {
+            statement.setString(index, (String) value);
+        } else if (value instanceof BigDecimal) {
+            statement.setString(index, ((BigDecimal) value).toPlainString());
+        } else if (value instanceof Number) {
+            statement.setString(index, value.toString());
+        } else {
+            statement.setObject(index, value);
+        }
+    };
+
+    /**
+     * 日期时间列绑定器
+     */
+    ColumnBinder TIMESTAMP = (statement, index, value) -> {
+        if (value == null) {
+            statement.setNull(index, Types.TIMESTAMP);
+        } else if (value instanceof Timestamp) {
+            statement.setTimestamp(index, (Timestamp) value);
+        } else if (value instanceof java.util.Date) {
+            statement.setTimestamp(index, new Timestamp(((java.util.Date) value).getTime()));
+        } else if (value instanceof String) {
+            // 无法解析的文本交给数据库按会话的日期格式转换
+            Timestamp timestamp = parseTimestamp((String) value);
+            if (timestamp != null) {
+                statement.setTimestamp(index, timestamp);
+            } else {
+                statement.setObject(index, value);
+            }
+        } else {
+            statement.setObject(index, value);
+        }
+    };
+
+    /**
+     * 二进制列绑定器
+     */
+    ColumnBinder BINARY = (statement, index, value) -> {
+        if (value == null) {
+            statement.setNull(index, Types.VARBINARY);
+        } else if (value instanceof byte[]) {
+            statement.setBytes(index, (byte[]) value);
+        } else {
+            statement.setObject(index, value);
+        }
+    };
+
+    /**
+     * 解析文本形式的数值
+     *
+     * @param text 数值文本
+     * @return 数值，格式不正确时返回null
+     */
+    static BigDecimal parseNumber(String text) {
+        try {
+            return new BigDecimal(text.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 解析文本形式的日期时间，支持yyyy-MM-dd、yyyy-MM-dd HH:mm[:ss][.f]以及用/分隔的日期
+     *
+     * @param text 日期时间文本
+     * @return 时间戳，格式不支持时返回null
+     */
+    static Timestamp parseTimestamp(String text) {
+        String value = text.trim().replace('/', '-').replace('T', ' ');
+        try {
+            if (value.indexOf(' ') < 0) {
+                return Timestamp.valueOf(LocalDate.parse(value, DATE_FORMAT).atStartOfDay());
+            }
+            return Timestamp.valueOf(LocalDateTime.parse(value, DATE_TIME_FORMAT));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 日期格式（月、日允许一位数字）
+     */
+    DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("uuuu-M-d");
+
+    /**
+     * 日期时间格式（秒和小数秒可选）
+     */
+    DateTimeFormatter DATE_TIME_FORMAT = new DateTimeFormatterBuilder()
+            .appendPattern("uuuu-M-d H:mm")
+            .optionalStart().appendPattern(":ss").optionalEnd()
+            .optionalStart().appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true).optionalEnd()
+            .toFormatter();
+
+    /**
+     * 根据列信息选择绑定器
+     *
+     * @param column 列信息（可能为null）
+     * @return 绑定器
+     */
+    static ColumnBinder forColumn(TableColumnDTO column) {
+        if (column == null || column.getTypeName() == null) {
+            return OBJECT;
+        }
+
+        String typeName = column.getTypeName().toUpperCase();
+        if (typeName.equals("NUMBER") || typeName.equals("FLOAT") || typeName.equals("INTEGER")
+                || typeName.equals("DECIMAL") || typeName.startsWith("BINARY_")) {
+            return NUMBER;
+        } else if (typeName.contains("CHAR")) {
+            return STRING;
+        } else if (typeName.equals("DATE") || typeName.startsWith("TIMESTAMP")) {
+            return TIMESTAMP;
+        } else if (typeName.equals("RAW") || typeName.equals("LONG RAW") || typeName.equals("BLOB")) {
+            return BINARY;
+        }
+        return OBJECT;
+    }
+}
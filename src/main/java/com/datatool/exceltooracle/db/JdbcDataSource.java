@@ -0,0 +1,317 @@
+package com.datatool.exceltooracle.db;
+
+import com.datatool.exceltooracle.excel.SheetRow;
+import com.datatool.exceltooracle.excel.SheetRowSource;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * 数据库查询数据源
+ * <p>
+ * 以只进、只读游标执行查询，按fetch size分批从数据库取回行，不在内存中保存整个结果集。
+ * 查询结果的列标签作为表头（行号为-1），与Excel列名一样参与列映射；数据行的行号从0开始。
+ * 连接在打开时从连接池获取，关闭时归还。
+ * </p>
+ */
+@Slf4j
+public class JdbcDataSource implements SheetRowSource {
+
+    /**
+     * 表名（可带模式名）和列名的格式，拼接到SQL中的标识符必须符合该格式
+     */
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z][A-Za-z0-9_$#]*(\\.[A-Za-z][A-Za-z0-9_$#]*)?");
+
+    private final javax.sql.DataSource dataSource;
+    private final String sql;
+    private final List<Object> parameters;
+    private final int fetchSize;
+    private final String name;
+    private final AtomicInteger rowCounter;
+
+    private Connection connection;
+    private boolean originalAutoCommit;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+    private int[] columnTypes;
+    private SheetRow headerRow;
+    private SheetRow nextRow;
+    private boolean finished;
+
+    /**
+     * 构造数据库查询数据源
+     *
+     * @param dataSource 源数据库连接池
+     * @param sql 查询语句
+     * @param parameters 查询参数
+     * @param fetchSize 每次从数据库取回的行数
+     * @param name 数据源名称
+     */
+    public JdbcDataSource(javax.sql.DataSource dataSource, String sql, List<Object> parameters,
+                          int fetchSize, String name) {
+        this(dataSource, sql, parameters, fetchSize, name, new AtomicInteger());
+    }
+
+    /**
+     * 构造数据库查询数据源（多个切分共用行号计数器，行号在所有切分中唯一）
+     */
+    JdbcDataSource(javax.sql.DataSource dataSource, String sql, List<Object> parameters,
+                   int fetchSize, String name, AtomicInteger rowCounter) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("fetch size必须大于0");
+        }
+        this.dataSource = dataSource;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.fetchSize = fetchSize;
+        this.name = name;
+        this.rowCounter = rowCounter;
+    }
+
+    /**
+     * 创建读取整张表的数据源
+     *
+     * @param dataSource 源数据库连接池
+     * @param tableName 表名（可带模式名，如"SRC.CUSTOMER"）
+     * @param fetchSize 每次从数据库取回的行数
+     * @return 数据源
+     */
+    public static JdbcDataSource forTable(javax.sql.DataSource dataSource, String tableName, int fetchSize) {
+        return new JdbcDataSource(dataSource, "SELECT * FROM " + checkIdentifier(tableName),
+                null, fetchSize, tableName);
+    }
+
+    /**
+     * 校验拼接到SQL中的表名或列名
+     *
+     * @param identifier 表名或列名
+     * @return 校验通过的标识符
+     */
+    public static String checkIdentifier(String identifier) {
+        if (!isIdentifier(identifier)) {
+            throw new IllegalArgumentException("无效的表名或列名: " + identifier);
+        }
+        return identifier;
+    }
+
+    /**
+     * 是否为可以拼接到SQL中的表名或列名（可带模式名）
+     *
+     * @param identifier 表名或列名
+     * @return 是否有效
+     */
+    public static boolean isIdentifier(String identifier) {
+        return identifier != null && IDENTIFIER.matcher(identifier).matches();
+    }
+
+    @Override
+    public void open() throws IOException {
+        if (resultSet != null) {
+            // 已经打开（例如读取表头时），保持当前读取位置
+            return;
+        }
+
+        log.debug("打开数据库数据源: {}, SQL: {}, 参数: {}", name, sql, parameters);
+
+        try {
+            connection = dataSource.getConnection();
+            // 部分驱动（如PostgreSQL）只有在事务中才按fetch size分批取回，否则一次取回整个结果集
+            originalAutoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            if (parameters != null) {
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+            }
+            resultSet = statement.executeQuery();
+            resultSet.setFetchSize(fetchSize);
+
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            columnTypes = new int[columnCount];
+            Object[] labels = new Object[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columnTypes[i] = metaData.getColumnType(i + 1);
+                labels[i] = metaData.getColumnLabel(i + 1);
+            }
+            headerRow = new SheetRow(-1, labels);
+            finished = false;
+        } catch (SQLException e) {
+            close();
+            throw new IOException("执行源数据查询失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        nextRow = null;
+        SQLException error = null;
+        try {
+            if (resultSet != null) {
+                resultSet.close();
+            }
+            if (statement != null) {
+                statement.close();
+            }
+        } catch (SQLException e) {
+            error = e;
+        }
+        resultSet = null;
+        statement = null;
+
+        if (connection != null) {
+            try {
+                // 只读查询，结束事务并恢复连接原有的提交方式后归还连接池
+                connection.rollback();
+                connection.setAutoCommit(originalAutoCommit);
+            } catch (SQLException e) {
+                log.warn("恢复源数据库连接状态失败: {}", e.getMessage());
+            }
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                error = e;
+            }
+            connection = null;
+            log.debug("数据库数据源已关闭: {}", name);
+        }
+        if (error != null) {
+            throw new IOException("关闭数据库数据源失败: " + error.getMessage(), error);
+        }
+    }
+
+    @Override
+    public Iterator<SheetRow> iterator() {
+        if (resultSet == null) {
+            throw new IllegalStateException("数据源未打开");
+        }
+
+        return new Iterator<SheetRow>() {
+            @Override
+            public boolean hasNext() {
+                if (nextRow == null && !finished) {
+                    try {
+                        nextRow = readNextRow();
+                    } catch (SQLException e) {
+                        throw new IllegalStateException("读取源数据失败: " + e.getMessage(), e);
+                    }
+                    finished = nextRow == null;
+                }
+                return nextRow != null;
+            }
+
+            @Override
+            public SheetRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("没有更多的行数据");
+                }
+
+                SheetRow row = nextRow;
+                nextRow = null;
+                return row;
+            }
+        };
+    }
+
+    private SheetRow readNextRow() throws SQLException {
+        if (!resultSet.next()) {
+            return null;
+        }
+        Object[] values = new Object[columnTypes.length];
+        for (int i = 0; i < columnTypes.length; i++) {
+            values[i] = getValue(i + 1, columnTypes[i]);
+        }
+        return new SheetRow(rowCounter.getAndIncrement(), values);
+    }
+
+    /**
+     * 按列类型读取值，转换为列绑定器支持的标准类型，避免驱动专有类型（如oracle.sql.TIMESTAMP）
+     *
+     * @param column 列序号（从1开始）
+     * @param type 列类型（java.sql.Types）
+     * @return 列值
+     */
+    private Object getValue(int column, int type) throws SQLException {
+        Object value;
+        switch (type) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                value = resultSet.getLong(column);
+                break;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return resultSet.getBigDecimal(column);
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                value = resultSet.getDouble(column);
+                break;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                value = resultSet.getBoolean(column);
+                break;
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                // Oracle的DATE包含时间部分，统一按Timestamp读取
+                return resultSet.getTimestamp(column);
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.CLOB:
+            case Types.NCLOB:
+                return resultSet.getString(column);
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return resultSet.getBytes(column);
+            default:
+                return resultSet.getObject(column);
+        }
+        return resultSet.wasNull() ? null : value;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public SourceType getType() {
+        return SourceType.DATABASE;
+    }
+
+    /**
+     * 获取表头行（查询结果的列标签）
+     *
+     * @return 表头行，行号为-1
+     */
+    @Override
+    public SheetRow getHeaderRow() {
+        if (resultSet == null) {
+            throw new IllegalStateException("数据源未打开");
+        }
+        return headerRow;
+    }
+}
@@ -1,20 +1,29 @@
 package com.datatool.exceltooracle.db;
 
+import com.datatool.exceltooracle.core.ColumnarBatch;
 import com.datatool.exceltooracle.core.DataTarget;
+import com.datatool.exceltooracle.core.RowRecord;
+import com.datatool.exceltooracle.dto.TableColumnDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
-import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
 
 /**
  * Oracle数据库目标实现类
@@ -22,13 +31,36 @@ import java.util.StringJoiner;
 @Slf4j
 public class OracleDataTarget implements DataTarget<Map<String, Object>> {
     
+    /**
+     * 暂存表中记录暂存顺序的列名
+     */
+    public static final String STAGING_SEQUENCE_COLUMN = "STG_ROW_SEQ";
+    
+    /**
+     * 直接路径插入每个批次的最小行数。每次提交后下一次插入从高水位线之上的新数据块开始，
+     * 批次太小时大量数据块只装了一部分，表会膨胀
+     */
+    public static final int DIRECT_PATH_MIN_BATCH_SIZE = 10000;
+    
     private final JdbcTemplate jdbcTemplate;
     private final String tableName;
-    private final boolean isInsert;
+    private final WriteMode writeMode;
     private final String[] keyColumns;
+    private final Map<String, TableColumnDTO> columns;
+    private final Map<Set<String>, BatchStatement> statementCache = new HashMap<>();
     private Connection currentConnection;
-    private SingleConnectionDataSource singleConnectionDataSource;
-    private NamedParameterJdbcTemplate singleConnectionJdbcTemplate;
+    private boolean directPath;
+    private boolean noLogging;
+    private boolean loggingDisabled;
+    private String stagingTable;
+    private int applyInterval = 10;
+    private int queryTimeoutSeconds;
+    private int stagedBatches;
+    private int stagedRows;
+    private long stagedRowSequence;
+    private IntConsumer writtenRowsListener;
+    private int uncommittedRows;
+    private final Set<String> stagedColumns = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
     
     /**
      * 构造Oracle数据目标
@@ -39,26 +71,51 @@ public class OracleDataTarget implements DataTarget<Map<String, Object>> {
      * @param keyColumns 唯一键列名（用于更新操作）
      */
     public OracleDataTarget(JdbcTemplate jdbcTemplate, String tableName, boolean isInsert, String[] keyColumns) {
+        this(jdbcTemplate, tableName, isInsert ? WriteMode.INSERT : WriteMode.UPDATE, keyColumns,
+                Collections.emptyMap());
+    }
+    
+    /**
+     * 构造Oracle数据目标
+     * 
+     * @param jdbcTemplate JdbcTemplate实例
+     * @param tableName 表名
+     * @param writeMode 写入方式
+     * @param keyColumns 唯一键列名（用于更新与合并操作）
+     * @param columns 表列信息（列名大写 -> 列信息），用于选择参数绑定方式
+     */
+    public OracleDataTarget(JdbcTemplate jdbcTemplate, String tableName, WriteMode writeMode, String[] keyColumns,
+                            Map<String, TableColumnDTO> columns) {
         this.jdbcTemplate = jdbcTemplate;
         this.tableName = tableName;
-        this.isInsert = isInsert;
+        this.writeMode = writeMode;
         this.keyColumns = keyColumns;
+        this.columns = columns != null ? columns : Collections.emptyMap();
     }
     
     @Override
     public void open() throws IOException {
         log.info("打开Oracle数据目标: {}", tableName);
+        if (writeMode == WriteMode.STAGED_UPDATE && stagingTable == null) {
+            throw new IOException("暂存更新方式必须指定暂存表");
+        }
         try {
             // 获取一个连接并手动管理事务
             currentConnection = jdbcTemplate.getDataSource().getConnection();
             currentConnection.setAutoCommit(false);
             log.debug("已获取数据库连接，设置为手动提交");
             
-            // 创建基于单一连接的数据源和JdbcTemplate，确保事务管理一致
-            singleConnectionDataSource = new SingleConnectionDataSource(currentConnection, true);
-            singleConnectionJdbcTemplate = new NamedParameterJdbcTemplate(singleConnectionDataSource);
-            
-            log.debug("创建了基于单一连接的JdbcTemplate实例");
+            if (noLogging) {
+                if ("NO".equals(queryLogging())) {
+                    // 表原本就是NOLOGGING，关闭时也不修改
+                    log.info("表{}已经是NOLOGGING", tableName);
+                } else {
+                    // DDL会隐式提交，必须在写入任何数据之前执行
+                    executeDdl("ALTER TABLE " + tableName + " NOLOGGING");
+                    loggingDisabled = true;
+                    log.warn("表{}已切换为NOLOGGING，直接路径写入的数据在下一次备份前无法通过重做日志恢复", tableName);
+                }
+            }
         } catch (Exception e) {
             log.error("获取数据库连接失败: {}", e.getMessage(), e);
             throw new IOException("获取数据库连接失败", e);
@@ -71,35 +128,169 @@ public class OracleDataTarget implements DataTarget<Map<String, Object>> {
         if (currentConnection != null) {
             try {
                 // 提交事务并关闭连接
+                closeStatements();
+                applyStaged();
                 currentConnection.commit();
+                uncommittedRows = 0;
                 log.info("提交事务成功");
                 
-                // 释放资源
-                if (singleConnectionDataSource != null) {
-                    singleConnectionDataSource.destroy();
-                }
-                
-                // 不要主动关闭connection，让SingleConnectionDataSource去管理它
+                // 归还连接到连接池
+                restoreLogging();
+                currentConnection.close();
+                currentConnection = null;
                 log.debug("数据库连接资源已释放");
             } catch (Exception e) {
                 log.error("关闭数据库连接时出错: {}", e.getMessage(), e);
                 try {
                     // 尝试回滚
                     currentConnection.rollback();
+                    discardUncommitted();
                     log.warn("事务已回滚");
                 } catch (Exception ex) {
                     log.error("回滚事务失败: {}", ex.getMessage(), ex);
                 } finally {
                     // 释放资源
-                    if (singleConnectionDataSource != null) {
-                        singleConnectionDataSource.destroy();
+                    try {
+                        restoreLogging();
+                        currentConnection.close();
+                    } catch (SQLException ex) {
+                        log.error("关闭数据库连接失败: {}", ex.getMessage(), ex);
                     }
+                    currentConnection = null;
                 }
                 throw new IOException("关闭数据库连接失败", e);
             }
         }
     }
     
+    /**
+     * 设置是否使用直接路径插入（APPEND_VALUES提示）
+     * 直接路径插入会锁定整张表，并且同一事务内不能再次访问该表，因此每个批次写入后立即提交。
+     * 批次行数应不少于{@link #DIRECT_PATH_MIN_BATCH_SIZE}
+     * 
+     * @param directPath 是否使用直接路径插入
+     */
+    public void setDirectPath(boolean directPath) {
+        this.directPath = directPath;
+    }
+    
+    /**
+     * 设置是否在写入期间将表切换为NOLOGGING，关闭时恢复为LOGGING；表原本就是NOLOGGING时不做修改
+     * 
+     * @param noLogging 是否关闭日志
+     */
+    public void setNoLogging(boolean noLogging) {
+        this.noLogging = noLogging;
+    }
+    
+    /**
+     * 设置暂存表，写入方式为STAGED_UPDATE时数据先插入该表
+     * 
+     * @param stagingTable 暂存表名（会话级全局临时表）
+     */
+    public void setStagingTable(String stagingTable) {
+        this.stagingTable = stagingTable;
+    }
+    
+    /**
+     * 设置暂存数据的合并间隔
+     * 
+     * @param applyInterval 每暂存多少个批次合并并提交一次
+     */
+    public void setApplyInterval(int applyInterval) {
+        this.applyInterval = Math.max(applyInterval, 1);
+    }
+    
+    /**
+     * 设置写入语句的超时时间，等待其他连接持有的行锁超过该时间时语句失败而不是一直等待
+     * 
+     * @param queryTimeoutSeconds 超时时间（秒），0表示不限制
+     */
+    public void setQueryTimeout(int queryTimeoutSeconds) {
+        this.queryTimeoutSeconds = Math.max(queryTimeoutSeconds, 0);
+    }
+    
+    /**
+     * 设置已写入行数的监听器
+     * 语句在目标表中执行成功后通知增加的行数（暂存更新方式在合并后通知），
+     * 事务回滚时通知减去尚未提交的行数，监听器可能在写入线程中被调用
+     * 
+     * @param writtenRowsListener 监听器，参数为行数的变化量
+     */
+    public void setWrittenRowsListener(IntConsumer writtenRowsListener) {
+        this.writtenRowsListener = writtenRowsListener;
+    }
+    
+    /**
+     * 查询表当前的日志模式
+     * 
+     * @return YES或NO，分区表等无法确定时为null
+     */
+    private String queryLogging() throws SQLException {
+        int dot = tableName.lastIndexOf('.');
+        String owner = dot > 0 ? tableName.substring(0, dot).toUpperCase() : null;
+        String name = tableName.substring(dot + 1).toUpperCase();
+        try (PreparedStatement statement = currentConnection.prepareStatement("SELECT LOGGING FROM ALL_TABLES "
+                + "WHERE OWNER = NVL(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')) AND TABLE_NAME = ?")) {
+            statement.setString(1, owner);
+            statement.setString(2, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+    
+    /**
+     * 恢复表的日志模式（只在打开时由LOGGING切换为NOLOGGING的情况下）
+     */
+    private void restoreLogging() throws SQLException {
+        if (loggingDisabled) {
+            loggingDisabled = false;
+            executeDdl("ALTER TABLE " + tableName + " LOGGING");
+            log.info("表{}已恢复为LOGGING", tableName);
+        }
+    }
+    
+    private void executeDdl(String sql) throws SQLException {
+        try (Statement statement = currentConnection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+    
+    /**
+     * 提交当前事务
+     * 
+     * @throws IOException 如果提交失败
+     */
+    public void commit() throws IOException {
+        try {
+            if (currentConnection != null && !currentConnection.isClosed()) {
+                applyStaged();
+                currentConnection.commit();
+                uncommittedRows = 0;
+            }
+        } catch (SQLException e) {
+            throw new IOException("提交事务失败: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 回滚当前事务
+     * 
+     * @throws IOException 如果回滚失败
+     */
+    public void rollback() throws IOException {
+        resetStaged();
+        try {
+            if (currentConnection != null && !currentConnection.isClosed()) {
+                currentConnection.rollback();
+                discardUncommitted();
+            }
+        } catch (SQLException e) {
+            throw new IOException("回滚事务失败: " + e.getMessage(), e);
+        }
+    }
+    
     @Override
     public void write(Map<String, Object> data) throws IOException {
         List<Map<String, Object>> dataList = Collections.singletonList(data);
@@ -113,17 +304,16 @@ public class OracleDataTarget implements DataTarget<Map<String, Object>> {
         }
         
         try {
-            if (isInsert) {
-                executeInsert(data);
-            } else {
-                executeUpdate(data);
-            }
+            executeBatch(data);
         } catch (Exception e) {
             log.error("写入数据到Oracle时出错: {}", e.getMessage(), e);
+            clearBatches();
+            resetStaged();
             try {
                 // 出错时回滚事务
                 if (currentConnection != null && !currentConnection.isClosed()) {
                     currentConnection.rollback();
+                    discardUncommitted();
                     log.warn("写入失败，事务已回滚");
                 }
             } catch (Exception ex) {
@@ -134,90 +324,440 @@ public class OracleDataTarget implements DataTarget<Map<String, Object>> {
     }
     
     /**
-     * 执行插入操作
+     * 写入一批数据
+     * 列集合相同的连续行共用同一条预编译语句，通过addBatch/executeBatch一次发送
      * 
      * @param dataList 数据列表
      */
-    private void executeInsert(List<Map<String, Object>> dataList) throws SQLException {
-        Map<String, Object> firstRow = dataList.get(0);
-        String[] columns = firstRow.keySet().toArray(new String[0]);
+    private void executeBatch(List<Map<String, Object>> dataList) throws SQLException {
+        int total = dataList instanceof ColumnarBatch
+                ? executeColumnar((ColumnarBatch) dataList)
+                : executeRows(dataList);
         
-        StringBuilder sqlBuilder = new StringBuilder();
-        sqlBuilder.append("INSERT INTO ").append(tableName).append(" (");
+        log.info("成功{} {} 条数据", writeMode.getDescription(), total);
         
-        StringJoiner columnJoiner = new StringJoiner(", ");
-        for (String column : columns) {
-            columnJoiner.add(column);
+        if (writeMode == WriteMode.STAGED_UPDATE && ++stagedBatches >= applyInterval) {
+            applyStaged();
+            // 提交后暂存表自动清空
+            currentConnection.commit();
+            uncommittedRows = 0;
+        }
+    }
+    
+    /**
+     * 将暂存表中的数据用一条MERGE语句合并到目标表
+     * 同一唯一键出现多次时以暂存序号最大（最后暂存）的行为准，暂存为空的列保留目标表原值
+     */
+    private void applyStaged() throws SQLException {
+        if (writeMode != WriteMode.STAGED_UPDATE || stagedBatches == 0) {
+            return;
         }
-        sqlBuilder.append(columnJoiner.toString()).append(") VALUES (");
         
-        StringJoiner valueJoiner = new StringJoiner(", ");
+        String[] columns = stagedColumns.toArray(new String[0]);
+        List<String> keyColumnNames = resolveKeyColumns(columns);
+        List<String> setColumns = getNonKeyColumns(columns);
+        int rows = stagedRows;
+        resetStaged();
+        if (setColumns.isEmpty()) {
+            log.warn("暂存数据中没有需要更新的列，跳过合并");
+            return;
+        }
+        
+        String keyList = String.join(", ", keyColumnNames);
+        StringJoiner selectJoiner = new StringJoiner(", ");
         for (String column : columns) {
-            valueJoiner.add(":" + column);
+            selectJoiner.add(column);
         }
-        sqlBuilder.append(valueJoiner.toString()).append(")");
         
-        String sql = sqlBuilder.toString();
-        log.debug("执行批量插入SQL: {}", sql);
+        StringBuilder sqlBuilder = new StringBuilder();
+        sqlBuilder.append("MERGE INTO ").append(tableName).append(" d USING (SELECT ")
+                .append(selectJoiner.toString()).append(" FROM (SELECT t.*, ROW_NUMBER() OVER (PARTITION BY ")
+                .append(keyList).append(" ORDER BY ").append(STAGING_SEQUENCE_COLUMN)
+                .append(" DESC) rn FROM ").append(stagingTable)
+                .append(" t) WHERE rn = 1) s ON (");
         
-        // 使用基于同一连接的JdbcTemplate执行更新
-        int[] updateCounts = singleConnectionJdbcTemplate.batchUpdate(sql, dataList.toArray(new Map[0]));
+        StringJoiner onJoiner = new StringJoiner(" AND ");
+        for (String column : keyColumnNames) {
+            onJoiner.add("d." + column + " = s." + column);
+        }
+        sqlBuilder.append(onJoiner.toString()).append(") WHEN MATCHED THEN UPDATE SET ");
         
-        int totalInserted = 0;
-        for (int count : updateCounts) {
-            totalInserted += count;
+        StringJoiner setJoiner = new StringJoiner(", ");
+        for (String column : setColumns) {
+            setJoiner.add("d." + column + " = NVL(s." + column + ", d." + column + ")");
+        }
+        sqlBuilder.append(setJoiner.toString());
+        
+        String sql = sqlBuilder.toString();
+        log.debug("执行暂存表合并SQL: {}", sql);
+        try (Statement statement = currentConnection.createStatement()) {
+            statement.setQueryTimeout(queryTimeoutSeconds);
+            int count = statement.executeUpdate(sql);
+            log.info("暂存数据已合并到{}，更新 {} 条数据", tableName, count);
+        }
+        // 暂存的行在合并后才算写入目标表
+        recordWritten(rows);
+    }
+    
+    private void resetStaged() {
+        stagedBatches = 0;
+        stagedRows = 0;
+        stagedColumns.clear();
+    }
+    
+    /**
+     * 记录已在目标表中执行的行数并通知监听器
+     * 
+     * @param rows 行数
+     */
+    private void recordWritten(int rows) {
+        uncommittedRows += rows;
+        if (writtenRowsListener != null && rows != 0) {
+            writtenRowsListener.accept(rows);
+        }
+    }
+    
+    /**
+     * 事务回滚后撤销未提交的行数
+     */
+    private void discardUncommitted() {
+        int rows = uncommittedRows;
+        uncommittedRows = 0;
+        if (writtenRowsListener != null && rows != 0) {
+            writtenRowsListener.accept(-rows);
         }
-        log.info("成功插入 {} 条数据", totalInserted);
     }
     
     /**
-     * 执行更新操作
+     * 逐行绑定并执行
      * 
      * @param dataList 数据列表
+     * @return 影响的行数
      */
-    private void executeUpdate(List<Map<String, Object>> dataList) throws SQLException {
-        if (keyColumns == null || keyColumns.length == 0) {
-            throw new IllegalStateException("更新操作必须指定唯一键列");
+    private int executeRows(List<Map<String, Object>> dataList) throws SQLException {
+        BatchStatement batchStatement = null;
+        int total = 0;
+        for (Map<String, Object> row : dataList) {
+            if (batchStatement == null || !batchStatement.columnSet.equals(row.keySet())) {
+                if (batchStatement != null) {
+                    total += executeStatement(batchStatement);
+                }
+                batchStatement = getBatchStatement(row.keySet());
+            }
+            batchStatement.addRow(row);
         }
+        if (batchStatement != null) {
+            total += executeStatement(batchStatement);
+        }
+        return total;
+    }
+    
+    /**
+     * 按列存储的批数据直接从列数组绑定并执行，不组装行对象
+     * 
+     * @param batch 按列存储的批数据
+     * @return 影响的行数
+     */
+    private int executeColumnar(ColumnarBatch batch) throws SQLException {
+        RowRecord.Schema schema = batch.getSchema();
+        BatchStatement batchStatement = null;
+        boolean[] present = null;
+        int total = 0;
+        for (int row = 0; row < batch.size(); row++) {
+            if (batchStatement == null || !hasSameColumns(batch, row, present)) {
+                if (batchStatement != null) {
+                    total += executeStatement(batchStatement);
+                }
+                present = new boolean[schema.size()];
+                Set<String> columnSet = new HashSet<>();
+                for (int slot = 0; slot < present.length; slot++) {
+                    if (!batch.isNull(slot, row)) {
+                        present[slot] = true;
+                        columnSet.add(schema.fieldName(slot));
+                    }
+                }
+                batchStatement = getBatchStatement(columnSet);
+            }
+            batchStatement.addColumnarRow(batch, row);
+        }
+        if (batchStatement != null) {
+            total += executeStatement(batchStatement);
+        }
+        return total;
+    }
+    
+    private static boolean hasSameColumns(ColumnarBatch batch, int row, boolean[] present) {
+        for (int slot = 0; slot < present.length; slot++) {
+            if (batch.isNull(slot, row) == present[slot]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 执行批量语句，直接路径插入时立即提交以释放表锁
+     * 
+     * @param batchStatement 批量语句
+     * @return 影响的行数
+     */
+    private int executeStatement(BatchStatement batchStatement) throws SQLException {
+        int count = batchStatement.execute();
+        if (writeMode == WriteMode.STAGED_UPDATE) {
+            stagedColumns.addAll(batchStatement.columnSet);
+            stagedRows += count;
+        } else {
+            recordWritten(count);
+        }
+        if (isDirectPathInsert()) {
+            // 直接路径插入后同一事务内不能再访问该表（ORA-12838），必须先提交
+            currentConnection.commit();
+            uncommittedRows = 0;
+        }
+        return count;
+    }
+    
+    private boolean isDirectPathInsert() {
+        return directPath && writeMode == WriteMode.INSERT;
+    }
+    
+    /**
+     * 获取指定列集合对应的预编译语句，不存在时创建并缓存
+     * 
+     * @param columnSet 行数据的列集合
+     * @return 批量语句
+     */
+    private BatchStatement getBatchStatement(Set<String> columnSet) throws SQLException {
+        BatchStatement batchStatement = statementCache.get(columnSet);
+        if (batchStatement == null) {
+            String[] columns = columnSet.toArray(new String[0]);
+            switch (writeMode) {
+                case UPDATE:
+                    batchStatement = prepareUpdate(columns);
+                    break;
+                case UPSERT:
+                    batchStatement = prepareMerge(columns);
+                    break;
+                case STAGED_UPDATE:
+                    // 暂存时就校验唯一键，避免合并时才发现缺少键值
+                    resolveKeyColumns(columns);
+                    batchStatement = prepareInsert(stagingTable, columns);
+                    break;
+                default:
+                    batchStatement = prepareInsert(tableName, columns);
+                    break;
+            }
+            batchStatement.statement.setQueryTimeout(queryTimeoutSeconds);
+            statementCache.put(batchStatement.columnSet, batchStatement);
+        }
+        return batchStatement;
+    }
+    
+    /**
+     * 创建插入语句
+     * 
+     * @param table 插入的表名
+     * @param columns 列名
+     * @return 批量语句
+     */
+    private BatchStatement prepareInsert(String table, String[] columns) throws SQLException {
+        StringBuilder sqlBuilder = new StringBuilder();
+        sqlBuilder.append(isDirectPathInsert() ? "INSERT /*+ APPEND_VALUES */ INTO " : "INSERT INTO ")
+                .append(table).append(" (");
         
-        Map<String, Object> firstRow = dataList.get(0);
+        StringJoiner columnJoiner = new StringJoiner(", ");
+        StringJoiner valueJoiner = new StringJoiner(", ");
+        for (String column : columns) {
+            columnJoiner.add(column);
+            valueJoiner.add("?");
+        }
+        if (table.equals(stagingTable)) {
+            // 暂存顺序作为最后一个参数
+            columnJoiner.add(STAGING_SEQUENCE_COLUMN);
+            valueJoiner.add("?");
+        }
+        sqlBuilder.append(columnJoiner.toString()).append(") VALUES (");
+        sqlBuilder.append(valueJoiner.toString()).append(")");
+        
+        String sql = sqlBuilder.toString();
+        log.debug("预编译批量插入SQL: {}", sql);
+        BatchStatement batchStatement = new BatchStatement(currentConnection.prepareStatement(sql), columns);
+        batchStatement.sequenced = table.equals(stagingTable);
+        return batchStatement;
+    }
+    
+    /**
+     * 创建更新语句
+     * 
+     * @param columns 列名
+     * @return 批量语句
+     */
+    private BatchStatement prepareUpdate(String[] columns) {
+        List<String> whereColumns = resolveKeyColumns(columns);
+        List<String> setColumns = getNonKeyColumns(columns);
+        if (setColumns.isEmpty()) {
+            throw new IllegalStateException("没有需要更新的列");
+        }
         
         StringBuilder sqlBuilder = new StringBuilder();
         sqlBuilder.append("UPDATE ").append(tableName).append(" SET ");
         
         StringJoiner setJoiner = new StringJoiner(", ");
-        for (String column : firstRow.keySet()) {
-            boolean isKeyColumn = false;
-            for (String keyColumn : keyColumns) {
-                if (column.equalsIgnoreCase(keyColumn)) {
-                    isKeyColumn = true;
-                    break;
-                }
-            }
-            
-            if (!isKeyColumn) {
-                setJoiner.add(column + " = :" + column);
-            }
+        for (String column : setColumns) {
+            setJoiner.add(column + " = ?");
         }
         sqlBuilder.append(setJoiner.toString()).append(" WHERE ");
         
         StringJoiner whereJoiner = new StringJoiner(" AND ");
-        for (String keyColumn : keyColumns) {
-            whereJoiner.add(keyColumn + " = :" + keyColumn);
+        for (String column : whereColumns) {
+            whereJoiner.add(column + " = ?");
         }
         sqlBuilder.append(whereJoiner.toString());
         
         String sql = sqlBuilder.toString();
-        log.debug("执行批量更新SQL: {}", sql);
+        log.debug("预编译批量更新SQL: {}", sql);
         
-        // 使用基于同一连接的JdbcTemplate执行更新
-        int[] updateCounts = singleConnectionJdbcTemplate.batchUpdate(sql, dataList.toArray(new Map[0]));
+        List<String> parameterColumns = new ArrayList<>(setColumns);
+        parameterColumns.addAll(whereColumns);
+        try {
+            return new BatchStatement(currentConnection.prepareStatement(sql),
+                    parameterColumns.toArray(new String[0]));
+        } catch (SQLException e) {
+            throw new IllegalStateException("预编译更新语句失败: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 创建合并语句
+     * 每行数据作为一行虚拟表与目标表按唯一键匹配，匹配时更新其余列，否则插入
+     * 
+     * @param columns 列名
+     * @return 批量语句
+     */
+    private BatchStatement prepareMerge(String[] columns) {
+        List<String> keyColumnNames = resolveKeyColumns(columns);
+        List<String> setColumns = getNonKeyColumns(columns);
+        
+        StringBuilder sqlBuilder = new StringBuilder();
+        sqlBuilder.append("MERGE INTO ").append(tableName).append(" d USING (SELECT ");
         
-        int totalUpdated = 0;
-        for (int count : updateCounts) {
-            totalUpdated += count;
+        StringJoiner sourceJoiner = new StringJoiner(", ");
+        for (String column : columns) {
+            sourceJoiner.add("? AS " + column);
+        }
+        sqlBuilder.append(sourceJoiner.toString()).append(" FROM dual) s ON (");
+        
+        StringJoiner onJoiner = new StringJoiner(" AND ");
+        for (String column : keyColumnNames) {
+            onJoiner.add("d." + column + " = s." + column);
+        }
+        sqlBuilder.append(onJoiner.toString()).append(")");
+        
+        // 只有唯一键列时不需要更新分支
+        if (!setColumns.isEmpty()) {
+            StringJoiner setJoiner = new StringJoiner(", ");
+            for (String column : setColumns) {
+                setJoiner.add("d." + column + " = s." + column);
+            }
+            sqlBuilder.append(" WHEN MATCHED THEN UPDATE SET ").append(setJoiner.toString());
+        }
+        
+        StringJoiner columnJoiner = new StringJoiner(", ");
+        StringJoiner valueJoiner = new StringJoiner(", ");
+        for (String column : columns) {
+            columnJoiner.add(column);
+            valueJoiner.add("s." + column);
+        }
+        sqlBuilder.append(" WHEN NOT MATCHED THEN INSERT (").append(columnJoiner.toString())
+                .append(") VALUES (").append(valueJoiner.toString()).append(")");
+        
+        String sql = sqlBuilder.toString();
+        log.debug("预编译批量合并SQL: {}", sql);
+        try {
+            return new BatchStatement(currentConnection.prepareStatement(sql), columns);
+        } catch (SQLException e) {
+            throw new IllegalStateException("预编译合并语句失败: " + e.getMessage(), e);
         }
-        log.info("成功更新 {} 条数据", totalUpdated);
+    }
+    
+    /**
+     * 找出行数据中与唯一键对应的列名
+     * 
+     * @param columns 行数据的列名
+     * @return 唯一键列名（与行数据中的写法一致）
+     */
+    private List<String> resolveKeyColumns(String[] columns) {
+        if (keyColumns == null || keyColumns.length == 0) {
+            throw new IllegalStateException(writeMode.getDescription() + "操作必须指定唯一键列");
+        }
+        
+        List<String> keyColumnNames = new ArrayList<>();
+        for (String keyColumn : keyColumns) {
+            String column = findColumn(columns, keyColumn);
+            if (column == null) {
+                throw new IllegalStateException("缺少唯一键列的值: " + keyColumn);
+            }
+            keyColumnNames.add(column);
+        }
+        return keyColumnNames;
+    }
+    
+    private List<String> getNonKeyColumns(String[] columns) {
+        List<String> nonKeyColumns = new ArrayList<>();
+        for (String column : columns) {
+            if (!isKeyColumn(column)) {
+                nonKeyColumns.add(column);
+            }
+        }
+        return nonKeyColumns;
+    }
+    
+    private boolean isKeyColumn(String column) {
+        if (keyColumns == null) {
+            return false;
+        }
+        for (String keyColumn : keyColumns) {
+            if (column.equalsIgnoreCase(keyColumn)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String findColumn(String[] columns, String name) {
+        for (String column : columns) {
+            if (column.equalsIgnoreCase(name)) {
+                return column;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 清除所有预编译语句中未执行的批次
+     */
+    private void clearBatches() {
+        for (BatchStatement batchStatement : statementCache.values()) {
+            try {
+                batchStatement.statement.clearBatch();
+            } catch (SQLException e) {
+                log.warn("清除批次失败: {}", e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * 关闭所有缓存的预编译语句
+     */
+    private void closeStatements() {
+        for (BatchStatement batchStatement : statementCache.values()) {
+            try {
+                batchStatement.statement.close();
+            } catch (SQLException e) {
+                log.warn("关闭预编译语句失败: {}", e.getMessage());
+            }
+        }
+        statementCache.clear();
     }
     
     @Override
@@ -229,4 +769,133 @@ public class OracleDataTarget implements DataTarget<Map<String, Object>> {
     public TargetType getType() {
         return TargetType.ORACLE_TABLE;
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 缓存的批量语句
+     * 参数按位置绑定，绑定器在创建时根据列类型确定
+     */
+    private class BatchStatement {
+        
+        private final PreparedStatement statement;
+        private final String[] parameterColumns;
+        private final ColumnBinder[] binders;
+        private final Set<String> columnSet;
+        private RowRecord.Schema slotSchema;
+        private int[] slots;
+        private boolean sequenced;
+        
+        BatchStatement(PreparedStatement statement, String[] parameterColumns) {
+            this.statement = statement;
+            this.parameterColumns = parameterColumns;
+            this.binders = new ColumnBinder[parameterColumns.length];
+            for (int i = 0; i < parameterColumns.length; i++) {
+                binders[i] = ColumnBinder.forColumn(columns.get(parameterColumns[i].toUpperCase()));
+            }
+            this.columnSet = new HashSet<>(Arrays.asList(parameterColumns));
+        }
+        
+        /**
+         * 绑定一行数据并加入批次
+         * 
+         * @param row 行数据
+         */
+        void addRow(Map<String, Object> row) throws SQLException {
+            if (row instanceof RowRecord) {
+                // 紧凑行记录按字段位置取值，字段位置按结构缓存
+                RowRecord record = (RowRecord) row;
+                int[] slots = getSlots(record.getSchema());
+                for (int i = 0; i < parameterColumns.length; i++) {
+                    binders[i].bind(statement, i + 1, slots[i] >= 0 ? record.getValue(slots[i]) : null);
+                }
+            } else {
+                for (int i = 0; i < parameterColumns.length; i++) {
+                    binders[i].bind(statement, i + 1, row.get(parameterColumns[i]));
+                }
+            }
+            bindSequence();
+            statement.addBatch();
+        }
+        
+        /**
+         * 从按列存储的批数据绑定一行并加入批次
+         * 整数、浮点数和日期列在绑定器允许时直接使用基本类型的setXxx
+         * 
+         * @param batch 按列存储的批数据
+         * @param row 行下标
+         */
+        void addColumnarRow(ColumnarBatch batch, int row) throws SQLException {
+            int[] slots = getSlots(batch.getSchema());
+            for (int i = 0; i < parameterColumns.length; i++) {
+                int index = i + 1;
+                int slot = slots[i];
+                ColumnBinder binder = binders[i];
+                if (slot < 0 || batch.isNull(slot, row)) {
+                    binder.bind(statement, index, null);
+                    continue;
+                }
+                
+                boolean direct = binder == ColumnBinder.OBJECT;
+                switch (batch.getKind(slot)) {
+                    case ColumnarBatch.KIND_LONG:
+                        if (direct || binder == ColumnBinder.NUMBER) {
+                            statement.setLong(index, batch.getLong(slot, row));
+                            continue;
+                        }
+                        break;
+                    case ColumnarBatch.KIND_DOUBLE:
+                        if (direct || binder == ColumnBinder.NUMBER) {
+                            statement.setDouble(index, batch.getDouble(slot, row));
+                            continue;
+                        }
+                        break;
+                    case ColumnarBatch.KIND_DATE:
+                        if (direct || binder == ColumnBinder.TIMESTAMP) {
+                            statement.setTimestamp(index, batch.getTimestamp(slot, row));
+                            continue;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+                binder.bind(statement, index, batch.getValue(slot, row));
+            }
+            bindSequence();
+            statement.addBatch();
+        }
+        
+        /**
+         * 暂存语句绑定递增的暂存序号
+         */
+        private void bindSequence() throws SQLException {
+            if (sequenced) {
+                statement.setLong(parameterColumns.length + 1, ++stagedRowSequence);
+            }
+        }
+        
+        private int[] getSlots(RowRecord.Schema schema) {
+            if (schema != slotSchema) {
+                int[] resolved = new int[parameterColumns.length];
+                for (int i = 0; i < parameterColumns.length; i++) {
+                    resolved[i] = schema.slotOf(parameterColumns[i]);
+                }
+                slotSchema = schema;
+                slots = resolved;
+            }
+            return slots;
+        }
+        
+        /**
+         * 执行已加入的批次
+         * 
+         * @return 影响的行数
+         */
+        int execute() throws SQLException {
+            int total = 0;
+            for (int count : statement.executeBatch()) {
+                // 驱动无法返回具体行数时按成功一行计算
+                total += count >= 0 ? count : (count == Statement.SUCCESS_NO_INFO ? 1 : 0);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.datatool.exceltooracle.db;
+
+import com.datatool.exceltooracle.excel.ParallelSheetRowSource;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 并行读取的数据库表数据源
+ * <p>
+ * 将表切分为多个部分，每个部分使用一个连接和一个只进游标读取：
+ * 指定拆分列时按该列的取值范围（MIN到MAX等分）切分，适合有索引的数值主键；
+ * 未指定时按ORA_HASH(ROWID)分桶，不需要索引，但每个部分都会扫描整张表。
+ * 读取期间每个部分占用一个源数据库连接，不保证行顺序。
+ * </p>
+ */
+@Slf4j
+public class ParallelJdbcDataSource extends ParallelSheetRowSource {
+
+    private final javax.sql.DataSource dataSource;
+    private final String tableName;
+    private final String splitColumn;
+    private final int parallelism;
+    private final int fetchSize;
+
+    /**
+     * 构造并行读取的数据库表数据源
+     *
+     * @param dataSource 源数据库连接池
+     * @param tableName 表名（可带模式名）
+     * @param splitColumn 拆分列（数值类型），为空时按ROWID分桶
+     * @param parallelism 读取线程数
+     * @param fetchSize 每次从数据库取回的行数
+     */
+    public ParallelJdbcDataSource(javax.sql.DataSource dataSource, String tableName, String splitColumn,
+                                  int parallelism, int fetchSize) {
+        super("db-reader-" + tableName + "-");
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("读取线程数必须大于0");
+        }
+        this.dataSource = dataSource;
+        this.tableName = JdbcDataSource.checkIdentifier(tableName);
+        this.splitColumn = splitColumn == null || splitColumn.isEmpty()
+                ? null
+                : JdbcDataSource.checkIdentifier(splitColumn);
+        this.parallelism = parallelism;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    protected List<JdbcDataSource> createParts() throws IOException {
+        AtomicInteger rowCounter = new AtomicInteger();
+        if (parallelism == 1) {
+            return Collections.singletonList(part("SELECT * FROM " + tableName, null, rowCounter));
+        }
+        return splitColumn != null ? splitByRange(rowCounter) : splitByRowid(rowCounter);
+    }
+
+    /**
+     * 按ROWID的哈希值分桶
+     */
+    private List<JdbcDataSource> splitByRowid(AtomicInteger rowCounter) {
+        String sql = "SELECT * FROM " + tableName + " WHERE ORA_HASH(ROWID, " + (parallelism - 1) + ") = ?";
+        List<JdbcDataSource> parts = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            parts.add(part(sql, Collections.singletonList(i), rowCounter));
+        }
+        log.debug("表 {} 按ROWID切分为 {} 个部分", tableName, parts.size());
+        return parts;
+    }
+
+    /**
+     * 按拆分列的取值范围等分，第一个部分包含拆分列为空的行，最后一个部分不设上限
+     */
+    private List<JdbcDataSource> splitByRange(AtomicInteger rowCounter) throws IOException {
+        BigDecimal min;
+        BigDecimal max;
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT MIN(" + splitColumn + "), MAX(" + splitColumn + ") FROM " + tableName)) {
+            resultSet.next();
+            min = resultSet.getBigDecimal(1);
+            max = resultSet.getBigDecimal(2);
+        } catch (SQLException e) {
+            throw new IOException("查询拆分列 " + splitColumn + " 的取值范围失败（拆分列必须为数值类型）: "
+                    + e.getMessage(), e);
+        }
+
+        if (min == null || min.compareTo(max) == 0) {
+            // 空表或只有一个取值，无需切分
+            return Collections.singletonList(part("SELECT * FROM " + tableName, null, rowCounter));
+        }
+
+        BigDecimal step = max.subtract(min).divide(BigDecimal.valueOf(parallelism), 10, RoundingMode.HALF_UP);
+        List<JdbcDataSource> parts = new ArrayList<>(parallelism);
+        String select = "SELECT * FROM " + tableName + " WHERE ";
+        for (int i = 0; i < parallelism; i++) {
+            BigDecimal lower = min.add(step.multiply(BigDecimal.valueOf(i)));
+            BigDecimal upper = min.add(step.multiply(BigDecimal.valueOf(i + 1)));
+            if (i == 0) {
+                parts.add(part(select + "(" + splitColumn + " < ? OR " + splitColumn + " IS NULL)",
+                        Collections.singletonList(upper), rowCounter));
+            } else if (i == parallelism - 1) {
+                parts.add(part(select + splitColumn + " >= ?", Collections.singletonList(lower), rowCounter));
+            } else {
+                parts.add(part(select + splitColumn + " >= ? AND " + splitColumn + " < ?",
+                        Arrays.asList(lower, upper), rowCounter));
+            }
+        }
+        log.debug("表 {} 按 {} 的取值范围 [{}, {}] 切分为 {} 个部分", tableName, splitColumn, min, max, parts.size());
+        return parts;
+    }
+
+    private JdbcDataSource part(String sql, List<Object> parameters, AtomicInteger rowCounter) {
+        return new JdbcDataSource(dataSource, sql, parameters, fetchSize, tableName, rowCounter);
+    }
+
+    @Override
+    public String getName() {
+        return tableName;
+    }
+
+    @Override
+    public SourceType getType() {
+        return SourceType.DATABASE;
+    }
+}
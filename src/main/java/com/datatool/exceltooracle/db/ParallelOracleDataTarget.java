@@ -0,0 +1,469 @@
+package com.datatool.exceltooracle.db;
+
+import com.datatool.exceltooracle.core.ColumnarBatch;
+import com.datatool.exceltooracle.core.DataTarget;
+import com.datatool.exceltooracle.core.RowRecord;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 多连接并行写入的Oracle数据目标
+ * <p>
+ * 内部持有多个OracleDataTarget，每个占用连接池中的一个连接，
+ * 批次被分发到空闲的连接上并行执行，事务的提交方式由{@link TransactionPolicy}决定。
+ * </p>
+ * <p>
+ * 指定了唯一键列时，每行按唯一键的散列值固定分配到一个连接，每个连接按顺序执行自己的批次：
+ * 同一键的行总在同一个事务中写入，不会出现一个连接等待另一个连接未提交的行锁，
+ * 而后者要等所有批次完成才提交的情况（ALL_OR_NOTHING下会永久等待）。
+ * 未指定唯一键时（如插入时文件中有重复主键）由写入语句的超时时间打断锁等待。
+ * </p>
+ */
+@Slf4j
+public class ParallelOracleDataTarget implements DataTarget<Map<String, Object>> {
+
+    /**
+     * 事务策略
+     */
+    public enum TransactionPolicy {
+        /**
+         * 每个批次写入成功后立即在所在连接上提交，失败只影响当前批次
+         */
+        PER_CONNECTION,
+
+        /**
+         * 所有批次写入成功后统一提交所有连接，任一批次失败则回滚所有连接
+         */
+        ALL_OR_NOTHING
+    }
+
+    private final Supplier<OracleDataTarget> writerFactory;
+    private final String tableName;
+    private final int parallelism;
+    private final TransactionPolicy transactionPolicy;
+    private final String[] routingKeyColumns;
+
+    private final List<OracleDataTarget> writers = new ArrayList<>();
+    private final AtomicReference<Exception> writeError = new AtomicReference<>();
+    private BlockingQueue<OracleDataTarget> idleWriters;
+    private Semaphore inFlight;
+    private ExecutorService executor;
+    private ExecutorService[] lanes;
+
+    /**
+     * 构造多连接并行写入的Oracle数据目标
+     *
+     * @param writerFactory 单连接数据目标的创建方法
+     * @param tableName 表名
+     * @param parallelism 并行写入的连接数
+     * @param transactionPolicy 事务策略
+     */
+    public ParallelOracleDataTarget(Supplier<OracleDataTarget> writerFactory, String tableName,
+                                    int parallelism, TransactionPolicy transactionPolicy) {
+        this(writerFactory, tableName, parallelism, transactionPolicy, null);
+    }
+
+    /**
+     * 构造多连接并行写入的Oracle数据目标
+     *
+     * @param writerFactory 单连接数据目标的创建方法
+     * @param tableName 表名
+     * @param parallelism 并行写入的连接数
+     * @param transactionPolicy 事务策略
+     * @param routingKeyColumns 唯一键列名，不为空时按键值将行固定分配到连接
+     */
+    public ParallelOracleDataTarget(Supplier<OracleDataTarget> writerFactory, String tableName,
+                                    int parallelism, TransactionPolicy transactionPolicy,
+                                    String[] routingKeyColumns) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("并行写入连接数必须大于0");
+        }
+        this.writerFactory = writerFactory;
+        this.tableName = tableName;
+        this.parallelism = parallelism;
+        this.transactionPolicy = transactionPolicy != null ? transactionPolicy : TransactionPolicy.ALL_OR_NOTHING;
+        this.routingKeyColumns = routingKeyColumns != null && routingKeyColumns.length > 0 ? routingKeyColumns : null;
+    }
+
+    @Override
+    public void open() throws IOException {
+        log.info("打开并行Oracle数据目标: {}, 连接数: {}, 事务策略: {}, 按唯一键分配: {}",
+                tableName, parallelism, transactionPolicy, routingKeyColumns != null);
+        idleWriters = new ArrayBlockingQueue<>(parallelism);
+        // 在途批次最多为连接数的两倍，避免读取过快时批次堆积在内存中
+        inFlight = new Semaphore(parallelism * 2);
+        writeError.set(null);
+
+        try {
+            for (int i = 0; i < parallelism; i++) {
+                OracleDataTarget writer = writerFactory.get();
+                writer.open();
+                writers.add(writer);
+                idleWriters.add(writer);
+            }
+        } catch (IOException | RuntimeException e) {
+            closeWriters(true);
+            throw e;
+        }
+
+        if (routingKeyColumns != null) {
+            // 每个连接一个单线程执行器，同一连接上的批次按提交顺序执行
+            WriterThreadFactory threadFactory = new WriterThreadFactory(tableName);
+            lanes = new ExecutorService[parallelism];
+            for (int i = 0; i < parallelism; i++) {
+                lanes[i] = Executors.newSingleThreadExecutor(threadFactory);
+            }
+        } else {
+            executor = Executors.newFixedThreadPool(parallelism, new WriterThreadFactory(tableName));
+        }
+    }
+
+    @Override
+    public void write(Map<String, Object> data) throws IOException {
+        write(Collections.singletonList(data));
+    }
+
+    @Override
+    public void write(List<Map<String, Object>> data) throws IOException {
+        checkWriteError();
+        if (data.isEmpty()) {
+            return;
+        }
+
+        if (lanes != null) {
+            List<List<Map<String, Object>>> parts = partitionByKey(data);
+            for (int i = 0; i < parts.size(); i++) {
+                List<Map<String, Object>> part = parts.get(i);
+                if (part != null && !part.isEmpty()) {
+                    OracleDataTarget writer = writers.get(i);
+                    submit(lanes[i], () -> writeBatch(writer, part));
+                }
+            }
+            return;
+        }
+
+        // 批次在调用返回后归数据目标所有，直接交给写入线程
+        submit(executor, () -> writeBatch(data));
+    }
+
+    /**
+     * 占用一个在途批次许可后提交写入任务
+     *
+     * @param target 执行写入任务的线程池
+     * @param task 写入任务
+     * @throws IOException 如果等待被中断或提交失败
+     */
+    private void submit(ExecutorService target, Runnable task) throws IOException {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("等待写入连接时被中断", e);
+        }
+
+        try {
+            target.execute(task);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw new IOException("提交写入任务失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 按唯一键的散列值将批次拆分到各连接
+     *
+     * @param data 批次数据
+     * @return 各连接的子批次（下标与连接对应，没有数据的为null）
+     */
+    private List<List<Map<String, Object>>> partitionByKey(List<Map<String, Object>> data) {
+        List<List<Map<String, Object>>> parts = new ArrayList<>(Collections.nCopies(parallelism, null));
+        if (data instanceof ColumnarBatch) {
+            ColumnarBatch batch = (ColumnarBatch) data;
+            int[] keySlots = resolveKeySlots(batch.getSchema());
+            for (int row = 0; row < batch.size(); row++) {
+                int hash = 1;
+                for (int slot : keySlots) {
+                    hash = 31 * hash + keyHash(slot >= 0 ? batch.getValue(slot, row) : null);
+                }
+                int lane = Math.floorMod(hash, parallelism);
+                ColumnarBatch part = (ColumnarBatch) parts.get(lane);
+                if (part == null) {
+                    part = new ColumnarBatch(batch.getSchema(), batch.size() / parallelism + 1);
+                    parts.set(lane, part);
+                }
+                part.copyRow(batch, row);
+            }
+            return parts;
+        }
+
+        for (Map<String, Object> row : data) {
+            int hash = 1;
+            for (String keyColumn : routingKeyColumns) {
+                hash = 31 * hash + keyHash(getKeyValue(row, keyColumn));
+            }
+            int lane = Math.floorMod(hash, parallelism);
+            List<Map<String, Object>> part = parts.get(lane);
+            if (part == null) {
+                part = new ArrayList<>(data.size() / parallelism + 1);
+                parts.set(lane, part);
+            }
+            part.add(row);
+        }
+        return parts;
+    }
+
+    private int[] resolveKeySlots(RowRecord.Schema schema) {
+        int[] slots = new int[routingKeyColumns.length];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = -1;
+            for (int slot = 0; slot < schema.size(); slot++) {
+                if (schema.fieldName(slot).equalsIgnoreCase(routingKeyColumns[i])) {
+                    slots[i] = slot;
+                    break;
+                }
+            }
+        }
+        return slots;
+    }
+
+    private static Object getKeyValue(Map<String, Object> row, String keyColumn) {
+        Object value = row.get(keyColumn);
+        if (value == null) {
+            for (Map.Entry<String, Object> entry : row.entrySet()) {
+                if (entry.getKey().equalsIgnoreCase(keyColumn)) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 计算键值的散列值，数值按数值大小计算，使1、1.0和"1"分到同一个连接
+     */
+    private static int keyHash(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Number || value instanceof String) {
+            try {
+                return new BigDecimal(value.toString().trim()).stripTrailingZeros().hashCode();
+            } catch (NumberFormatException e) {
+                // 非数值字符串按原值计算
+            }
+        }
+        return value.toString().hashCode();
+    }
+
+    /**
+     * 在空闲连接上写入一个批次
+     *
+     * @param batch 批次数据
+     */
+    private void writeBatch(List<Map<String, Object>> batch) {
+        OracleDataTarget writer = null;
+        try {
+            // 全部回滚的策略下，出错后剩余批次不再写入
+            if (transactionPolicy == TransactionPolicy.ALL_OR_NOTHING && writeError.get() != null) {
+                return;
+            }
+            writer = idleWriters.take();
+            writeAndCommit(writer, batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeError.compareAndSet(null, new IOException("写入线程被中断", e));
+        } catch (Exception e) {
+            writeError.compareAndSet(null, e);
+        } finally {
+            if (writer != null) {
+                idleWriters.offer(writer);
+            }
+            inFlight.release();
+        }
+    }
+
+    /**
+     * 在指定连接上写入一个批次（按唯一键分配时使用，每个连接只由自己的线程访问）
+     *
+     * @param writer 写入连接
+     * @param batch 批次数据
+     */
+    private void writeBatch(OracleDataTarget writer, List<Map<String, Object>> batch) {
+        try {
+            if (transactionPolicy == TransactionPolicy.ALL_OR_NOTHING && writeError.get() != null) {
+                return;
+            }
+            writeAndCommit(writer, batch);
+        } catch (Exception e) {
+            writeError.compareAndSet(null, e);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private void writeAndCommit(OracleDataTarget writer, List<Map<String, Object>> batch) throws IOException {
+        writer.write(batch);
+        if (transactionPolicy == TransactionPolicy.PER_CONNECTION) {
+            writer.commit();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        awaitInFlight();
+        checkWriteError();
+
+        if (transactionPolicy == TransactionPolicy.ALL_OR_NOTHING) {
+            // 所有批次均已成功执行，依次提交各连接；某个连接提交失败时回滚其余未提交的连接
+            for (int i = 0; i < writers.size(); i++) {
+                try {
+                    writers.get(i).commit();
+                } catch (IOException e) {
+                    for (int j = i + 1; j < writers.size(); j++) {
+                        rollbackQuietly(writers.get(j));
+                    }
+                    if (i > 0) {
+                        log.error("连接{}提交失败，此前已有{}个连接提交成功，数据可能不完整", i, i);
+                    }
+                    writeError.compareAndSet(null, e);
+                    throw e;
+                }
+            }
+            log.info("所有连接提交成功: {}", tableName);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.info("关闭并行Oracle数据目标: {}", tableName);
+        if (executor != null) {
+            shutdown(executor);
+            executor = null;
+        }
+        if (lanes != null) {
+            for (ExecutorService lane : lanes) {
+                shutdown(lane);
+            }
+            lanes = null;
+        }
+
+        // 出错或未经flush确认的数据不能被close中的提交带入数据库
+        boolean rollback = writeError.get() != null || transactionPolicy == TransactionPolicy.ALL_OR_NOTHING;
+        closeWriters(rollback);
+    }
+
+    private static void shutdown(ExecutorService service) {
+        service.shutdown();
+        try {
+            if (!service.awaitTermination(60, TimeUnit.SECONDS)) {
+                service.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            service.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 等待所有在途批次写入完成
+     *
+     * @throws IOException 如果等待被中断
+     */
+    private void awaitInFlight() throws IOException {
+        int permits = parallelism * 2;
+        try {
+            inFlight.acquire(permits);
+            inFlight.release(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("等待写入完成时被中断", e);
+        }
+    }
+
+    /**
+     * 检查写入线程是否出现错误
+     *
+     * @throws IOException 如果写入出现错误
+     */
+    private void checkWriteError() throws IOException {
+        Exception error = writeError.get();
+        if (error instanceof IOException) {
+            throw (IOException) error;
+        } else if (error != null) {
+            throw new IOException("写入数据到Oracle失败: " + error.getMessage(), error);
+        }
+    }
+
+    /**
+     * 关闭所有连接
+     *
+     * @param rollback 关闭前是否回滚未提交的数据
+     */
+    private void closeWriters(boolean rollback) {
+        for (OracleDataTarget writer : writers) {
+            if (rollback) {
+                rollbackQuietly(writer);
+            }
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.error("关闭写入连接时出错: {}", e.getMessage(), e);
+            }
+        }
+        writers.clear();
+    }
+
+    private void rollbackQuietly(OracleDataTarget writer) {
+        try {
+            writer.rollback();
+        } catch (IOException e) {
+            log.error("回滚事务失败: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Oracle_" + tableName;
+    }
+
+    @Override
+    public TargetType getType() {
+        return TargetType.ORACLE_TABLE;
+    }
+
+    /**
+     * 写入线程工厂
+     */
+    private static class WriterThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        WriterThreadFactory(String tableName) {
+            this.prefix = "oracle-writer-" + tableName + "-";
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
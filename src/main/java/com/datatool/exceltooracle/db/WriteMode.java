@@ -0,0 +1,42 @@
+package com.datatool.exceltooracle.db;
+
+/**
+ * 数据写入方式
+ */
+public enum WriteMode {
+
+    /**
+     * 插入新行
+     */
+    INSERT("插入"),
+
+    /**
+     * 按唯一键更新已存在的行，不存在的行被忽略
+     */
+    UPDATE("更新"),
+
+    /**
+     * 按唯一键合并（MERGE），已存在的行更新，不存在的行插入
+     */
+    UPSERT("插入或更新"),
+
+    /**
+     * 先批量插入会话级暂存表，再按提交间隔用一条MERGE语句集中更新目标表
+     */
+    STAGED_UPDATE("暂存更新");
+
+    private final String description;
+
+    WriteMode(String description) {
+        this.description = description;
+    }
+
+    /**
+     * 获取写入方式描述
+     *
+     * @return 描述
+     */
+    public String getDescription() {
+        return description;
+    }
+}
@@ -21,6 +21,21 @@ public class ImportRequest {
      */
     private String sheetName;
     
+    /**
+     * 需要导入的多个工作表名称（可选，指定后忽略sheetName，各工作表结构应相同，导入到同一张表）
+     */
+    private String[] sheetNames;
+    
+    /**
+     * 是否导入所有工作表（默认为false）
+     */
+    private boolean allSheets = false;
+    
+    /**
+     * 多工作表导入时同时导入的工作表数（默认为4，每个工作表使用独立的数据库连接）
+     */
+    private int sheetParallelism = 4;
+    
     /**
      * 列映射关系 (Excel列名 -> 数据库字段名)
      */
@@ -78,6 +93,16 @@ public class ImportRequest {
      */
     private boolean isInsert = true;
     
+    /**
+     * 写入方式（为空时根据isInsert确定为插入或更新，UPSERT需要指定唯一键列）
+     */
+    private WriteMode writeMode;
+    
+    /**
+     * 暂存更新方式下每暂存多少个批次合并并提交一次（默认为10）
+     */
+    private int stagingApplyInterval = 10;
+    
     /**
      * 唯一键列名（用于更新操作）
      */
@@ -87,4 +112,140 @@ public class ImportRequest {
      * 是否自动映射列（默认为true，Excel列名直接映射到数据库字段名）
      */
     private boolean autoMapping = true;
-} 
\ No newline at end of file
+    
+    /**
+     * 是否流式读取Excel文件（默认为true，XLSX/XLS均不构建工作簿，内存占用与行数无关）
+     */
+    private boolean streamingRead = true;
+    
+    /**
+     * CSV文件编码（可选，为空时自动识别UTF-8或GBK）
+     */
+    private String csvCharset;
+    
+    /**
+     * CSV字段分隔符（默认为逗号）
+     */
+    private char csvDelimiter = ',';
+    
+    /**
+     * CSV文件按记录边界切分后并行解析的线程数（默认为1，大于1时不保证行顺序）
+     */
+    private int csvReaderParallelism = 1;
+    
+    /**
+     * JSON记录数组所在的字段路径（可选，如"data.items"，为空时文件为JSON Lines或顶层数组）
+     */
+    private String jsonRecordPath;
+    
+    /**
+     * XML记录元素路径（可选，如"/Statement/Entries/Entry"，以"//"开头时匹配任意深度，为空时为根元素的直接子元素）
+     */
+    private String xmlRecordPath;
+    
+    /**
+     * 源表名（从数据库导入时使用，可带模式名，如"SRC.CUSTOMER"）
+     */
+    private String sourceTable;
+    
+    /**
+     * 源表拆分列（可选，数值类型，并行读取时按取值范围切分，为空时按ROWID分桶）
+     */
+    private String sourceSplitColumn;
+    
+    /**
+     * 从源表每次取回的行数（默认为1000）
+     */
+    private int sourceFetchSize = 1000;
+    
+    /**
+     * 并行读取源表的连接数（默认为1，从应用连接池读取时与写入连接数一起计入连接配额）
+     */
+    private int sourceReaderParallelism = 1;
+    
+    /**
+     * 是否分阶段执行导入（默认为true，读取解析与数据库写入并行进行）
+     */
+    private boolean pipelined = true;
+    
+    /**
+     * 并行执行行转换的工作线程数（默认为1，即不并行）
+     */
+    private int parallelism = 1;
+    
+    /**
+     * 并行转换时是否保持Excel行顺序（默认为true，false时按完成顺序写入，吞吐量更高）
+     */
+    private boolean preserveOrder = true;
+    
+    /**
+     * 并行转换时是否使用虚拟线程（默认为false，需要JDK 21+）
+     */
+    private boolean virtualThreads = false;
+    
+    /**
+     * 是否使用按列存储的批数据（默认为false，批次中的数值和日期以基本类型数组保存并按列绑定参数）
+     */
+    private boolean columnarBatch = false;
+    
+    /**
+     * 并行写入数据库的连接数（默认为1，即单连接写入，不应超过连接池大小）
+     */
+    private int writerParallelism = 1;
+    
+    /**
+     * 多连接并行写入时的事务策略（默认为全部成功才提交）
+     */
+    private TransactionPolicy transactionPolicy = TransactionPolicy.ALL_OR_NOTHING;
+    
+    /**
+     * 写入语句超时时间（秒，默认为300，0表示不限制），等待行锁超时时写入失败而不是一直等待
+     */
+    private int writeTimeoutSeconds = 300;
+    
+    /**
+     * 是否使用直接路径批量插入（默认为false，仅插入操作有效，每个批次单独提交，只使用一个连接，批处理大小至少为10000）
+     */
+    private boolean directPathLoad = false;
+    
+    /**
+     * 直接路径插入期间是否将表切换为NOLOGGING（默认为false，导入后需要重新备份才能恢复这些数据）
+     */
+    private boolean noLogging = false;
+    
+    /**
+     * 获取实际使用的写入方式
+     * 
+     * @return 写入方式，未指定时根据isInsert确定
+     */
+    public WriteMode resolveWriteMode() {
+        if (writeMode != null) {
+            return writeMode;
+        }
+        return isInsert ? WriteMode.INSERT : WriteMode.UPDATE;
+    }
+    
+    /**
+     * 写入方式
+     */
+    public enum WriteMode {
+        /** 插入新行 */
+        INSERT,
+        /** 按唯一键更新已存在的行 */
+        UPDATE,
+        /** 按唯一键合并，已存在的行更新，不存在的行插入 */
+        UPSERT,
+        /** 先插入暂存表，再集中合并到目标表 */
+        STAGED_UPDATE
+    }
+    
+    /**
+     * 多连接并行写入时的事务策略
+     */
+    public enum TransactionPolicy {
+        /** 每个批次写入成功后在所在连接上提交 */
+        PER_CONNECTION,
+        /** 所有批次成功后统一提交，任一批次失败则全部回滚 */
+        ALL_OR_NOTHING
+    }
+}
@@ -27,6 +27,11 @@ public class ImportResponse {
      */
     private String taskId;
     
+    /**
+     * 任务状态
+     */
+    private TaskStatus status;
+    
     /**
      * 总记录数
      */
@@ -42,6 +47,21 @@ public class ImportResponse {
      */
     private int failureRecords;
     
+    /**
+     * 已读取记录数（任务执行过程中实时更新）
+     */
+    private int readRecords;
+    
+    /**
+     * 已写入记录数（已在数据库中执行的行数，任务执行过程中实时更新，回滚的行会被扣除）
+     */
+    private int writtenRecords;
+    
+    /**
+     * 当前吞吐量（记录/秒）
+     */
+    private double throughput;
+    
     /**
      * 开始时间
      */
@@ -57,11 +77,21 @@ public class ImportResponse {
      */
     private long processingTime;
     
+    /**
+     * 错误明细总数（任务结束后错误明细分页返回，errorRecords只包含当前页）
+     */
+    private int errorRecordCount;
+    
     /**
      * 错误记录列表
      */
     private List<ErrorRecord> errorRecords = new ArrayList<>();
     
+    /**
+     * 各工作表的导入结果（多工作表导入时返回）
+     */
+    private List<SheetResult> sheetResults;
+    
     /**
      * 构造成功响应
      * 
@@ -88,11 +118,91 @@ public class ImportResponse {
         return response;
     }
     
+    /**
+     * 任务状态
+     */
+    public enum TaskStatus {
+        QUEUED("排队中"),
+        RUNNING("导入中"),
+        COMPLETED("已完成"),
+        FAILED("失败");
+        
+        private final String description;
+        
+        TaskStatus(String description) {
+            this.description = description;
+        }
+        
+        /**
+         * 获取状态描述
+         * 
+         * @return 描述
+         */
+        public String getDescription() {
+            return description;
+        }
+        
+        /**
+         * 是否已结束
+         * 
+         * @return 已完成或失败时返回true
+         */
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+    
+    /**
+     * 工作表导入结果
+     */
+    @Data
+    public static class SheetResult {
+        /**
+         * 工作表名称
+         */
+        private String sheetName;
+        
+        /**
+         * 是否成功
+         */
+        private boolean success;
+        
+        /**
+         * 消息
+         */
+        private String message;
+        
+        /**
+         * 总记录数
+         */
+        private int totalRecords;
+        
+        /**
+         * 成功记录数
+         */
+        private int successRecords;
+        
+        /**
+         * 失败记录数
+         */
+        private int failureRecords;
+        
+        /**
+         * 处理耗时（毫秒）
+         */
+        private long processingTime;
+    }
+    
     /**
      * 错误记录
      */
     @Data
     public static class ErrorRecord {
+        /**
+         * 工作表名称（多工作表导入时）
+         */
+        private String sheetName;
+        
         /**
          * 行号
          */
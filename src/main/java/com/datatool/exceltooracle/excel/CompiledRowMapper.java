@@ -0,0 +1,267 @@
+package com.datatool.exceltooracle.excel;
+
+import com.datatool.exceltooracle.core.ProcessContext;
+import com.datatool.exceltooracle.core.RowRecord;
+import com.datatool.exceltooracle.core.ValueGenerator;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 编译后的行映射器
+ * <p>
+ * 由{@link ExcelFieldMapper#compile(Map)}根据表头生成，映射关系被展开为按下标访问的数组：
+ * 每个映射对应一个Excel列索引、一个目标字段位置以及值为空时的补全方式，
+ * 转换每一行时不再进行列名的大小写转换和哈希查找。
+ * </p>
+ * <p>
+ * 生成器批量大小大于1时，生成值按批从{@link ValueGenerator#generateBatch(int, ProcessContext)}获取，
+ * 缓存在处理上下文中（同时执行的任务各一份），生成器的开销按批而不是按行计算。
+ * 每次获取的数量从1开始按实际用量倍增，最多为生成器批量大小，未使用的预取值不超过已使用的数量；
+ * 不能提前获取的生成器（{@link ValueGenerator#isPrefetchable()}为false）仍逐行生成。
+ * </p>
+ * <p>
+ * 开启行记录复用时，同一处理上下文的每一行都写入同一个行记录，只适用于批次容器在加入时复制值的场景
+ * （如{@link com.datatool.exceltooracle.core.ColumnarBatch}），此时每行不再分配行记录。
+ * </p>
+ */
+public class CompiledRowMapper {
+
+    private static final AtomicInteger MAPPER_SEQUENCE = new AtomicInteger();
+
+    private final RowRecord.Schema schema;
+    private final int[] columnIndexes;
+    private final int[] slots;
+    private final ValueGenerator[] generators;
+    private final Object[] defaultValues;
+    private final boolean[] required;
+    private final String[] columnNames;
+    private final int generatorBatchSize;
+    private final String bufferKey;
+    private final String recordKey;
+    private boolean reuseRecord;
+
+    /**
+     * 编译映射关系
+     *
+     * @param mappings 字段映射
+     * @param columnIndexMap 列索引映射（键与映射器的列名规则一致）
+     * @param caseInsensitive 列名是否大小写不敏感
+     * @param generatorBatchSize 每次从值生成器批量获取的值数量
+     */
+    CompiledRowMapper(Iterable<ExcelFieldMapper.FieldMapping> mappings,
+                      Map<String, Integer> columnIndexMap,
+                      boolean caseInsensitive,
+                      int generatorBatchSize) {
+        List<ExcelFieldMapper.FieldMapping> mappingList = new ArrayList<>();
+        Map<String, Integer> fieldSlots = new LinkedHashMap<>();
+        for (ExcelFieldMapper.FieldMapping mapping : mappings) {
+            mappingList.add(mapping);
+            fieldSlots.putIfAbsent(mapping.getFieldName(), fieldSlots.size());
+        }
+
+        int count = mappingList.size();
+        this.schema = new RowRecord.Schema(fieldSlots.keySet().toArray(new String[0]));
+        this.columnIndexes = new int[count];
+        this.slots = new int[count];
+        this.generators = new ValueGenerator[count];
+        this.defaultValues = new Object[count];
+        this.required = new boolean[count];
+        this.columnNames = new String[count];
+        this.generatorBatchSize = generatorBatchSize;
+        int mapperId = MAPPER_SEQUENCE.incrementAndGet();
+        this.bufferKey = CompiledRowMapper.class.getName() + "#" + mapperId;
+        this.recordKey = CompiledRowMapper.class.getName() + "#record#" + mapperId;
+
+        for (int i = 0; i < count; i++) {
+            ExcelFieldMapper.FieldMapping mapping = mappingList.get(i);
+            String columnKey = caseInsensitive ? mapping.getColumnName().toLowerCase() : mapping.getColumnName();
+            Integer columnIndex = columnIndexMap.get(columnKey);
+            columnIndexes[i] = columnIndex != null ? columnIndex : -1;
+            slots[i] = fieldSlots.get(mapping.getFieldName());
+            generators[i] = mapping.getValueGenerator();
+            defaultValues[i] = mapping.getDefaultValue();
+            required[i] = mapping.isRequired();
+            columnNames[i] = mapping.getColumnName();
+        }
+    }
+
+    /**
+     * 转换流式读取的行数据
+     *
+     * @param row 行数据
+     * @return 行记录
+     */
+    public RowRecord map(SheetRow row) {
+        return map(row, null);
+    }
+
+    /**
+     * 转换流式读取的行数据
+     *
+     * @param row 行数据
+     * @param context 处理上下文，为null时生成值逐行获取
+     * @return 行记录
+     */
+    public RowRecord map(SheetRow row, ProcessContext context) {
+        RowRecord record = newRecord(context);
+        GeneratedValues generated = generatedValues(context);
+        for (int i = 0; i < columnIndexes.length; i++) {
+            Object value = columnIndexes[i] >= 0 && row != null ? row.getValue(columnIndexes[i]) : null;
+            putValue(record, i, value, generated, context);
+        }
+        return record;
+    }
+
+    /**
+     * 转换POI行数据
+     *
+     * @param row Excel行
+     * @return 行记录
+     */
+    public RowRecord map(Row row) {
+        return map(row, null);
+    }
+
+    /**
+     * 转换POI行数据
+     *
+     * @param row Excel行
+     * @param context 处理上下文，为null时生成值逐行获取
+     * @return 行记录
+     */
+    public RowRecord map(Row row, ProcessContext context) {
+        RowRecord record = newRecord(context);
+        GeneratedValues generated = generatedValues(context);
+        for (int i = 0; i < columnIndexes.length; i++) {
+            Object value = null;
+            if (columnIndexes[i] >= 0 && row != null) {
+                Cell cell = row.getCell(columnIndexes[i]);
+                if (cell != null) {
+                    value = ExcelUtils.getCellValue(cell);
+                }
+            }
+            putValue(record, i, value, generated, context);
+        }
+        return record;
+    }
+
+    /**
+     * 设置是否复用行记录，返回的行记录在处理下一行时会被覆盖
+     *
+     * @param reuseRecord 是否复用行记录
+     */
+    public void setReuseRecord(boolean reuseRecord) {
+        this.reuseRecord = reuseRecord;
+    }
+
+    /**
+     * 获取写入本行的行记录：复用时取处理上下文中的行记录并清空，否则新建
+     *
+     * @param context 处理上下文
+     * @return 行记录
+     */
+    private RowRecord newRecord(ProcessContext context) {
+        if (!reuseRecord || context == null) {
+            return new RowRecord(schema);
+        }
+        RowRecord record = context.getAttribute(recordKey);
+        if (record == null) {
+            record = new RowRecord(schema);
+            context.setAttribute(recordKey, record);
+        } else {
+            record.clear();
+        }
+        return record;
+    }
+
+    /**
+     * 获取当前处理上下文中缓存的生成值
+     *
+     * @param context 处理上下文
+     * @return 生成值缓存，不需要批量获取时返回null
+     */
+    private GeneratedValues generatedValues(ProcessContext context) {
+        if (context == null || generatorBatchSize <= 1) {
+            return null;
+        }
+        GeneratedValues generated = context.getAttribute(bufferKey);
+        if (generated == null) {
+            generated = new GeneratedValues(generators.length, context);
+            context.setAttribute(bufferKey, generated);
+        }
+        return generated;
+    }
+
+    /**
+     * 按补全规则写入字段值，规则与{@link ExcelFieldMapper}一致：生成器、默认值、必填校验
+     *
+     * @param record 行记录
+     * @param index 映射下标
+     * @param value 单元格值
+     * @param generated 生成值缓存，为null时直接调用生成器
+     * @param context 处理上下文
+     */
+    private void putValue(RowRecord record, int index, Object value, GeneratedValues generated,
+                          ProcessContext context) {
+        if (value == null && generators[index] != null) {
+            value = generated != null ? generated.next(index) : generators[index].generate(context);
+        }
+        if (value == null) {
+            value = defaultValues[index];
+        }
+        if (value == null) {
+            if (required[index]) {
+                throw new IllegalStateException("缺少必填列: " + columnNames[index]);
+            }
+            return;
+        }
+        record.setValue(slots[index], value);
+    }
+
+    /**
+     * 获取行记录的字段结构
+     *
+     * @return 字段结构
+     */
+    public RowRecord.Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * 一个工作线程按批获取的生成值
+     */
+    private final class GeneratedValues {
+
+        private final ProcessContext context;
+        private final Object[][] values;
+        private final int[] positions;
+
+        private GeneratedValues(int count, ProcessContext context) {
+            this.context = context;
+            this.values = new Object[count][];
+            this.positions = new int[count];
+        }
+
+        private Object next(int index) {
+            ValueGenerator generator = generators[index];
+            if (!generator.isPrefetchable()) {
+                return generator.generate(context);
+            }
+            Object[] batch = values[index];
+            if (batch == null || positions[index] >= batch.length) {
+                // 只有需要生成值的行才消耗缓存，按已用量倍增，避免少量空值的列预取整批
+                int size = batch == null ? 1 : Math.min(batch.length * 2, generatorBatchSize);
+                batch = generator.generateBatch(size, context);
+                values[index] = batch;
+                positions[index] = 0;
+            }
+            return batch[positions[index]++];
+        }
+    }
+}
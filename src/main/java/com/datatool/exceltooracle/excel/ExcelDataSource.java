@@ -66,6 +66,11 @@ public class ExcelDataSource implements DataSource<Row> {
     
     @Override
     public void open() throws IOException {
+        if (workbook != null) {
+            // 已经打开（例如读取表头时），避免重复加载整个工作簿
+            return;
+        }
+        
         logger.debug("打开Excel数据源: {}", excelFile.getAbsolutePath());
         
         try (InputStream is = new FileInputStream(excelFile)) {
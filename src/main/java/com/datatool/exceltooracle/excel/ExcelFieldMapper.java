@@ -21,6 +21,7 @@ public class ExcelFieldMapper {
     
     private final Map<String, FieldMapping> mappings = new HashMap<>();
     private final boolean caseInsensitive;
+    private int generatorBatchSize = 1;
     
     /**
      * 构造Excel字段映射器
@@ -146,6 +147,32 @@ public class ExcelFieldMapper {
         return columnIndexMap;
     }
     
+    /**
+     * 从表头行构建列索引映射（流式读取的行数据）
+     * 
+     * @param headerRow 表头行
+     * @return 列索引映射
+     */
+    public Map<String, Integer> buildColumnIndexMap(SheetRow headerRow) {
+        Map<String, Integer> columnIndexMap = new HashMap<>();
+        if (headerRow == null) {
+            return columnIndexMap;
+        }
+        
+        for (int i = 0; i < headerRow.getLastCellNum(); i++) {
+            Object value = headerRow.getValue(i);
+            if (value != null) {
+                String columnName = value.toString();
+                if (StringUtils.isNotBlank(columnName)) {
+                    String key = caseInsensitive ? columnName.toLowerCase() : columnName;
+                    columnIndexMap.put(key, i);
+                }
+            }
+        }
+        
+        return columnIndexMap;
+    }
+    
     /**
      * 获取单元格值
      * 
@@ -185,30 +212,89 @@ public class ExcelFieldMapper {
                 value = getCellValue(row, columnIndex);
             }
             
-            // 如果值为空且有值生成器，使用生成器
-            if (value == null && mapping.getValueGenerator() != null) {
-                value = mapping.getValueGenerator().generate();
-            }
-            
-            // 如果值为空且有默认值，使用默认值
-            if (value == null && mapping.getDefaultValue() != null) {
-                value = mapping.getDefaultValue();
-            }
+            putValue(data, mapping, value);
+        }
+        
+        return data;
+    }
+    
+    /**
+     * 根据映射关系从流式读取的行数据提取数据
+     * 
+     * @param row 行数据
+     * @param columnIndexMap 列索引映射
+     * @return 字段名-值映射
+     */
+    public Map<String, Object> extractData(SheetRow row, Map<String, Integer> columnIndexMap) {
+        Map<String, Object> data = new HashMap<>();
+        
+        for (FieldMapping mapping : mappings.values()) {
+            String columnKey = caseInsensitive ? mapping.getColumnName().toLowerCase() : mapping.getColumnName();
+            Integer columnIndex = columnIndexMap.get(columnKey);
             
-            // 如果还是空值，但字段必填，则抛出异常
-            if (value == null && mapping.isRequired()) {
-                throw new IllegalStateException("缺少必填列: " + mapping.getColumnName());
+            Object value = null;
+            if (columnIndex != null && row != null) {
+                value = row.getValue(columnIndex);
             }
             
-            // 只有在值不为空的情况下才添加到结果中
-            if (value != null) {
-                data.put(mapping.getFieldName(), value);
-            }
+            putValue(data, mapping, value);
         }
         
         return data;
     }
     
+    /**
+     * 根据列索引映射编译映射关系
+     * 表头确定后映射关系不再变化，编译后的映射器按下标转换每一行
+     * 
+     * @param columnIndexMap 列索引映射
+     * @return 编译后的行映射器
+     */
+    public CompiledRowMapper compile(Map<String, Integer> columnIndexMap) {
+        return new CompiledRowMapper(mappings.values(), columnIndexMap, caseInsensitive, generatorBatchSize);
+    }
+    
+    /**
+     * 设置编译后的映射器每次从值生成器批量获取的值数量
+     * 大于1时生成值按批预取，通常设置为写入批次大小；默认为1，即每行调用一次生成器
+     * 
+     * @param generatorBatchSize 批量获取的值数量
+     * @return 当前映射器实例 (链式调用)
+     */
+    public ExcelFieldMapper setGeneratorBatchSize(int generatorBatchSize) {
+        this.generatorBatchSize = Math.max(generatorBatchSize, 1);
+        return this;
+    }
+    
+    /**
+     * 按映射规则补全值并放入结果
+     * 
+     * @param data 结果映射
+     * @param mapping 字段映射
+     * @param value 单元格值
+     */
+    private void putValue(Map<String, Object> data, FieldMapping mapping, Object value) {
+        // 如果值为空且有值生成器，使用生成器
+        if (value == null && mapping.getValueGenerator() != null) {
+            value = mapping.getValueGenerator().generate();
+        }
+        
+        // 如果值为空且有默认值，使用默认值
+        if (value == null && mapping.getDefaultValue() != null) {
+            value = mapping.getDefaultValue();
+        }
+        
+        // 如果还是空值，但字段必填，则抛出异常
+        if (value == null && mapping.isRequired()) {
+            throw new IllegalStateException("缺少必填列: " + mapping.getColumnName());
+        }
+        
+        // 只有在值不为空的情况下才添加到结果中
+        if (value != null) {
+            data.put(mapping.getFieldName(), value);
+        }
+    }
+    
     /**
      * 获取所有映射关系
      * 
@@ -31,32 +31,9 @@ public class ExcelUtils {
                 
             case NUMERIC:
                 if (DateUtil.isCellDateFormatted(cell)) {
-                    Date date = cell.getDateCellValue();
-                    if (date != null) {
-                        // 判断是否包含时间部分
-                        LocalDateTime dateTime = date.toInstant()
-                                .atZone(ZoneId.systemDefault())
-                                .toLocalDateTime();
-                        
-                        if (dateTime.getHour() == 0 && dateTime.getMinute() == 0 && dateTime.getSecond() == 0) {
-                            return dateTime.toLocalDate();
-                        } else {
-                            return dateTime;
-                        }
-                    }
-                    return null;
+                    return toDateValue(cell.getDateCellValue());
                 } else {
-                    double numericValue = cell.getNumericCellValue();
-                    // 判断是否为整数
-                    if (Math.floor(numericValue) == numericValue) {
-                        if (numericValue <= Integer.MAX_VALUE && numericValue >= Integer.MIN_VALUE) {
-                            return (int) numericValue;
-                        } else {
-                            return (long) numericValue;
-                        }
-                    } else {
-                        return BigDecimal.valueOf(numericValue);
-                    }
+                    return toNumericValue(cell.getNumericCellValue());
                 }
                 
             case BOOLEAN:
@@ -103,16 +80,7 @@ public class ExcelUtils {
                     }
                     return null;
                 } else {
-                    double numericValue = cell.getNumericCellValue();
-                    if (Math.floor(numericValue) == numericValue) {
-                        if (numericValue <= Integer.MAX_VALUE && numericValue >= Integer.MIN_VALUE) {
-                            return (int) numericValue;
-                        } else {
-                            return (long) numericValue;
-                        }
-                    } else {
-                        return BigDecimal.valueOf(numericValue);
-                    }
+                    return toNumericValue(cell.getNumericCellValue());
                 }
                 
             case BOOLEAN:
@@ -126,6 +94,66 @@ public class ExcelUtils {
         }
     }
     
+    /**
+     * 将数值转换为对应的Java类型
+     * 整数返回Integer或Long，小数返回BigDecimal
+     * 
+     * @param numericValue 数值
+     * @return 转换后的值
+     */
+    public static Object toNumericValue(double numericValue) {
+        // 判断是否为整数
+        if (Math.floor(numericValue) == numericValue) {
+            if (numericValue <= Integer.MAX_VALUE && numericValue >= Integer.MIN_VALUE) {
+                return (int) numericValue;
+            } else {
+                return (long) numericValue;
+            }
+        } else {
+            return BigDecimal.valueOf(numericValue);
+        }
+    }
+    
+    /**
+     * 将日期转换为对应的Java类型
+     * 不含时间部分返回LocalDate，否则返回LocalDateTime
+     * 
+     * @param date 日期
+     * @return 转换后的值（可能为null）
+     */
+    public static Object toDateValue(Date date) {
+        if (date == null) {
+            return null;
+        }
+        
+        LocalDateTime dateTime = date.toInstant()
+                .atZone(ZoneId.systemDefault())
+                .toLocalDateTime();
+        
+        // 判断是否包含时间部分
+        if (dateTime.getHour() == 0 && dateTime.getMinute() == 0 && dateTime.getSecond() == 0) {
+            return dateTime.toLocalDate();
+        } else {
+            return dateTime;
+        }
+    }
+    
+    /**
+     * 根据单元格格式转换数值（用于事件模型/流式读取）
+     * 
+     * @param numericValue 数值
+     * @param formatIndex 数据格式索引
+     * @param formatString 数据格式字符串
+     * @return 转换后的值
+     */
+    public static Object toCellValue(double numericValue, int formatIndex, String formatString) {
+        if (formatString != null && DateUtil.isADateFormat(formatIndex, formatString)
+                && DateUtil.isValidExcelDate(numericValue)) {
+            return toDateValue(DateUtil.getJavaDate(numericValue));
+        }
+        return toNumericValue(numericValue);
+    }
+    
     /**
      * 获取单元格的字符串值
      * 
@@ -0,0 +1,379 @@
+package com.datatool.exceltooracle.excel;
+
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.MissingRecordAwareHSSFListener;
+import org.apache.poi.hssf.eventusermodel.dummyrecord.LastCellOfRowDummyRecord;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RecordFactoryInputStream;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.CellType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * XLS事件模型数据源实现类
+ * <p>
+ * 基于POI的HSSF事件模型（HSSFListener记录流），按需从RecordFactoryInputStream拉取记录，
+ * 每解码完一行就交给管道处理，不构建HSSFWorkbook用户模型。
+ * </p>
+ */
+public class HssfEventDataSource implements SheetRowSource, HSSFListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(HssfEventDataSource.class);
+
+    private final File excelFile;
+    private final String sheetName;
+    private final int headerRowNum;
+    private final boolean ignoreHeader;
+
+    private POIFSFileSystem fileSystem;
+    private InputStream workbookStream;
+    private RecordFactoryInputStream recordStream;
+    private FormatTrackingHSSFListener formatListener;
+
+    private final List<String> sheetNames = new ArrayList<>();
+    private final Deque<SheetRow> decodedRows = new ArrayDeque<>();
+    private SSTRecord sstRecord;
+    private int sheetIndex = -1;
+    private boolean inTargetSheet;
+    private boolean targetSheetFound;
+    private boolean finished;
+    private int pendingStringColumn = -1;
+    private Object[] cellBuffer = new Object[16];
+    private int maxColumn;
+    private int cellCount;
+
+    private SheetRow headerRow;
+
+    /**
+     * 构造XLS事件模型数据源
+     *
+     * @param excelFile Excel文件
+     * @param sheetName 工作表名称，如果为null则使用第一个工作表
+     * @param headerRowNum 表头行号，默认为0
+     * @param ignoreHeader 是否忽略表头行
+     */
+    public HssfEventDataSource(File excelFile, String sheetName, int headerRowNum, boolean ignoreHeader) {
+        this.excelFile = excelFile;
+        this.sheetName = sheetName;
+        this.headerRowNum = headerRowNum;
+        this.ignoreHeader = ignoreHeader;
+    }
+
+    /**
+     * 构造XLS事件模型数据源（使用第一个工作表，表头行号为0，忽略表头）
+     *
+     * @param excelFile Excel文件
+     */
+    public HssfEventDataSource(File excelFile) {
+        this(excelFile, null, 0, true);
+    }
+
+    /**
+     * 读取工作表名称列表，只解析工作簿全局记录（位于所有工作表之前）
+     *
+     * @param excelFile Excel文件
+     * @return 工作表名称（按工作簿中的顺序）
+     * @throws IOException 如果读取失败
+     */
+    public static List<String> listSheetNames(File excelFile) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (POIFSFileSystem fs = new POIFSFileSystem(excelFile, true);
+             InputStream stream = fs.createDocumentInputStream(HSSFWorkbook.getWorkbookDirEntryName(fs.getRoot()))) {
+            RecordFactoryInputStream records = new RecordFactoryInputStream(stream, false);
+            Record record;
+            while ((record = records.nextRecord()) != null && record.getSid() != EOFRecord.sid) {
+                if (record.getSid() == BoundSheetRecord.sid) {
+                    names.add(((BoundSheetRecord) record).getSheetname());
+                }
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public void open() throws IOException {
+        if (fileSystem != null) {
+            // 已经打开（例如读取表头时），保持当前读取位置
+            return;
+        }
+
+        logger.debug("打开XLS事件模型数据源: {}", excelFile.getAbsolutePath());
+
+        try {
+            fileSystem = new POIFSFileSystem(excelFile, true);
+            workbookStream = fileSystem.createDocumentInputStream(
+                    HSSFWorkbook.getWorkbookDirEntryName(fileSystem.getRoot()));
+            recordStream = new RecordFactoryInputStream(workbookStream, false);
+            formatListener = new FormatTrackingHSSFListener(new MissingRecordAwareHSSFListener(this));
+
+            // 读取到表头行为止，表头之后的数据行保留在队列中
+            int startRowNum = ignoreHeader ? headerRowNum + 1 : headerRowNum;
+            while (fillRows()) {
+                SheetRow row = decodedRows.peekFirst();
+                if (row.getRowNum() == headerRowNum) {
+                    headerRow = row;
+                }
+                if (row.getRowNum() >= startRowNum) {
+                    break;
+                }
+                decodedRows.pollFirst();
+            }
+
+            if (!targetSheetFound) {
+                if (sheetName != null && !sheetName.isEmpty()) {
+                    throw new IOException("工作表不存在: " + sheetName);
+                }
+                throw new IOException("Excel文件中没有工作表");
+            }
+
+            logger.debug("XLS事件模型数据源已打开，工作表: {}, 起始行: {}", getSheetName(), startRowNum);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        decodedRows.clear();
+        recordStream = null;
+        formatListener = null;
+        sstRecord = null;
+        if (workbookStream != null) {
+            workbookStream.close();
+            workbookStream = null;
+        }
+        if (fileSystem != null) {
+            fileSystem.close();
+            fileSystem = null;
+            logger.debug("XLS事件模型数据源已关闭: {}", excelFile.getAbsolutePath());
+        }
+    }
+
+    @Override
+    public Iterator<SheetRow> iterator() {
+        if (fileSystem == null) {
+            throw new IllegalStateException("数据源未打开");
+        }
+
+        return new Iterator<SheetRow>() {
+            @Override
+            public boolean hasNext() {
+                return fillRows();
+            }
+
+            @Override
+            public SheetRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("没有更多的行数据");
+                }
+                return decodedRows.pollFirst();
+            }
+        };
+    }
+
+    /**
+     * 持续拉取记录，直到至少解码出一行或记录流结束
+     *
+     * @return 是否有已解码的行
+     */
+    private boolean fillRows() {
+        while (decodedRows.isEmpty() && !finished) {
+            Record record = recordStream.nextRecord();
+            if (record == null) {
+                finished = true;
+                break;
+            }
+            formatListener.processRecord(record);
+        }
+        return !decodedRows.isEmpty();
+    }
+
+    @Override
+    public void processRecord(Record record) {
+        switch (record.getSid()) {
+            case BoundSheetRecord.sid:
+                sheetNames.add(((BoundSheetRecord) record).getSheetname());
+                return;
+            case SSTRecord.sid:
+                sstRecord = (SSTRecord) record;
+                return;
+            case BOFRecord.sid:
+                if (((BOFRecord) record).getType() == BOFRecord.TYPE_WORKSHEET) {
+                    sheetIndex++;
+                    inTargetSheet = isTargetSheet(sheetIndex);
+                    targetSheetFound |= inTargetSheet;
+                }
+                return;
+            case EOFRecord.sid:
+                if (inTargetSheet) {
+                    // 目标工作表读取完毕，后续工作表无需解析
+                    inTargetSheet = false;
+                    finished = true;
+                }
+                return;
+            default:
+                break;
+        }
+
+        if (!inTargetSheet) {
+            return;
+        }
+
+        if (record instanceof LastCellOfRowDummyRecord) {
+            // 没有任何单元格的行（MissingRecordAware补齐的空行）直接跳过
+            if (maxColumn > 0) {
+                int rowNum = ((LastCellOfRowDummyRecord) record).getRow();
+                decodedRows.addLast(new SheetRow(rowNum, Arrays.copyOf(cellBuffer, cellCount)));
+            }
+            Arrays.fill(cellBuffer, 0, maxColumn, null);
+            maxColumn = 0;
+            cellCount = 0;
+            return;
+        }
+
+        switch (record.getSid()) {
+            case NumberRecord.sid: {
+                NumberRecord number = (NumberRecord) record;
+                setCell(number.getColumn(), ExcelUtils.toCellValue(number.getValue(),
+                        formatListener.getFormatIndex(number), formatListener.getFormatString(number)));
+                break;
+            }
+            case LabelSSTRecord.sid: {
+                LabelSSTRecord label = (LabelSSTRecord) record;
+                setCell(label.getColumn(), sstRecord.getString(label.getSSTIndex()).getString());
+                break;
+            }
+            case LabelRecord.sid: {
+                LabelRecord label = (LabelRecord) record;
+                setCell(label.getColumn(), label.getValue());
+                break;
+            }
+            case BoolErrRecord.sid: {
+                BoolErrRecord boolErr = (BoolErrRecord) record;
+                setCell(boolErr.getColumn(), boolErr.isBoolean() ? boolErr.getBooleanValue() : null);
+                break;
+            }
+            case FormulaRecord.sid: {
+                FormulaRecord formula = (FormulaRecord) record;
+                setCell(formula.getColumn(), getFormulaValue(formula));
+                break;
+            }
+            case StringRecord.sid:
+                // 字符串类型公式的缓存结果紧跟在FormulaRecord之后
+                if (pendingStringColumn >= 0) {
+                    setCell(pendingStringColumn, ((StringRecord) record).getString());
+                    pendingStringColumn = -1;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 获取公式单元格的缓存结果
+     *
+     * @param formula 公式记录
+     * @return 缓存结果
+     */
+    private Object getFormulaValue(FormulaRecord formula) {
+        if (formula.hasCachedResultString()) {
+            pendingStringColumn = formula.getColumn();
+            return null;
+        }
+
+        CellType resultType = formula.getCachedResultTypeEnum();
+        if (resultType == CellType.BOOLEAN) {
+            return formula.getCachedBooleanValue();
+        } else if (resultType == CellType.NUMERIC) {
+            return ExcelUtils.toCellValue(formula.getValue(),
+                    formatListener.getFormatIndex(formula), formatListener.getFormatString(formula));
+        }
+        return null;
+    }
+
+    /**
+     * 设置当前行的单元格值
+     *
+     * @param column 列索引
+     * @param value 单元格值
+     */
+    private void setCell(int column, Object value) {
+        if (column >= cellBuffer.length) {
+            cellBuffer = Arrays.copyOf(cellBuffer, Math.max(cellBuffer.length * 2, column + 1));
+        }
+        cellBuffer[column] = value;
+        maxColumn = Math.max(maxColumn, column + 1);
+        if (value != null) {
+            cellCount = Math.max(cellCount, column + 1);
+        }
+    }
+
+    /**
+     * 判断是否为需要读取的工作表
+     *
+     * @param index 工作表序号
+     * @return 是否为目标工作表
+     */
+    private boolean isTargetSheet(int index) {
+        if (sheetName == null || sheetName.isEmpty()) {
+            return index == 0;
+        }
+        return index < sheetNames.size() && sheetName.equals(sheetNames.get(index));
+    }
+
+    @Override
+    public String getName() {
+        return excelFile.getName();
+    }
+
+    @Override
+    public SourceType getType() {
+        return SourceType.EXCEL_XLS;
+    }
+
+    @Override
+    public SheetRow getHeaderRow() {
+        if (fileSystem == null) {
+            throw new IllegalStateException("数据源未打开");
+        }
+        return headerRow;
+    }
+
+    /**
+     * 获取当前读取的工作表名称
+     *
+     * @return 工作表名称
+     */
+    public String getSheetName() {
+        if (sheetIndex >= 0 && sheetIndex < sheetNames.size()) {
+            return sheetNames.get(sheetIndex);
+        }
+        return sheetName;
+    }
+}
@@ -0,0 +1,233 @@
+package com.datatool.exceltooracle.excel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 并行读取的行数据源基类
+ * <p>
+ * 数据被切分为多个部分，每个部分是一个独立的行数据源，由一个线程读取，读取的行按块放入有界队列。
+ * 不同部分的行交错输出，不保证原有的行顺序。
+ * </p>
+ */
+public abstract class ParallelSheetRowSource implements SheetRowSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelSheetRowSource.class);
+
+    /**
+     * 每块行数
+     */
+    private static final int CHUNK_SIZE = 512;
+
+    /**
+     * 部分读取结束标记
+     */
+    private static final List<SheetRow> END_OF_PART = Collections.emptyList();
+
+    private final String threadNamePrefix;
+    private final List<SheetRowSource> parts = new ArrayList<>();
+    private final AtomicReference<Exception> readError = new AtomicReference<>();
+    private BlockingQueue<List<SheetRow>> queue;
+    private ExecutorService executor;
+    private SheetRow headerRow;
+    private volatile boolean closed;
+
+    /**
+     * @param threadNamePrefix 读取线程名前缀
+     */
+    protected ParallelSheetRowSource(String threadNamePrefix) {
+        this.threadNamePrefix = threadNamePrefix;
+    }
+
+    /**
+     * 切分数据并创建各部分的数据源（未打开）
+     *
+     * @return 各部分的数据源
+     * @throws IOException 如果切分失败
+     */
+    protected abstract List<? extends SheetRowSource> createParts() throws IOException;
+
+    @Override
+    public void open() throws IOException {
+        if (executor != null) {
+            return;
+        }
+
+        try {
+            for (SheetRowSource part : createParts()) {
+                parts.add(part);
+                part.open();
+                if (part.getHeaderRow() != null) {
+                    headerRow = part.getHeaderRow();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+        logger.debug("{} 切分为 {} 个部分并行读取", getName(), parts.size());
+
+        closed = false;
+        readError.set(null);
+        queue = new ArrayBlockingQueue<>(Math.max(parts.size(), 1) * 4);
+        executor = Executors.newFixedThreadPool(Math.max(parts.size(), 1), new ReaderThreadFactory(threadNamePrefix));
+        for (SheetRowSource part : parts) {
+            executor.execute(() -> readPart(part));
+        }
+    }
+
+    /**
+     * 读取一个部分，按块放入队列
+     *
+     * @param part 部分数据源
+     */
+    private void readPart(SheetRowSource part) {
+        try {
+            List<SheetRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            Iterator<SheetRow> iterator = part.iterator();
+            while (!closed && iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() >= CHUNK_SIZE) {
+                    queue.put(chunk);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty() && !closed) {
+                queue.put(chunk);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            readError.compareAndSet(null, e);
+        }
+
+        try {
+            queue.put(END_OF_PART);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (executor != null) {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+
+        IOException error = null;
+        for (SheetRowSource part : parts) {
+            try {
+                part.close();
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        parts.clear();
+        queue = null;
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    @Override
+    public Iterator<SheetRow> iterator() {
+        if (executor == null) {
+            throw new IllegalStateException("数据源未打开");
+        }
+
+        return new Iterator<SheetRow>() {
+            private Iterator<SheetRow> current = Collections.emptyIterator();
+            private int remainingParts = parts.size();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    if (remainingParts == 0) {
+                        checkReadError();
+                        return false;
+                    }
+                    List<SheetRow> chunk;
+                    try {
+                        chunk = queue.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("读取行数据时被中断", e);
+                    }
+                    if (chunk == END_OF_PART) {
+                        remainingParts--;
+                        checkReadError();
+                    } else {
+                        current = chunk.iterator();
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public SheetRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("没有更多的行数据");
+                }
+                return current.next();
+            }
+        };
+    }
+
+    private void checkReadError() {
+        Exception error = readError.get();
+        if (error != null) {
+            throw new IllegalStateException("读取行数据失败: " + error.getMessage(), error);
+        }
+    }
+
+    @Override
+    public SheetRow getHeaderRow() {
+        if (executor == null) {
+            throw new IllegalStateException("数据源未打开");
+        }
+        return headerRow;
+    }
+
+    /**
+     * 读取线程工厂
+     */
+    private static class ReaderThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        ReaderThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
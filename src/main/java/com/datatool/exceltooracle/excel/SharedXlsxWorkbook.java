@@ -0,0 +1,135 @@
+package com.datatool.exceltooracle.excel;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 多个工作表共享的只读XLSX包
+ * <p>
+ * 包、共享字符串表和样式表只加载一次，各工作表的数据源分别打开自己的sheet XML流，可以在不同线程中并发解析。
+ * 共享字符串表和样式表加载后只读；打开sheet XML流时加锁。
+ * </p>
+ */
+public class SharedXlsxWorkbook implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedXlsxWorkbook.class);
+
+    private final File excelFile;
+    private final OPCPackage opcPackage;
+    private final XSSFReader reader;
+    private final ReadOnlySharedStringsTable sharedStrings;
+    private final StylesTable stylesTable;
+    private final List<String> sheetNames;
+
+    /**
+     * 打开XLSX包
+     *
+     * @param excelFile Excel文件
+     * @throws IOException 如果打开失败
+     */
+    public SharedXlsxWorkbook(File excelFile) throws IOException {
+        this.excelFile = excelFile;
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(excelFile, PackageAccess.READ);
+            reader = new XSSFReader(pkg);
+            sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+            stylesTable = reader.getStylesTable();
+
+            List<String> names = new ArrayList<>();
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                sheets.next().close();
+                names.add(sheets.getSheetName());
+            }
+            sheetNames = Collections.unmodifiableList(names);
+            opcPackage = pkg;
+        } catch (OpenXML4JException | SAXException e) {
+            revert(pkg);
+            throw new IOException("打开Excel文件失败: " + e.getMessage(), e);
+        } catch (IOException | RuntimeException e) {
+            revert(pkg);
+            throw e;
+        }
+        logger.debug("XLSX包已打开: {}, 工作表: {}", excelFile.getAbsolutePath(), sheetNames);
+    }
+
+    /**
+     * 打开工作表的XML流
+     *
+     * @param sheetName 工作表名称，如果为null则使用第一个工作表
+     * @param resolvedName 用于返回实际打开的工作表名称（长度为1的数组）
+     * @return sheet XML输入流
+     * @throws IOException 如果工作表不存在或读取失败
+     */
+    synchronized InputStream openSheet(String sheetName, String[] resolvedName) throws IOException {
+        try {
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                InputStream stream = sheets.next();
+                String name = sheets.getSheetName();
+                if (sheetName == null || sheetName.isEmpty() || sheetName.equals(name)) {
+                    resolvedName[0] = name;
+                    return stream;
+                }
+                stream.close();
+            }
+        } catch (OpenXML4JException e) {
+            throw new IOException("读取工作表失败: " + e.getMessage(), e);
+        }
+
+        if (sheetName != null && !sheetName.isEmpty()) {
+            throw new IOException("工作表不存在: " + sheetName);
+        }
+        throw new IOException("Excel文件中没有工作表");
+    }
+
+    /**
+     * 获取所有工作表名称（按工作簿中的顺序）
+     *
+     * @return 工作表名称
+     */
+    public List<String> getSheetNames() {
+        return sheetNames;
+    }
+
+    ReadOnlySharedStringsTable getSharedStrings() {
+        return sharedStrings;
+    }
+
+    StylesTable getStylesTable() {
+        return stylesTable;
+    }
+
+    File getExcelFile() {
+        return excelFile;
+    }
+
+    @Override
+    public void close() {
+        revert(opcPackage);
+        logger.debug("XLSX包已关闭: {}", excelFile.getAbsolutePath());
+    }
+
+    private static void revert(OPCPackage pkg) {
+        if (pkg != null) {
+            // 只读方式打开的包使用revert释放资源
+            pkg.revert();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.datatool.exceltooracle.excel;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+
+import java.util.Arrays;
+
+/**
+ * 轻量级行数据
+ * 流式读取时使用，只保存行号和已转换好的单元格值，不依赖POI的用户模型
+ */
+public class SheetRow {
+
+    private final int rowNum;
+    private final Object[] values;
+
+    /**
+     * 构造行数据
+     *
+     * @param rowNum 行号（从0开始）
+     * @param values 单元格值，下标即列索引
+     */
+    public SheetRow(int rowNum, Object[] values) {
+        this.rowNum = rowNum;
+        this.values = values;
+    }
+
+    /**
+     * 从POI行对象转换
+     *
+     * @param row POI行对象
+     * @return 行数据，如果row为null则返回null
+     */
+    public static SheetRow of(Row row) {
+        if (row == null) {
+            return null;
+        }
+
+        int lastCellNum = Math.max(row.getLastCellNum(), 0);
+        Object[] values = new Object[lastCellNum];
+        for (int i = 0; i < lastCellNum; i++) {
+            Cell cell = row.getCell(i);
+            values[i] = ExcelUtils.getCellValue(cell);
+        }
+        return new SheetRow(row.getRowNum(), values);
+    }
+
+    /**
+     * 获取行号
+     *
+     * @return 行号（从0开始）
+     */
+    public int getRowNum() {
+        return rowNum;
+    }
+
+    /**
+     * 获取列数（最后一个单元格索引+1）
+     *
+     * @return 列数
+     */
+    public int getLastCellNum() {
+        return values.length;
+    }
+
+    /**
+     * 获取单元格值
+     *
+     * @param columnIndex 列索引
+     * @return 单元格值（可能为null）
+     */
+    public Object getValue(int columnIndex) {
+        if (columnIndex < 0 || columnIndex >= values.length) {
+            return null;
+        }
+        return values[columnIndex];
+    }
+
+    /**
+     * 判断是否为空行
+     *
+     * @return 是否所有单元格都为空
+     */
+    public boolean isEmpty() {
+        for (Object value : values) {
+            if (value != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "Row " + rowNum + " " + Arrays.toString(values);
+    }
+}
@@ -0,0 +1,17 @@
+package com.datatool.exceltooracle.excel;
+
+import com.datatool.exceltooracle.core.DataSource;
+
+/**
+ * 按行流式读取的数据源接口
+ * 数据以SheetRow的形式逐行产生，并提供表头行用于构建列映射
+ */
+public interface SheetRowSource extends DataSource<SheetRow> {
+
+    /**
+     * 获取表头行
+     *
+     * @return 表头行（可能为null）
+     */
+    SheetRow getHeaderRow();
+}
@@ -0,0 +1,395 @@
+package com.datatool.exceltooracle.excel;
+
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * XLSX流式数据源实现类
+ * <p>
+ * 基于POI的XSSFReader事件模型，逐行拉取解析sheet XML，不构建XSSFWorkbook，
+ * 内存占用只与共享字符串表大小有关，与文件行数无关。
+ * 多个工作表可以共享同一个{@link SharedXlsxWorkbook}，在不同线程中并发解析。
+ * </p>
+ */
+public class StreamingXlsxDataSource implements SheetRowSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingXlsxDataSource.class);
+
+    private final File excelFile;
+    private final String sheetName;
+    private final int headerRowNum;
+    private final boolean ignoreHeader;
+
+    private final SharedXlsxWorkbook sharedWorkbook;
+
+    private SharedXlsxWorkbook workbook;
+    private ReadOnlySharedStringsTable sharedStrings;
+    private StylesTable stylesTable;
+    private InputStream sheetStream;
+    private XMLStreamReader xmlReader;
+    private String currentSheetName;
+
+    private SheetRow headerRow;
+    private SheetRow nextRow;
+    private boolean finished;
+    private int lastRowNum = -1;
+    private Object[] cellBuffer = new Object[16];
+    private Boolean[] dateStyleCache = new Boolean[0];
+
+    /**
+     * 构造XLSX流式数据源
+     *
+     * @param excelFile Excel文件
+     * @param sheetName 工作表名称，如果为null则使用第一个工作表
+     * @param headerRowNum 表头行号，默认为0
+     * @param ignoreHeader 是否忽略表头行
+     */
+    public StreamingXlsxDataSource(File excelFile, String sheetName, int headerRowNum, boolean ignoreHeader) {
+        this.excelFile = excelFile;
+        this.sharedWorkbook = null;
+        this.sheetName = sheetName;
+        this.headerRowNum = headerRowNum;
+        this.ignoreHeader = ignoreHeader;
+    }
+
+    /**
+     * 构造读取共享XLSX包中一个工作表的数据源，关闭数据源时不关闭共享包
+     *
+     * @param workbook 共享的XLSX包
+     * @param sheetName 工作表名称，如果为null则使用第一个工作表
+     * @param headerRowNum 表头行号
+     * @param ignoreHeader 是否忽略表头行
+     */
+    public StreamingXlsxDataSource(SharedXlsxWorkbook workbook, String sheetName, int headerRowNum,
+                                   boolean ignoreHeader) {
+        this.excelFile = workbook.getExcelFile();
+        this.sharedWorkbook = workbook;
+        this.sheetName = sheetName;
+        this.headerRowNum = headerRowNum;
+        this.ignoreHeader = ignoreHeader;
+    }
+
+    /**
+     * 构造XLSX流式数据源（使用第一个工作表，表头行号为0，忽略表头）
+     *
+     * @param excelFile Excel文件
+     */
+    public StreamingXlsxDataSource(File excelFile) {
+        this(excelFile, null, 0, true);
+    }
+
+    @Override
+    public void open() throws IOException {
+        if (workbook != null) {
+            // 已经打开（例如读取表头时），保持当前读取位置
+            return;
+        }
+
+        logger.debug("打开XLSX流式数据源: {}", excelFile.getAbsolutePath());
+
+        try {
+            workbook = sharedWorkbook != null ? sharedWorkbook : new SharedXlsxWorkbook(excelFile);
+            sharedStrings = workbook.getSharedStrings();
+            stylesTable = workbook.getStylesTable();
+            String[] resolvedName = new String[1];
+            sheetStream = workbook.openSheet(sheetName, resolvedName);
+            currentSheetName = resolvedName[0];
+            xmlReader = XMLHelper.newXMLInputFactory().createXMLStreamReader(sheetStream);
+
+            // 读取到表头行为止，表头之后的第一行数据暂存为下一行
+            int startRowNum = ignoreHeader ? headerRowNum + 1 : headerRowNum;
+            SheetRow row;
+            while ((row = readNextRow()) != null) {
+                if (row.getRowNum() == headerRowNum) {
+                    headerRow = row;
+                }
+                if (row.getRowNum() >= startRowNum) {
+                    nextRow = row;
+                    break;
+                }
+            }
+            finished = nextRow == null;
+
+            logger.debug("XLSX流式数据源已打开，工作表: {}, 起始行: {}", currentSheetName, startRowNum);
+        } catch (XMLStreamException e) {
+            close();
+            throw new IOException("打开Excel文件失败: " + e.getMessage(), e);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (xmlReader != null) {
+                xmlReader.close();
+            }
+        } catch (XMLStreamException e) {
+            logger.warn("关闭XML读取器时出错: {}", e.getMessage());
+        } finally {
+            xmlReader = null;
+            if (sheetStream != null) {
+                sheetStream.close();
+                sheetStream = null;
+            }
+            if (workbook != null) {
+                if (workbook != sharedWorkbook) {
+                    workbook.close();
+                }
+                workbook = null;
+                logger.debug("XLSX流式数据源已关闭: {}, 工作表: {}", excelFile.getAbsolutePath(), currentSheetName);
+            }
+            sharedStrings = null;
+            stylesTable = null;
+            nextRow = null;
+        }
+    }
+
+    @Override
+    public Iterator<SheetRow> iterator() {
+        if (xmlReader == null) {
+            throw new IllegalStateException("数据源未打开");
+        }
+
+        return new Iterator<SheetRow>() {
+            @Override
+            public boolean hasNext() {
+                if (nextRow == null && !finished) {
+                    try {
+                        nextRow = readNextRow();
+                    } catch (XMLStreamException e) {
+                        throw new IllegalStateException("读取Excel行数据失败: " + e.getMessage(), e);
+                    }
+                    finished = nextRow == null;
+                }
+                return nextRow != null;
+            }
+
+            @Override
+            public SheetRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("没有更多的行数据");
+                }
+
+                SheetRow row = nextRow;
+                nextRow = null;
+                return row;
+            }
+        };
+    }
+
+    /**
+     * 读取下一行
+     *
+     * @return 行数据，没有更多行时返回null
+     */
+    private SheetRow readNextRow() throws XMLStreamException {
+        while (xmlReader.hasNext()) {
+            int event = xmlReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT && "row".equals(xmlReader.getLocalName())) {
+                return parseRow();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 解析当前row元素
+     *
+     * @return 行数据
+     */
+    private SheetRow parseRow() throws XMLStreamException {
+        String ref = xmlReader.getAttributeValue(null, "r");
+        int rowNum = ref != null ? Integer.parseInt(ref) - 1 : lastRowNum + 1;
+        lastRowNum = rowNum;
+
+        int cellCount = 0;
+        int nextColumn = 0;
+        int maxColumn = 0;
+        while (xmlReader.hasNext()) {
+            int event = xmlReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT && "c".equals(xmlReader.getLocalName())) {
+                String cellRef = xmlReader.getAttributeValue(null, "r");
+                int columnIndex = cellRef != null ? getColumnIndex(cellRef) : nextColumn;
+                nextColumn = columnIndex + 1;
+
+                Object value = parseCell();
+                if (columnIndex >= cellBuffer.length) {
+                    cellBuffer = Arrays.copyOf(cellBuffer, Math.max(cellBuffer.length * 2, columnIndex + 1));
+                }
+                cellBuffer[columnIndex] = value;
+                maxColumn = Math.max(maxColumn, nextColumn);
+                if (value != null) {
+                    cellCount = Math.max(cellCount, columnIndex + 1);
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && "row".equals(xmlReader.getLocalName())) {
+                break;
+            }
+        }
+
+        Object[] values = Arrays.copyOf(cellBuffer, cellCount);
+        Arrays.fill(cellBuffer, 0, maxColumn, null);
+        return new SheetRow(rowNum, values);
+    }
+
+    /**
+     * 解析当前c元素，返回转换后的单元格值
+     *
+     * @return 单元格值
+     */
+    private Object parseCell() throws XMLStreamException {
+        String type = xmlReader.getAttributeValue(null, "t");
+        String styleRef = xmlReader.getAttributeValue(null, "s");
+
+        String rawValue = null;
+        StringBuilder inlineText = null;
+        boolean inPhonetic = false;
+        while (xmlReader.hasNext()) {
+            int event = xmlReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = xmlReader.getLocalName();
+                if ("v".equals(name)) {
+                    rawValue = xmlReader.getElementText();
+                } else if ("rPh".equals(name)) {
+                    inPhonetic = true;
+                } else if ("t".equals(name) && !inPhonetic) {
+                    if (inlineText == null) {
+                        inlineText = new StringBuilder();
+                    }
+                    inlineText.append(xmlReader.getElementText());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String name = xmlReader.getLocalName();
+                if ("rPh".equals(name)) {
+                    inPhonetic = false;
+                } else if ("c".equals(name)) {
+                    break;
+                }
+            }
+        }
+
+        if ("inlineStr".equals(type)) {
+            return inlineText != null ? inlineText.toString() : null;
+        }
+        if (rawValue == null) {
+            return null;
+        }
+
+        if (type == null || "n".equals(type)) {
+            if (rawValue.isEmpty()) {
+                return null;
+            }
+            double numericValue = Double.parseDouble(rawValue);
+            if (styleRef != null && isDateStyle(Integer.parseInt(styleRef))
+                    && DateUtil.isValidExcelDate(numericValue)) {
+                return ExcelUtils.toDateValue(DateUtil.getJavaDate(numericValue));
+            }
+            return ExcelUtils.toNumericValue(numericValue);
+        }
+
+        switch (type) {
+            case "s":
+                return sharedStrings.getItemAt(Integer.parseInt(rawValue)).getString();
+            case "str":
+            case "d":
+                return rawValue;
+            case "b":
+                return "1".equals(rawValue) || "true".equalsIgnoreCase(rawValue);
+            case "e":
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 判断样式是否为日期格式（按样式索引缓存）
+     *
+     * @param styleIndex 样式索引
+     * @return 是否为日期格式
+     */
+    private boolean isDateStyle(int styleIndex) {
+        if (styleIndex >= dateStyleCache.length) {
+            dateStyleCache = Arrays.copyOf(dateStyleCache, Math.max(styleIndex + 1, stylesTable.getNumCellStyles()));
+        }
+
+        Boolean cached = dateStyleCache[styleIndex];
+        if (cached == null) {
+            XSSFCellStyle style = stylesTable.getStyleAt(styleIndex);
+            boolean dateStyle = false;
+            if (style != null) {
+                short formatIndex = style.getDataFormat();
+                String formatString = style.getDataFormatString();
+                if (formatString == null) {
+                    formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
+                }
+                dateStyle = formatString != null && DateUtil.isADateFormat(formatIndex, formatString);
+            }
+            cached = dateStyle;
+            dateStyleCache[styleIndex] = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * 从单元格引用（如"AB12"）中解析列索引
+     *
+     * @param cellRef 单元格引用
+     * @return 列索引（从0开始）
+     */
+    private static int getColumnIndex(String cellRef) {
+        int column = 0;
+        for (int i = 0; i < cellRef.length(); i++) {
+            char ch = cellRef.charAt(i);
+            if (ch < 'A' || ch > 'Z') {
+                break;
+            }
+            column = column * 26 + (ch - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    @Override
+    public String getName() {
+        return excelFile.getName();
+    }
+
+    @Override
+    public SourceType getType() {
+        return SourceType.EXCEL_XLSX;
+    }
+
+    @Override
+    public SheetRow getHeaderRow() {
+        if (xmlReader == null) {
+            throw new IllegalStateException("数据源未打开");
+        }
+        return headerRow;
+    }
+
+    /**
+     * 获取当前读取的工作表名称
+     *
+     * @return 工作表名称
+     */
+    public String getSheetName() {
+        return currentSheetName;
+    }
+}
@@ -0,0 +1,377 @@
+package com.datatool.exceltooracle.json;
+
+import com.datatool.exceltooracle.excel.SheetRow;
+import com.datatool.exceltooracle.excel.SheetRowSource;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * JSON流式数据源实现类
+ * <p>
+ * 基于Jackson的JsonParser逐个token读取，支持JSON Lines（每行一个对象）、顶层数组，
+ * 以及通过记录路径（如"data.items"）定位到包装对象内部的数组，内存占用与记录数无关。
+ * </p>
+ * <p>
+ * 每条记录按字段路径（用.分隔的对象字段，如"customer.name"）取值，字段路径作为表头，
+ * 与Excel列名一样参与列映射；未映射的子树直接跳过不解析。路径指向数组或对象时取其JSON文本。
+ * 未指定字段路径时根据第一条记录的叶子字段确定。记录的行号从0开始，没有表头行。
+ * </p>
+ */
+public class JsonDataSource implements SheetRowSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonDataSource.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final File jsonFile;
+    private final String recordPath;
+    private final List<String> configuredPaths;
+
+    private JsonParser parser;
+    private boolean arrayMode;
+    private JsonToken pendingToken;
+    private PathNode root;
+    private int fieldCount;
+    private SheetRow headerRow;
+    private SheetRow nextRow;
+    private boolean finished;
+    private int recordIndex;
+
+    /**
+     * 构造JSON流式数据源
+     *
+     * @param jsonFile JSON文件
+     * @param recordPath 记录数组所在的字段路径，为空时文件本身是JSON Lines或顶层数组
+     * @param fieldPaths 需要读取的字段路径，为null或空时根据第一条记录确定
+     */
+    public JsonDataSource(File jsonFile, String recordPath, List<String> fieldPaths) {
+        this.jsonFile = jsonFile;
+        this.recordPath = recordPath;
+        this.configuredPaths = fieldPaths;
+    }
+
+    /**
+     * 构造JSON流式数据源（JSON Lines或顶层数组，字段路径根据第一条记录确定）
+     *
+     * @param jsonFile JSON文件
+     */
+    public JsonDataSource(File jsonFile) {
+        this(jsonFile, null, null);
+    }
+
+    @Override
+    public void open() throws IOException {
+        if (parser != null) {
+            // 已经打开（例如读取表头时），保持当前读取位置
+            return;
+        }
+
+        logger.debug("打开JSON数据源: {}", jsonFile.getAbsolutePath());
+
+        try {
+            parser = MAPPER.getFactory().createParser(jsonFile);
+            locateRecords();
+
+            List<String> paths;
+            if (configuredPaths != null && !configuredPaths.isEmpty()) {
+                paths = new ArrayList<>(new LinkedHashSet<>(configuredPaths));
+                buildPathTree(paths);
+                nextRow = readNextRow();
+            } else {
+                // 根据第一条记录的叶子字段确定字段路径，第一条记录从其树形结构中取值
+                JsonNode first = readFirstRecordTree();
+                paths = new ArrayList<>();
+                if (first != null) {
+                    collectLeafPaths(first, "", paths);
+                }
+                buildPathTree(paths);
+                if (first != null) {
+                    try (JsonParser treeParser = first.traverse(MAPPER)) {
+                        treeParser.nextToken();
+                        nextRow = readRecord(treeParser);
+                    }
+                }
+            }
+            finished = nextRow == null;
+            headerRow = new SheetRow(-1, paths.toArray());
+
+            logger.debug("JSON数据源已打开，{}，字段路径: {}", arrayMode ? "数组格式" : "JSON Lines格式", paths);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * 定位到第一条记录之前：顶层数组或记录路径指向的数组进入数组模式，否则按JSON Lines读取
+     */
+    private void locateRecords() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (recordPath != null && !recordPath.isEmpty()) {
+            for (String name : recordPath.split("\\.")) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IOException("记录路径不存在: " + recordPath);
+                }
+                token = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.getCurrentName();
+                    JsonToken valueToken = parser.nextToken();
+                    if (name.equals(fieldName)) {
+                        token = valueToken;
+                        break;
+                    }
+                    parser.skipChildren();
+                }
+                if (token == null) {
+                    throw new IOException("记录路径不存在: " + recordPath);
+                }
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new IOException("记录路径指向的不是数组: " + recordPath);
+            }
+            arrayMode = true;
+        } else if (token == JsonToken.START_ARRAY) {
+            arrayMode = true;
+        } else {
+            pendingToken = token;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        nextRow = null;
+        if (parser != null) {
+            parser.close();
+            parser = null;
+            logger.debug("JSON数据源已关闭: {}", jsonFile.getAbsolutePath());
+        }
+    }
+
+    @Override
+    public Iterator<SheetRow> iterator() {
+        if (parser == null) {
+            throw new IllegalStateException("数据源未打开");
+        }
+
+        return new Iterator<SheetRow>() {
+            @Override
+            public boolean hasNext() {
+                if (nextRow == null && !finished) {
+                    try {
+                        nextRow = readNextRow();
+                    } catch (IOException e) {
+                        throw new IllegalStateException("读取JSON记录失败: " + e.getMessage(), e);
+                    }
+                    finished = nextRow == null;
+                }
+                return nextRow != null;
+            }
+
+            @Override
+            public SheetRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("没有更多的记录");
+                }
+
+                SheetRow row = nextRow;
+                nextRow = null;
+                return row;
+            }
+        };
+    }
+
+    /**
+     * 移动到下一条记录的开始位置
+     *
+     * @return 是否还有记录
+     */
+    private boolean nextRecordStart() throws IOException {
+        JsonToken token;
+        if (pendingToken != null) {
+            token = pendingToken;
+            pendingToken = null;
+        } else {
+            token = parser.nextToken();
+        }
+
+        if (token == null || (arrayMode && token == JsonToken.END_ARRAY)) {
+            // 数组模式下数组之后的内容（包装对象的其余字段）不再读取
+            return false;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("第 " + (recordIndex + 1) + " 条记录不是JSON对象: " + token);
+        }
+        return true;
+    }
+
+    private JsonNode readFirstRecordTree() throws IOException {
+        if (!nextRecordStart()) {
+            return null;
+        }
+        return parser.readValueAsTree();
+    }
+
+    private SheetRow readNextRow() throws IOException {
+        if (!nextRecordStart()) {
+            return null;
+        }
+        return readRecord(parser);
+    }
+
+    /**
+     * 读取一条记录
+     *
+     * @param recordParser 位于记录START_OBJECT处的解析器
+     * @return 行数据
+     */
+    private SheetRow readRecord(JsonParser recordParser) throws IOException {
+        Object[] values = new Object[fieldCount];
+        readObject(recordParser, root, values);
+        return new SheetRow(recordIndex++, values);
+    }
+
+    /**
+     * 读取当前对象中已映射的字段
+     *
+     * @param jsonParser 位于START_OBJECT处的解析器
+     * @param node 当前对象对应的路径节点
+     * @param values 字段值
+     */
+    private void readObject(JsonParser jsonParser, PathNode node, Object[] values) throws IOException {
+        while (jsonParser.nextToken() == JsonToken.FIELD_NAME) {
+            PathNode child = node.children.get(jsonParser.getCurrentName());
+            JsonToken token = jsonParser.nextToken();
+            if (child == null) {
+                jsonParser.skipChildren();
+            } else if (token == JsonToken.START_OBJECT && child.index < 0) {
+                readObject(jsonParser, child, values);
+            } else if (child.index < 0) {
+                // 中间节点的值不是对象（数组或标量），其下映射的字段保持为空
+                jsonParser.skipChildren();
+            } else if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                JsonNode tree = jsonParser.readValueAsTree();
+                values[child.index] = tree.toString();
+                if (token == JsonToken.START_OBJECT && !child.children.isEmpty()) {
+                    // 对象本身和其中的字段都被映射
+                    try (JsonParser treeParser = tree.traverse(MAPPER)) {
+                        treeParser.nextToken();
+                        readObject(treeParser, child, values);
+                    }
+                }
+            } else {
+                values[child.index] = scalarValue(jsonParser, token);
+            }
+        }
+    }
+
+    /**
+     * 转换标量值：整数为Long（超出范围时为BigDecimal），小数为BigDecimal（保留原始精度）
+     *
+     * @param jsonParser 解析器
+     * @param token 当前token
+     * @return 字段值
+     */
+    private static Object scalarValue(JsonParser jsonParser, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_STRING:
+                return jsonParser.getText();
+            case VALUE_NUMBER_INT:
+                if (jsonParser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                    return new BigDecimal(jsonParser.getBigIntegerValue());
+                }
+                return jsonParser.getLongValue();
+            case VALUE_NUMBER_FLOAT:
+                return jsonParser.getDecimalValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 收集记录中的叶子字段路径（非空对象继续展开，标量、数组和空对象作为叶子）
+     *
+     * @param node JSON节点
+     * @param prefix 路径前缀
+     * @param paths 字段路径
+     */
+    private static void collectLeafPaths(JsonNode node, String prefix, List<String> paths) {
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String path = prefix + field.getKey();
+            if (field.getValue().isObject() && field.getValue().size() > 0) {
+                collectLeafPaths(field.getValue(), path + ".", paths);
+            } else {
+                paths.add(path);
+            }
+        }
+    }
+
+    /**
+     * 将字段路径组织为按字段名逐级查找的树，叶子节点记录字段在行中的位置
+     *
+     * @param paths 字段路径
+     */
+    private void buildPathTree(List<String> paths) {
+        root = new PathNode();
+        for (int i = 0; i < paths.size(); i++) {
+            PathNode node = root;
+            for (String name : paths.get(i).split("\\.")) {
+                node = node.children.computeIfAbsent(name, key -> new PathNode());
+            }
+            node.index = i;
+        }
+        fieldCount = paths.size();
+    }
+
+    @Override
+    public String getName() {
+        return jsonFile.getName();
+    }
+
+    @Override
+    public SourceType getType() {
+        return SourceType.JSON;
+    }
+
+    /**
+     * 获取表头行（字段路径）
+     *
+     * @return 表头行，行号为-1
+     */
+    @Override
+    public SheetRow getHeaderRow() {
+        if (parser == null) {
+            throw new IllegalStateException("数据源未打开");
+        }
+        return headerRow;
+    }
+
+    /**
+     * 字段路径树节点
+     */
+    private static class PathNode {
+
+        private final Map<String, PathNode> children = new HashMap<>();
+        private int index = -1;
+    }
+}
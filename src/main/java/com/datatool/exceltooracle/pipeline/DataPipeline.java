@@ -1,5 +1,6 @@
 package com.datatool.exceltooracle.pipeline;
 
+import com.datatool.exceltooracle.core.ColumnarBatch;
 import com.datatool.exceltooracle.core.DataProcessor;
 import com.datatool.exceltooracle.core.DataSource;
 import com.datatool.exceltooracle.core.DataTarget;
@@ -7,10 +8,29 @@ import com.datatool.exceltooracle.core.ProcessContext;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntFunction;
 
 /**
  * 数据处理管道
@@ -22,6 +42,11 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Slf4j
 public class DataPipeline<S, T> {
     
+    /**
+     * 阶段之间队列的结束标记
+     */
+    private static final List<Object> END_OF_STREAM = new ArrayList<>(0);
+    
     private final DataSource<S> source;
     private final DataTarget<T> target;
     private final List<DataProcessor<?, ?>> processors = new ArrayList<>();
@@ -29,6 +54,12 @@ public class DataPipeline<S, T> {
     
     private int batchSize = 1000;
     private boolean stopOnError = false;
+    private boolean staged = false;
+    private int queueCapacity = 2;
+    private int parallelism = 1;
+    private boolean preserveOrder = true;
+    private boolean virtualThreads = false;
+    private IntFunction<List<T>> batchFactory = ArrayList::new;
     private PipelineListener<S, T> listener;
     
     /**
@@ -86,22 +117,90 @@ public class DataPipeline<S, T> {
         return this;
     }
     
+    /**
+     * 设置是否使用分阶段（流水线）方式执行
+     * 开启后读取、处理、写入分别运行在不同线程上，通过有界队列衔接，
+     * 解析下一批数据的同时写入上一批数据。
+     * 注意：开启后监听器的批处理完成事件在写入线程上回调。
+     * 
+     * @param staged 是否分阶段执行
+     * @return 当前管道实例 (链式调用)
+     */
+    public DataPipeline<S, T> setStaged(boolean staged) {
+        this.staged = staged;
+        return this;
+    }
+    
+    /**
+     * 设置分阶段执行时各阶段之间队列的容量（以批为单位）
+     * 
+     * @param queueCapacity 队列容量
+     * @return 当前管道实例 (链式调用)
+     */
+    public DataPipeline<S, T> setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = Math.max(1, queueCapacity);
+        return this;
+    }
+    
+    /**
+     * 设置执行处理链的工作线程数
+     * 大于1时处理链在工作线程池中并行执行（自动使用分阶段方式），同时执行的任务各使用一个处理上下文。
+     * 注意：并行执行时处理器和监听器的记录事件会被多个线程同时调用，需要保证线程安全。
+     * 
+     * @param parallelism 工作线程数
+     * @return 当前管道实例 (链式调用)
+     */
+    public DataPipeline<S, T> setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+    
+    /**
+     * 设置并行执行时是否保持源数据顺序
+     * 不保持顺序时按完成顺序输出，吞吐量更高，适合普通插入
+     * 
+     * @param preserveOrder 是否保持顺序
+     * @return 当前管道实例 (链式调用)
+     */
+    public DataPipeline<S, T> setPreserveOrder(boolean preserveOrder) {
+        this.preserveOrder = preserveOrder;
+        return this;
+    }
+    
+    /**
+     * 设置并行执行时是否使用虚拟线程（需要JDK 21+，不支持时自动使用平台线程）
+     * 
+     * @param virtualThreads 是否使用虚拟线程
+     * @return 当前管道实例 (链式调用)
+     */
+    public DataPipeline<S, T> setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        return this;
+    }
+    
+    /**
+     * 设置批次容器的创建方法（默认为ArrayList），例如使用按列存储的批数据
+     * 
+     * @param batchFactory 批次容器的创建方法，参数为批处理大小
+     * @return 当前管道实例 (链式调用)
+     */
+    public DataPipeline<S, T> setBatchFactory(IntFunction<List<T>> batchFactory) {
+        this.batchFactory = batchFactory;
+        return this;
+    }
+    
     /**
      * 执行数据处理
      * 
      * @return 处理结果
      * @throws IOException 如果处理过程中出现IO错误
      */
-    @SuppressWarnings("unchecked")
     public PipelineResult execute() throws IOException {
         if (processors.isEmpty()) {
             throw new IllegalStateException("没有配置数据处理器");
         }
         
-        AtomicInteger total = new AtomicInteger(0);
-        AtomicInteger success = new AtomicInteger(0);
-        AtomicInteger failure = new AtomicInteger(0);
-        List<ErrorRecord<S>> errorRecords = new ArrayList<>();
+        ExecutionState<S> state = new ExecutionState<>();
         
         try {
             // 打开数据源和目标
@@ -112,112 +211,537 @@ public class DataPipeline<S, T> {
                 listener.onPipelineStart(source, target);
             }
             
-            List<T> batch = new ArrayList<>(batchSize);
+            if (staged || parallelism > 1) {
+                executeStaged(state);
+            } else {
+                executeSequential(state);
+            }
+            
+            // 等待数据目标完成所有写入
+            target.flush();
             
-            // 处理数据
-            Iterator<S> iterator = source.iterator();
-            while (iterator.hasNext()) {
-                S sourceData = iterator.next();
-                total.incrementAndGet();
+            // 类型转换以配构造函数参数
+            List<ErrorRecord<?>> typedErrorRecords = new ArrayList<>(state.errorRecords);
+            return new PipelineResult(state.total.get(), state.success.get(), state.failure.get(), typedErrorRecords);
+        } finally {
+            try {
+                source.close();
+            } catch (Exception e) {
+                log.error("关闭数据源时出错: {}", e.getMessage(), e);
+            }
+            
+            try {
+                target.close();
+            } catch (Exception e) {
+                log.error("关闭数据目标时出错: {}", e.getMessage(), e);
+            }
+            
+            if (listener != null) {
+                listener.onPipelineComplete(state.total.get(), state.success.get(), state.failure.get());
+            }
+        }
+    }
+    
+    /**
+     * 单线程顺序执行：读取、处理、写入依次进行
+     * 
+     * @param state 执行状态
+     * @throws IOException 如果写入失败
+     */
+    private void executeSequential(ExecutionState<S> state) throws IOException {
+        List<T> batch = batchFactory.apply(batchSize);
+        
+        // 处理数据
+        Iterator<S> iterator = source.iterator();
+        while (!state.stopped && iterator.hasNext()) {
+            T data = processRecord(iterator.next(), context, state);
+            if (data == null) {
+                continue;
+            }
+            
+            batch.add(data);
+            
+            // 达到批处理大小，执行写入
+            if (batch.size() >= batchSize) {
+                int size = batch.size();
+                target.write(batch);
+                // 批次交给数据目标后不再复用
+                batch = batchFactory.apply(batchSize);
                 
-                try {
-                    if (listener != null) {
-                        listener.onRecordStart(sourceData);
-                    }
-                    
-                    // 执行处理链
-                    Object data = sourceData;
-                    for (DataProcessor<?, ?> processor : processors) {
-                        if (context.isAborted()) {
-                            break;
-                        }
-                        
-                        data = ((DataProcessor<Object, Object>) processor).process(data, context);
-                        
-                        if (data == null) {
-                            break;
-                        }
-                    }
-                    
-                    // 如果处理链执行完毕且未中止，将数据添加到批处理中
-                    if (data != null && !context.isAborted()) {
-                        batch.add((T) data);
-                        success.incrementAndGet();
-                        
-                        if (listener != null) {
-                            listener.onRecordSuccess(sourceData, (T) data);
-                        }
-                        
-                        // 达到批处理大小，执行写入
-                        if (batch.size() >= batchSize) {
-                            target.write(batch);
-                            batch.clear();
-                            
-                            if (listener != null) {
-                                listener.onBatchComplete(batch.size());
-                            }
-                        }
-                    } else if (context.isAborted()) {
-                        // 处理被中止
-                        failure.incrementAndGet();
-                        errorRecords.add(new ErrorRecord<>(sourceData, context.getAbortReason()));
-                        
-                        if (listener != null) {
-                            listener.onRecordError(sourceData, context.getAbortReason());
-                        }
-                        
-                        context.clear();
-                        
-                        if (stopOnError) {
-                            log.error("数据处理被中止: {}", context.getAbortReason());
-                            break;
-                        }
-                    }
-                } catch (Exception e) {
-                    failure.incrementAndGet();
-                    errorRecords.add(new ErrorRecord<>(sourceData, e.getMessage()));
-                    
-                    if (listener != null) {
-                        listener.onRecordError(sourceData, e.getMessage());
+                if (listener != null) {
+                    listener.onBatchComplete(size);
+                }
+            }
+        }
+        
+        // 处理剩余的批数据
+        if (!batch.isEmpty()) {
+            target.write(batch);
+            
+            if (listener != null) {
+                listener.onBatchComplete(batch.size());
+            }
+        }
+    }
+    
+    /**
+     * 分阶段执行：读取线程 -> 有界队列 -> 处理（当前线程或工作线程池）-> 有界队列 -> 写入线程
+     * 
+     * @param state 执行状态
+     * @throws IOException 如果读取或写入失败
+     */
+    private void executeStaged(ExecutionState<S> state) throws IOException {
+        BlockingQueue<List<S>> readQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<List<T>> writeQueue = new ArrayBlockingQueue<>(queueCapacity);
+        ExecutorService stages = Executors.newFixedThreadPool(2, new StageThreadFactory("stage"));
+        
+        Future<?> reader = stages.submit(() -> readStage(readQueue, state));
+        Future<?> writer = stages.submit(() -> writeStage(writeQueue, state));
+        
+        try {
+            BatchAssembler assembler = new BatchAssembler(writeQueue, writer);
+            if (parallelism > 1) {
+                transformParallel(readQueue, assembler, state);
+            } else {
+                while (!state.stopped) {
+                    List<S> chunk = readQueue.poll(100, TimeUnit.MILLISECONDS);
+                    if (chunk == null) {
+                        continue;
                     }
-                    
-                    log.error("处理数据时出错: {}", e.getMessage(), e);
-                    
-                    if (stopOnError) {
+                    if (chunk == END_OF_STREAM) {
                         break;
                     }
+                    assembler.addAll(processChunk(chunk, context, state));
                 }
             }
             
             // 处理剩余的批数据
-            if (!batch.isEmpty()) {
+            if (state.stageError.get() == null) {
+                assembler.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            state.fail(e);
+        } finally {
+            // 通知读取线程停止、写入线程写完剩余批次，等待两者结束后再关闭数据源和目标
+            state.stopped = true;
+            try {
+                offer(writeQueue, endOfStream(), writer::isDone);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                writer.cancel(true);
+            }
+            awaitStage(writer, state);
+            awaitStage(reader, state);
+            stages.shutdownNow();
+        }
+        
+        Throwable error = state.stageError.get();
+        if (error != null) {
+            if (error instanceof IOException) {
+                throw (IOException) error;
+            } else if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            }
+            throw new IOException("管道执行失败: " + error.getMessage(), error);
+        }
+    }
+    
+    /**
+     * 使用工作线程池并行执行处理链
+     * 每个任务处理读取阶段产生的一批源数据，按配置保持源数据顺序或按完成顺序输出。
+     * 处理上下文放在容量为在途任务上限的池中，任务开始时取出、结束时归还，
+     * 同时执行的任务各用一个上下文，使用虚拟线程时也不会为每批数据新建上下文
+     * 
+     * @param readQueue 读取队列
+     * @param assembler 批数据组装器
+     * @param state 执行状态
+     */
+    private void transformParallel(BlockingQueue<List<S>> readQueue, BatchAssembler assembler,
+                                   ExecutionState<S> state) throws InterruptedException {
+        ExecutorService workers = createWorkerPool();
+        CompletionService<List<T>> completionService = new ExecutorCompletionService<>(workers);
+        Deque<Future<List<T>>> inFlight = new ArrayDeque<>();
+        int maxInFlight = parallelism * 2;
+        BlockingQueue<ProcessContext> contexts = new ArrayBlockingQueue<>(maxInFlight);
+        
+        try {
+            while (!state.stopped) {
+                List<S> chunk = readQueue.poll(100, TimeUnit.MILLISECONDS);
+                if (chunk != null && chunk == END_OF_STREAM) {
+                    break;
+                }
+                
+                if (chunk != null) {
+                    Callable<List<T>> task = () -> {
+                        ProcessContext workerContext = contexts.poll();
+                        if (workerContext == null) {
+                            workerContext = new ProcessContext();
+                        }
+                        try {
+                            return processChunk(chunk, workerContext, state);
+                        } finally {
+                            contexts.offer(workerContext);
+                        }
+                    };
+                    inFlight.addLast(preserveOrder ? workers.submit(task) : completionService.submit(task));
+                }
+                
+                // 在途任务达到上限时阻塞等待，否则只收集已完成的结果
+                collectResults(inFlight, completionService, assembler, inFlight.size() >= maxInFlight, state);
+            }
+            
+            while (!inFlight.isEmpty() && state.stageError.get() == null) {
+                collectResults(inFlight, completionService, assembler, true, state);
+            }
+        } finally {
+            workers.shutdown();
+            if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                workers.shutdownNow();
+            }
+        }
+    }
+    
+    /**
+     * 收集工作线程的处理结果
+     * 
+     * @param inFlight 在途任务
+     * @param completionService 完成顺序服务（不保持顺序时使用）
+     * @param assembler 批数据组装器
+     * @param block 是否阻塞等待至少一个结果
+     * @param state 执行状态
+     */
+    private void collectResults(Deque<Future<List<T>>> inFlight, CompletionService<List<T>> completionService,
+                                BatchAssembler assembler, boolean block,
+                                ExecutionState<S> state) throws InterruptedException {
+        while (!inFlight.isEmpty()) {
+            Future<List<T>> done;
+            if (preserveOrder) {
+                // 保持顺序：只能按提交顺序取队首任务的结果
+                if (!block && !inFlight.peekFirst().isDone()) {
+                    return;
+                }
+                done = inFlight.pollFirst();
+            } else {
+                done = block ? completionService.take() : completionService.poll();
+                if (done == null) {
+                    return;
+                }
+                inFlight.remove(done);
+            }
+            
+            try {
+                assembler.addAll(done.get());
+            } catch (ExecutionException e) {
+                state.fail(e.getCause());
+                return;
+            }
+            block = false;
+        }
+    }
+    
+    /**
+     * 创建执行处理链的工作线程池
+     * 
+     * @return 工作线程池
+     */
+    private ExecutorService createWorkerPool() {
+        if (virtualThreads) {
+            try {
+                // 虚拟线程需要JDK 21+，通过反射调用以兼容较低版本的编译目标
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.warn("当前JDK不支持虚拟线程，改用平台线程执行处理链");
+            }
+        }
+        return Executors.newFixedThreadPool(parallelism, new StageThreadFactory("worker"));
+    }
+    
+    /**
+     * 对一批源数据执行处理链
+     * 
+     * @param chunk 源数据
+     * @param context 处理上下文
+     * @param state 执行状态
+     * @return 处理成功的数据
+     */
+    private List<T> processChunk(List<S> chunk, ProcessContext context, ExecutionState<S> state) {
+        // 使用批次容器保存结果，按列存储时处理结果在加入时即被复制
+        List<T> results = batchFactory.apply(chunk.size());
+        for (S sourceData : chunk) {
+            if (state.stopped) {
+                break;
+            }
+            
+            T data = processRecord(sourceData, context, state);
+            if (data != null) {
+                results.add(data);
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * 读取阶段：从数据源读取数据，按批放入读取队列
+     * 
+     * @param readQueue 读取队列
+     * @param state 执行状态
+     */
+    private void readStage(BlockingQueue<List<S>> readQueue, ExecutionState<S> state) {
+        try {
+            List<S> chunk = new ArrayList<>(batchSize);
+            Iterator<S> iterator = source.iterator();
+            while (!state.stopped && iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() >= batchSize) {
+                    offer(readQueue, chunk, () -> state.stopped);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                offer(readQueue, chunk, () -> state.stopped);
+            }
+            offer(readQueue, endOfStream(), () -> state.stopped);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            log.error("读取数据时出错: {}", e.getMessage(), e);
+            state.fail(e);
+        }
+    }
+    
+    /**
+     * 写入阶段：从写入队列取出批数据写入数据目标
+     * 
+     * @param writeQueue 写入队列
+     * @param state 执行状态
+     */
+    private void writeStage(BlockingQueue<List<T>> writeQueue, ExecutionState<S> state) {
+        try {
+            while (true) {
+                List<T> batch = writeQueue.take();
+                if (batch == END_OF_STREAM) {
+                    break;
+                }
+                
                 target.write(batch);
                 
                 if (listener != null) {
                     listener.onBatchComplete(batch.size());
                 }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            log.error("写入数据时出错: {}", e.getMessage(), e);
+            state.fail(e);
+        }
+    }
+    
+    /**
+     * 放入队列；如果等待期间处理已取消（例如消费方出错结束）则放弃
+     * 
+     * @param queue 队列
+     * @param item 数据
+     * @param cancelled 是否已取消
+     * @return 是否成功放入
+     */
+    private static <E> boolean offer(BlockingQueue<E> queue, E item, BooleanSupplier cancelled)
+            throws InterruptedException {
+        while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+            if (cancelled.getAsBoolean()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 等待阶段线程结束
+     * 
+     * @param stage 阶段任务
+     * @param state 执行状态
+     */
+    private void awaitStage(Future<?> stage, ExecutionState<S> state) {
+        try {
+            stage.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stage.cancel(true);
+            state.fail(e);
+        } catch (CancellationException e) {
+            // 已取消，忽略
+        } catch (ExecutionException e) {
+            state.fail(e.getCause());
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <E> List<E> endOfStream() {
+        return (List<E>) END_OF_STREAM;
+    }
+    
+    /**
+     * 对单条记录执行处理链
+     * 
+     * @param sourceData 源数据
+     * @param context 处理上下文
+     * @param state 执行状态
+     * @return 处理后的数据，如果被过滤、中止或出错则返回null
+     */
+    @SuppressWarnings("unchecked")
+    private T processRecord(S sourceData, ProcessContext context, ExecutionState<S> state) {
+        state.total.incrementAndGet();
+        
+        try {
+            if (listener != null) {
+                listener.onRecordStart(sourceData);
+            }
             
-            // 类型转换以配构造函数参数
-            List<ErrorRecord<?>> typedErrorRecords = new ArrayList<>(errorRecords);
-            return new PipelineResult(total.get(), success.get(), failure.get(), typedErrorRecords);
-        } finally {
-            try {
-                source.close();
-            } catch (Exception e) {
-                log.error("关闭数据源时出错: {}", e.getMessage(), e);
+            // 执行处理链
+            Object data = sourceData;
+            for (DataProcessor<?, ?> processor : processors) {
+                if (context.isAborted()) {
+                    break;
+                }
+                
+                data = ((DataProcessor<Object, Object>) processor).process(data, context);
+                
+                if (data == null) {
+                    break;
+                }
             }
             
-            try {
-                target.close();
-            } catch (Exception e) {
-                log.error("关闭数据目标时出错: {}", e.getMessage(), e);
+            // 如果处理链执行完毕且未中止，返回处理结果
+            if (data != null && !context.isAborted()) {
+                state.success.incrementAndGet();
+                
+                if (listener != null) {
+                    listener.onRecordSuccess(sourceData, (T) data);
+                }
+                return (T) data;
+            } else if (context.isAborted()) {
+                // 处理被中止
+                String abortReason = context.getAbortReason();
+                state.failure.incrementAndGet();
+                state.errorRecords.add(new ErrorRecord<>(sourceData, abortReason));
+                
+                if (listener != null) {
+                    listener.onRecordError(sourceData, abortReason);
+                }
+                
+                context.clear();
+                
+                if (stopOnError) {
+                    log.error("数据处理被中止: {}", abortReason);
+                    state.stopped = true;
+                }
             }
+        } catch (Exception e) {
+            state.failure.incrementAndGet();
+            state.errorRecords.add(new ErrorRecord<>(sourceData, e.getMessage()));
             
             if (listener != null) {
-                listener.onPipelineComplete(total.get(), success.get(), failure.get());
+                listener.onRecordError(sourceData, e.getMessage());
+            }
+            
+            log.error("处理数据时出错: {}", e.getMessage(), e);
+            
+            if (stopOnError) {
+                state.stopped = true;
             }
         }
+        return null;
+    }
+    
+    /**
+     * 管道执行状态
+     * 
+     * @param <S> 源数据类型
+     */
+    private static class ExecutionState<S> {
+        private final AtomicInteger total = new AtomicInteger(0);
+        private final AtomicInteger success = new AtomicInteger(0);
+        private final AtomicInteger failure = new AtomicInteger(0);
+        private final List<ErrorRecord<S>> errorRecords = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicReference<Throwable> stageError = new AtomicReference<>();
+        private volatile boolean stopped = false;
+        
+        /**
+         * 记录阶段异常并停止处理
+         * 
+         * @param error 异常
+         */
+        private void fail(Throwable error) {
+            stageError.compareAndSet(null, error);
+            stopped = true;
+        }
+    }
+    
+    /**
+     * 批数据组装器
+     * 把处理结果凑成批处理大小后交给写入线程
+     */
+    private class BatchAssembler {
+        private final BlockingQueue<List<T>> writeQueue;
+        private final Future<?> writer;
+        private List<T> batch = batchFactory.apply(batchSize);
+        
+        private BatchAssembler(BlockingQueue<List<T>> writeQueue, Future<?> writer) {
+            this.writeQueue = writeQueue;
+            this.writer = writer;
+        }
+        
+        private void addAll(List<T> data) throws InterruptedException {
+            if (data instanceof ColumnarBatch && batch instanceof ColumnarBatch) {
+                // 按列复制，不组装行记录
+                ColumnarBatch source = (ColumnarBatch) data;
+                for (int row = 0; row < source.size(); row++) {
+                    ((ColumnarBatch) batch).copyRow(source, row);
+                    if (batch.size() >= batchSize) {
+                        flush();
+                    }
+                }
+                return;
+            }
+            for (T item : data) {
+                batch.add(item);
+                
+                // 达到批处理大小，交给写入线程，当前线程继续处理下一批
+                if (batch.size() >= batchSize) {
+                    flush();
+                }
+            }
+        }
+        
+        private void flush() throws InterruptedException {
+            if (!batch.isEmpty()) {
+                offer(writeQueue, batch, writer::isDone);
+                batch = batchFactory.apply(batchSize);
+            }
+        }
+    }
+    
+    /**
+     * 阶段线程工厂
+     */
+    private static class StageThreadFactory implements ThreadFactory {
+        private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+        private final int poolNumber = POOL_NUMBER.getAndIncrement();
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+        private final String role;
+        
+        private StageThreadFactory(String role) {
+            this.role = role;
+        }
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "pipeline-" + poolNumber + "-" + role + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
     
     /**
@@ -2,6 +2,8 @@ package com.datatool.exceltooracle.processor;
 
 import com.datatool.exceltooracle.core.DataProcessor;
 import com.datatool.exceltooracle.core.ProcessContext;
+import com.datatool.exceltooracle.core.RowRecord;
+import com.datatool.exceltooracle.excel.CompiledRowMapper;
 import com.datatool.exceltooracle.excel.ExcelFieldMapper;
 import org.apache.poi.ss.usermodel.Row;
 
@@ -12,8 +14,7 @@ import java.util.Map;
  */
 public class ExcelRowToMapProcessor implements DataProcessor<Row, Map<String, Object>> {
     
-    private final ExcelFieldMapper fieldMapper;
-    private final Map<String, Integer> columnIndexMap;
+    private final CompiledRowMapper rowMapper;
     private final int dataStartRowNum;
     
     /**
@@ -26,8 +27,7 @@ public class ExcelRowToMapProcessor implements DataProcessor<Row, Map<String, Ob
     public ExcelRowToMapProcessor(ExcelFieldMapper fieldMapper, 
                                   Map<String, Integer> columnIndexMap,
                                   int dataStartRowNum) {
-        this.fieldMapper = fieldMapper;
-        this.columnIndexMap = columnIndexMap;
+        this.rowMapper = fieldMapper.compile(columnIndexMap);
         this.dataStartRowNum = dataStartRowNum;
     }
     
@@ -38,7 +38,25 @@ public class ExcelRowToMapProcessor implements DataProcessor<Row, Map<String, Ob
             return null;
         }
         
-        return fieldMapper.extractData(row, columnIndexMap);
+        return rowMapper.map(row, context);
+    }
+    
+    /**
+     * 设置是否复用行记录（批次容器在加入时复制值时使用）
+     * 
+     * @param reuseRecord 是否复用行记录
+     */
+    public void setReuseRecord(boolean reuseRecord) {
+        rowMapper.setReuseRecord(reuseRecord);
+    }
+    
+    /**
+     * 获取输出行记录的字段结构
+     * 
+     * @return 字段结构
+     */
+    public RowRecord.Schema getSchema() {
+        return rowMapper.getSchema();
     }
     
     @Override
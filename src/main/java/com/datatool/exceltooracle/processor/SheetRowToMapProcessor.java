@@ -0,0 +1,71 @@
+package com.datatool.exceltooracle.processor;
+
+import com.datatool.exceltooracle.core.DataProcessor;
+import com.datatool.exceltooracle.core.ProcessContext;
+import com.datatool.exceltooracle.core.RowRecord;
+import com.datatool.exceltooracle.excel.CompiledRowMapper;
+import com.datatool.exceltooracle.excel.ExcelFieldMapper;
+import com.datatool.exceltooracle.excel.SheetRow;
+
+import java.util.Map;
+
+/**
+ * 流式行数据转Map处理器
+ */
+public class SheetRowToMapProcessor implements DataProcessor<SheetRow, Map<String, Object>> {
+
+    private final CompiledRowMapper rowMapper;
+    private final int dataStartRowNum;
+
+    /**
+     * 构造流式行数据转Map处理器
+     *
+     * @param fieldMapper 字段映射器
+     * @param columnIndexMap 列索引映射
+     * @param dataStartRowNum 数据起始行号
+     */
+    public SheetRowToMapProcessor(ExcelFieldMapper fieldMapper,
+                                  Map<String, Integer> columnIndexMap,
+                                  int dataStartRowNum) {
+        this.rowMapper = fieldMapper.compile(columnIndexMap);
+        this.dataStartRowNum = dataStartRowNum;
+    }
+
+    @Override
+    public Map<String, Object> process(SheetRow row, ProcessContext context) throws Exception {
+        // 只处理表头行后面的数据行
+        if (row.getRowNum() < dataStartRowNum) {
+            return null;
+        }
+
+        return rowMapper.map(row, context);
+    }
+
+    /**
+     * 设置是否复用行记录（批次容器在加入时复制值时使用）
+     * 
+     * @param reuseRecord 是否复用行记录
+     */
+    public void setReuseRecord(boolean reuseRecord) {
+        rowMapper.setReuseRecord(reuseRecord);
+    }
+    
+    /**
+     * 获取输出行记录的字段结构
+     * 
+     * @return 字段结构
+     */
+    public RowRecord.Schema getSchema() {
+        return rowMapper.getSchema();
+    }
+    
+    @Override
+    public String getName() {
+        return "SheetRowToMapProcessor";
+    }
+
+    @Override
+    public String getDescription() {
+        return "将流式读取的行数据转换为字段-值映射";
+    }
+}
@@ -5,6 +5,7 @@ import com.datatool.exceltooracle.dto.ImportResponse;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Excel导入服务接口
@@ -21,11 +22,56 @@ public interface ExcelImportService {
      */
     ImportResponse importExcel(MultipartFile file, ImportRequest request) throws IOException;
     
+    /**
+     * 提交异步导入任务
+     * 文件保存后立即返回任务ID，导入在后台线程池中执行，进度通过{@link #getImportResult(String)}查询
+     * 
+     * @param file Excel文件
+     * @param request 导入请求参数
+     * @return 任务信息（排队中），目标表校验未通过时返回失败响应
+     * @throws IOException 如果保存上传文件时出现IO错误
+     * @throws org.springframework.core.task.TaskRejectedException 如果导入任务队列已满
+     */
+    ImportResponse submitImport(MultipartFile file, ImportRequest request) throws IOException;
+    
+    /**
+     * 提交异步导入任务，文件内容直接从请求体读取，不经过multipart解析
+     * 
+     * @param inputStream 文件内容
+     * @param fileName 原文件名（用于识别文件格式）
+     * @param request 导入请求参数
+     * @return 任务信息（排队中），目标表校验未通过或文件为空时返回失败响应
+     * @throws IOException 如果保存文件时出现IO错误或文件超过大小限制
+     * @throws org.springframework.core.task.TaskRejectedException 如果导入任务队列已满
+     */
+    ImportResponse submitImport(InputStream inputStream, String fileName, ImportRequest request) throws IOException;
+    
+    /**
+     * 提交从数据库表导入的异步任务，源表通过{@link ImportRequest#getSourceTable()}指定
+     * 
+     * @param request 导入请求参数
+     * @return 任务信息（排队中），源表或目标表校验未通过时返回失败响应
+     * @throws org.springframework.core.task.TaskRejectedException 如果导入任务队列已满
+     */
+    ImportResponse submitDatabaseImport(ImportRequest request);
+    
     /**
      * 根据任务ID查询导入结果
      * 
      * @param taskId 任务ID
+     * @param errorPage 错误明细页码（从0开始）
+     * @param errorPageSize 每页错误明细条数
+     * @return 导入结果，任务执行中时返回实时进度，任务结束后返回结果摘要和一页错误明细
+     */
+    ImportResponse getImportResult(String taskId, int errorPage, int errorPageSize);
+    
+    /**
+     * 根据任务ID查询导入结果，错误明细返回第一页
+     * 
+     * @param taskId 任务ID
      * @return 导入结果
      */
-    ImportResponse getImportResult(String taskId);
+    default ImportResponse getImportResult(String taskId) {
+        return getImportResult(taskId, 0, 100);
+    }
 } 
\ No newline at end of file
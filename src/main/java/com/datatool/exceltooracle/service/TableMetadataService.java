@@ -23,4 +23,14 @@ public interface TableMetadataService {
      * @return 是否存在
      */
     boolean tableExists(String tableName);
-} 
\ No newline at end of file
+    
+    /**
+     * 确保表对应的暂存表存在
+     * 暂存表为会话级全局临时表（提交时清空），结构与原表相同但不带非空约束，另有一列记录暂存顺序；
+     * 已有的暂存表与原表列结构不一致时重新创建
+     * 
+     * @param tableName 表名
+     * @return 暂存表名
+     */
+    String ensureStagingTable(String tableName);
+}
@@ -0,0 +1,122 @@
+package com.datatool.exceltooracle.service.impl;
+
+import com.datatool.exceltooracle.dto.TableStructureDTO;
+import com.datatool.exceltooracle.service.TableMetadataService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 带缓存的表元数据服务
+ * 表结构按表名缓存，超过有效期或缓存数量上限时重新从数据库加载
+ */
+@Service
+@Primary
+@Slf4j
+public class CachingTableMetadataService implements TableMetadataService {
+    
+    private final TableMetadataServiceImpl delegate;
+    private final long ttlMillis;
+    private final Map<String, CacheEntry> cache;
+    
+    /**
+     * 构造带缓存的表元数据服务
+     * 
+     * @param delegate 实际查询数据库的元数据服务
+     * @param ttlSeconds 缓存有效期（秒）
+     * @param maxSize 最多缓存的表数量
+     */
+    public CachingTableMetadataService(TableMetadataServiceImpl delegate,
+                                       @Value("${excel-to-oracle.metadata-cache.ttl-seconds:300}") long ttlSeconds,
+                                       @Value("${excel-to-oracle.metadata-cache.max-size:200}") int maxSize) {
+        this.delegate = delegate;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        // 按访问顺序排列，超过上限时淘汰最久未使用的表
+        this.cache = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+    
+    @Override
+    public TableStructureDTO getTableStructure(String tableName) {
+        String key = tableName.toUpperCase();
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            CacheEntry entry = cache.get(key);
+            if (entry != null && entry.expireAt > now) {
+                log.debug("表结构缓存命中: {}", tableName);
+                return entry.structure;
+            }
+        }
+        
+        TableStructureDTO structure = delegate.getTableStructure(tableName);
+        // 只缓存成功获取的表结构，表不存在或查询失败时下次重新查询
+        if (structure.isExists()) {
+            synchronized (cache) {
+                cache.put(key, new CacheEntry(structure, now + ttlMillis));
+            }
+        }
+        return structure;
+    }
+    
+    @Override
+    public boolean tableExists(String tableName) {
+        // 与表结构共用一次查询，随后的getTableStructure直接命中缓存
+        return getTableStructure(tableName).isExists();
+    }
+    
+    @Override
+    public String ensureStagingTable(String tableName) {
+        return delegate.ensureStagingTable(tableName);
+    }
+    
+    /**
+     * 使指定表的缓存失效
+     * 
+     * @param tableName 表名
+     * @return 是否存在该表的缓存
+     */
+    public boolean invalidate(String tableName) {
+        synchronized (cache) {
+            boolean removed = cache.remove(tableName.toUpperCase()) != null;
+            log.info("清除表结构缓存: {}, 是否存在: {}", tableName, removed);
+            return removed;
+        }
+    }
+    
+    /**
+     * 清空所有缓存
+     * 
+     * @return 清除的缓存数量
+     */
+    public int invalidateAll() {
+        synchronized (cache) {
+            int size = cache.size();
+            cache.clear();
+            log.info("清空表结构缓存，共 {} 个表", size);
+            return size;
+        }
+    }
+    
+    /**
+     * 缓存项
+     */
+    private static class CacheEntry {
+        
+        private final TableStructureDTO structure;
+        private final long expireAt;
+        
+        CacheEntry(TableStructureDTO structure, long expireAt) {
+            this.structure = structure;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -1,32 +1,75 @@
-package com.datatool.exceltooracle.service.impl;import com.datatool.exceltooracle.core.DataValidator;import com.datatool.exceltooracle.core.ValueGenerator;import com.datatool.exceltooracle.core.ValueGeneratorRegistry;import com.datatool.exceltooracle.db.OracleDataTarget;
+package com.datatool.exceltooracle.service.impl;
+
+import com.datatool.exceltooracle.config.SourceDataSourceProvider;
+import com.datatool.exceltooracle.core.ColumnarBatch;
+import com.datatool.exceltooracle.core.DataProcessor;
+import com.datatool.exceltooracle.core.DataSource;
+import com.datatool.exceltooracle.core.DataTarget;
+import com.datatool.exceltooracle.core.DataValidator;
+import com.datatool.exceltooracle.core.RowRecord;
+import com.datatool.exceltooracle.core.ValueGenerator;
+import com.datatool.exceltooracle.core.ValueGeneratorRegistry;
+import com.datatool.exceltooracle.csv.CsvDataSource;
+import com.datatool.exceltooracle.csv.ParallelCsvDataSource;
+import com.datatool.exceltooracle.db.JdbcDataSource;
+import com.datatool.exceltooracle.db.OracleDataTarget;
+import com.datatool.exceltooracle.db.ParallelJdbcDataSource;
+import com.datatool.exceltooracle.db.ParallelOracleDataTarget;
+import com.datatool.exceltooracle.db.WriteMode;
 import com.datatool.exceltooracle.dto.ImportRequest;
 import com.datatool.exceltooracle.dto.ImportResponse;
+import com.datatool.exceltooracle.dto.ImportResponse.ErrorRecord;
+import com.datatool.exceltooracle.dto.ImportResponse.SheetResult;
+import com.datatool.exceltooracle.dto.ImportResponse.TaskStatus;
 import com.datatool.exceltooracle.dto.TableColumnDTO;
 import com.datatool.exceltooracle.dto.TableStructureDTO;
-import com.datatool.exceltooracle.dto.ImportResponse.ErrorRecord;
 import com.datatool.exceltooracle.excel.ExcelDataSource;
 import com.datatool.exceltooracle.excel.ExcelFieldMapper;
+import com.datatool.exceltooracle.excel.HssfEventDataSource;
+import com.datatool.exceltooracle.excel.SharedXlsxWorkbook;
+import com.datatool.exceltooracle.excel.SheetRow;
+import com.datatool.exceltooracle.excel.SheetRowSource;
+import com.datatool.exceltooracle.excel.StreamingXlsxDataSource;
+import com.datatool.exceltooracle.json.JsonDataSource;
 import com.datatool.exceltooracle.pipeline.DataPipeline;
 import com.datatool.exceltooracle.pipeline.DataPipeline.PipelineResult;
 import com.datatool.exceltooracle.pipeline.PipelineListener;
 import com.datatool.exceltooracle.processor.ExcelRowToMapProcessor;
+import com.datatool.exceltooracle.processor.SheetRowToMapProcessor;
 import com.datatool.exceltooracle.service.ExcelImportService;
 import com.datatool.exceltooracle.service.TableMetadataService;
+import com.datatool.exceltooracle.xml.XmlDataSource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.Row;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -39,130 +82,315 @@ public class ExcelImportServiceImpl implements ExcelImportService {
     
     private final JdbcTemplate jdbcTemplate;
     private final TableMetadataService tableMetadataService;
+    private final ThreadPoolTaskExecutor importTaskExecutor;
+    private final SourceDataSourceProvider sourceDataSourceProvider;
+    private final ImportResultStore resultStore;
+    
+    // 排队和执行中的导入任务，结束后转入结果存储
+    private final Map<String, ImportTask> tasks = new ConcurrentHashMap<>();
+    
+    // 流式上传每次从请求体转入文件的最大字节数
+    private static final long STREAM_CHUNK_SIZE = 8L * 1024 * 1024;
+    
+    @Value("${excel-to-oracle.upload.max-stream-size:1073741824}")
+    private long maxStreamUploadSize;
     
-    // 存储任务结果的缓存（实际应用中可以使用Redis等缓存）
-    private final Map<String, ImportResponse> taskResults = new ConcurrentHashMap<>();
+    // 为元数据查询、序列预取和租约续约保留的连接数，不用于导入
+    private static final int RESERVED_CONNECTIONS = 2;
+    
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+    
+    // 所有导入任务共用的连接配额（写入连接和从应用连接池读取源表的连接），
+    // 在打开数据源之前占用，避免并发导入合计超过连接池大小
+    private volatile Semaphore importConnections;
     
     @Override
     public ImportResponse importExcel(MultipartFile file, ImportRequest request) throws IOException {
         log.info("开始导入Excel文件: {}, 目标表: {}", file.getOriginalFilename(), request.getTableName());
         
+        TableStructureDTO tableStructure = loadTableStructure(request);
+        if (!tableStructure.isExists()) {
+            return ImportResponse.failure(tableStructure.getMessage());
+        }
+        
+        File tempFile = createTempFile(file.getOriginalFilename());
+        saveUpload(file, tempFile);
+        ImportTask task = createTask(request, tableStructure, tempFile);
+        runTask(task);
+        return task.getResponse();
+    }
+    
+    @Override
+    public ImportResponse submitImport(MultipartFile file, ImportRequest request) throws IOException {
+        log.info("提交Excel导入任务: {}, 目标表: {}", file.getOriginalFilename(), request.getTableName());
+        
+        TableStructureDTO tableStructure = loadTableStructure(request);
+        if (!tableStructure.isExists()) {
+            return ImportResponse.failure(tableStructure.getMessage());
+        }
+        
+        // 上传的文件在请求结束后会被清理，先在请求线程中保存到临时文件
+        File tempFile = createTempFile(file.getOriginalFilename());
+        saveUpload(file, tempFile);
+        return submitTask(createTask(request, tableStructure, tempFile));
+    }
+    
+    @Override
+    public ImportResponse submitImport(InputStream inputStream, String fileName,
+                                       ImportRequest request) throws IOException {
+        log.info("提交Excel流式导入任务: {}, 目标表: {}", fileName, request.getTableName());
+        
+        TableStructureDTO tableStructure = loadTableStructure(request);
+        if (!tableStructure.isExists()) {
+            return ImportResponse.failure(tableStructure.getMessage());
+        }
+        
+        // 请求体直接写入临时文件，只落盘一次
+        File tempFile = createTempFile(fileName);
+        try {
+            long size = copyStream(inputStream, tempFile);
+            if (size == 0) {
+                tempFile.delete();
+                return ImportResponse.failure("上传的文件为空");
+            }
+            log.info("上传文件已保存: {}, 大小: {} 字节", tempFile.getName(), size);
+        } catch (IOException | RuntimeException e) {
+            tempFile.delete();
+            throw e;
+        }
+        return submitTask(createTask(request, tableStructure, tempFile));
+    }
+    
+    @Override
+    public ImportResponse submitDatabaseImport(ImportRequest request) {
+        log.info("提交数据库导入任务: {}, 目标表: {}", request.getSourceTable(), request.getTableName());
+        
+        try {
+            JdbcDataSource.checkIdentifier(request.getSourceTable());
+            if (request.getSourceSplitColumn() != null && !request.getSourceSplitColumn().isEmpty()) {
+                JdbcDataSource.checkIdentifier(request.getSourceSplitColumn());
+            }
+        } catch (IllegalArgumentException e) {
+            return ImportResponse.failure(e.getMessage());
+        }
+        
+        TableStructureDTO tableStructure = loadTableStructure(request);
+        if (!tableStructure.isExists()) {
+            return ImportResponse.failure(tableStructure.getMessage());
+        }
+        return submitTask(createTask(request, tableStructure, null));
+    }
+    
+    /**
+     * 提交导入任务到线程池
+     * 
+     * @param task 导入任务
+     * @return 任务信息（排队中）
+     */
+    private ImportResponse submitTask(ImportTask task) {
+        try {
+            importTaskExecutor.execute(() -> runTask(task));
+        } catch (TaskRejectedException e) {
+            log.warn("导入任务队列已满，拒绝任务: {}", task.getTaskId());
+            tasks.remove(task.getTaskId());
+            if (task.getTempFile() != null) {
+                task.getTempFile().delete();
+            }
+            throw e;
+        }
+        return task.snapshot();
+    }
+    
+    /**
+     * 获取并校验目标表结构
+     * 
+     * @param request 导入请求参数
+     * @return 表结构，校验未通过时exists为false，message为错误信息
+     */
+    private TableStructureDTO loadTableStructure(ImportRequest request) {
         // 验证表是否存在
         if (!tableMetadataService.tableExists(request.getTableName())) {
             log.error("目标表不存在: {}", request.getTableName());
-            return ImportResponse.failure("目标表不存在: " + request.getTableName());
+            return TableStructureDTO.builder()
+                    .tableName(request.getTableName())
+                    .exists(false)
+                    .message("目标表不存在: " + request.getTableName())
+                    .build();
         }
         
         // 获取表结构信息
         TableStructureDTO tableStructure = tableMetadataService.getTableStructure(request.getTableName());
         if (!tableStructure.isExists()) {
             log.error("获取表结构失败: {}", tableStructure.getMessage());
-            return ImportResponse.failure("获取表结构失败: " + tableStructure.getMessage());
+            return TableStructureDTO.builder()
+                    .tableName(request.getTableName())
+                    .exists(false)
+                    .message("获取表结构失败: " + tableStructure.getMessage())
+                    .build();
         }
+        return tableStructure;
+    }
+    
+    /**
+     * 在导入临时目录中创建临时文件，保留原文件的扩展名用于识别格式
+     * 
+     * @param fileName 原文件名
+     * @return 临时文件
+     * @throws IOException 如果创建失败
+     */
+    private File createTempFile(String fileName) throws IOException {
+        Path tempDir = Paths.get(System.getProperty("java.io.tmpdir"), "excel-import");
+        Files.createDirectories(tempDir);
         
-        // 创建表结构映射 (列名 -> 列信息)
-        Map<String, TableColumnDTO> tableColumns = tableStructure.getColumns().stream()
-                .collect(Collectors.toMap(
-                        col -> col.getColumnName().toUpperCase(),
-                        col -> col,
-                        (c1, c2) -> c1)); // 如果有重复键，保留第一个
-        
-        // 检查必填列
-        List<String> requiredDbColumns = tableStructure.getColumns().stream()
-                .filter(col -> !col.isNullable() && col.getDefaultValue() == null)
-                .map(TableColumnDTO::getColumnName)
-                .collect(Collectors.toList());
-        
+        // 只取文件名部分，避免客户端传入的路径影响临时文件位置
+        String name = fileName != null ? fileName.substring(Math.max(fileName.lastIndexOf('/'),
+                fileName.lastIndexOf('\\')) + 1) : "";
+        return File.createTempFile("import-", "-" + name, tempDir.toFile());
+    }
+    
+    /**
+     * 保存上传文件
+     * 上传文件已由容器写入磁盘时（超过file-size-threshold），与临时目录在同一文件系统上只做重命名
+     * 
+     * @param file 上传文件
+     * @param tempFile 临时文件
+     * @throws IOException 如果保存失败
+     */
+    private void saveUpload(MultipartFile file, File tempFile) throws IOException {
+        try {
+            file.transferTo(tempFile);
+        } catch (IOException | RuntimeException e) {
+            tempFile.delete();
+            throw e;
+        }
+    }
+    
+    /**
+     * 将请求体写入临时文件
+     * 
+     * @param inputStream 请求体
+     * @param tempFile 临时文件
+     * @return 写入的字节数
+     * @throws IOException 如果写入失败或超过大小限制
+     */
+    private long copyStream(InputStream inputStream, File tempFile) throws IOException {
+        try (ReadableByteChannel source = Channels.newChannel(inputStream);
+             FileChannel target = FileChannel.open(tempFile.toPath(), StandardOpenOption.WRITE)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = target.transferFrom(source, position, STREAM_CHUNK_SIZE)) > 0) {
+                position += transferred;
+                if (position > maxStreamUploadSize) {
+                    throw new IOException("上传文件超过大小限制: " + maxStreamUploadSize + " 字节");
+                }
+            }
+            return position;
+        }
+    }
+    
+    /**
+     * 创建导入任务并登记
+     * 
+     * @param request 导入请求参数
+     * @param tableStructure 表结构
+     * @param tempFile 已保存的上传文件，从数据库导入时为null
+     * @return 导入任务
+     */
+    private ImportTask createTask(ImportRequest request, TableStructureDTO tableStructure, File tempFile) {
         // 生成任务ID
         String taskId = UUID.randomUUID().toString();
         
-        // 创建导入响应对象
-        ImportResponse response = new ImportResponse();
-        response.setTaskId(taskId);
-        response.setStartTime(new Date());
-        
-        // 创建临时文件
-        Path tempDir = Paths.get(System.getProperty("java.io.tmpdir"), "excel-import");
-        Files.createDirectories(tempDir);
-        
-        File tempFile = File.createTempFile("import-", "-" + file.getOriginalFilename(), tempDir.toFile());
-        file.transferTo(tempFile);
+        ImportTask task = new ImportTask(taskId, request, tableStructure, tempFile);
+        tasks.put(taskId, task);
+        return task;
+    }
+    
+    /**
+     * 执行导入任务
+     * 
+     * @param task 导入任务
+     */
+    private void runTask(ImportTask task) {
+        ImportRequest request = task.getRequest();
+        TableStructureDTO tableStructure = task.getTableStructure();
+        ImportResponse response = task.getResponse();
+        File tempFile = task.getTempFile();
+        task.start();
         
         try {
-            // 创建Excel数据源
-            ExcelDataSource dataSource = new ExcelDataSource(
-                    tempFile,
-                    request.getSheetName(),
-                    request.getHeaderRowNum(),
-                    true
-            );
+            // 创建表结构映射 (列名 -> 列信息)
+            Map<String, TableColumnDTO> tableColumns = tableStructure.getColumns().stream()
+                    .collect(Collectors.toMap(
+                            col -> col.getColumnName().toUpperCase(),
+                            col -> col,
+                            (c1, c2) -> c1)); // 如果有重复键，保留第一个
             
-            // 打开数据源，读取表头信息
-            dataSource.open();
+            // 检查必填列
+            List<String> requiredDbColumns = tableStructure.getColumns().stream()
+                    .filter(col -> !col.isNullable() && col.getDefaultValue() == null)
+                    .map(TableColumnDTO::getColumnName)
+                    .collect(Collectors.toList());
+            
+            if (tempFile != null && isMultiSheetImport(request, tempFile)) {
+                // 多工作表导入，各工作表并发读取和写入，结果按工作表汇总（结束处理在finally中执行）
+                importSheets(task, tableColumns, requiredDbColumns);
+                return;
+            }
             
             // 创建字段映射器
             ExcelFieldMapper fieldMapper = createFieldMapper(request, tableColumns, requiredDbColumns);
             
-            // 如果是自动映射模式，根据Excel表头自动创建映射关系
-            if (request.isAutoMapping()) {
-                Row headerRow = dataSource.getHeaderRow();
-                if (headerRow != null) {
-                    for (int i = 0; i < headerRow.getLastCellNum(); i++) {
-                        org.apache.poi.ss.usermodel.Cell cell = headerRow.getCell(i);
-                        if (cell != null && cell.getCellType() != CellType.BLANK) {
-                            String columnName = cell.getStringCellValue().trim();
-                            if (!columnName.isEmpty()) {
-                                // 检查Excel列名是否存在于数据库表中
-                                String dbColumnName = columnName.toUpperCase();
-                                if (tableColumns.containsKey(dbColumnName)) {
-                                    // 列存在于数据库表中，创建映射
-                                    TableColumnDTO columnInfo = tableColumns.get(dbColumnName);
-                                    boolean required = !columnInfo.isNullable() && columnInfo.getDefaultValue() == null;
-                                    
-                                    fieldMapper.addMapping(columnName, dbColumnName, required);
-                                    log.debug("自动映射成功: Excel列 '{}' -> 数据库字段 '{}'", columnName, dbColumnName);
-                                } else {
-                                    // 列不存在于数据库表中，记录日志
-                                    log.warn("Excel列 '{}' 不存在于表 {} 中，将被忽略", columnName, request.getTableName());
-                                }
-                            }
-                        }
+            // 打开数据源之前占用连接配额，排队的导入不会先占住读取连接再等待写入连接
+            int readerCount = tempFile == null ? getReaderConnectionCount(request) : 0;
+            int writerCount = getWriterConnectionCount(request, readerCount);
+            Semaphore connections = acquireConnections(readerCount + writerCount);
+            PipelineResult result;
+            try {
+                if (tempFile == null || request.isStreamingRead() || isCsvFile(tempFile) || isRecordFile(tempFile)) {
+                    // 流式读取，不构建整个工作簿（数据库、CSV、JSON和XML总是流式读取）
+                    SheetRowSource dataSource = tempFile != null
+                            ? createStreamingSource(tempFile, request)
+                            : createDatabaseSource(request, readerCount);
+                    
+                    // 数据库、JSON和XML没有表头行，所有记录都是数据
+                    int dataStartRowNum = tempFile == null || isRecordFile(tempFile) ? 0 : request.getDataStartRowNum();
+                    result = importRows(dataSource, dataStartRowNum, fieldMapper, request, tableColumns, task,
+                            writerCount);
+                } else {
+                    // 创建Excel数据源
+                    ExcelDataSource dataSource = new ExcelDataSource(
+                            tempFile,
+                            request.getSheetName(),
+                            request.getHeaderRowNum(),
+                            true
+                    );
+                    
+                    // 打开数据源，读取表头信息
+                    dataSource.open();
+                    
+                    // 如果是自动映射模式，根据Excel表头自动创建映射关系
+                    if (request.isAutoMapping()) {
+                        applyAutoMapping(fieldMapper, SheetRow.of(dataSource.getHeaderRow()), 
+                                tableColumns, request.getTableName());
                     }
+                    
+                    // 添加处理器 - Excel行转Map
+                    Map<String, Integer> columnIndexMap = fieldMapper.buildColumnIndexMap(dataSource.getHeaderRow());
+                    ExcelRowToMapProcessor processor = new ExcelRowToMapProcessor(
+                            fieldMapper,
+                            columnIndexMap,
+                            request.getDataStartRowNum()
+                    );
+                    // 按列存储的批次在加入时复制值，行记录可以复用
+                    processor.setReuseRecord(request.isColumnarBatch());
+                    result = executePipeline(dataSource, processor, processor.getSchema(), request, tableColumns, task,
+                            writerCount);
                 }
+            } finally {
+                connections.release(readerCount + writerCount);
             }
             
-            // 创建Oracle数据目标
-            OracleDataTarget dataTarget = new OracleDataTarget(
-                    jdbcTemplate,
-                    request.getTableName(),
-                    request.isInsert(),
-                    request.getKeyColumns()
-            );
-            
-            // 创建管道
-            DataPipeline<Row, Map<String, Object>> pipeline = new DataPipeline<>(dataSource, dataTarget);
-            
-            // 添加处理器 - Excel行转Map
-            Map<String, Integer> columnIndexMap = fieldMapper.buildColumnIndexMap(dataSource.getHeaderRow());
-            ExcelRowToMapProcessor processor = new ExcelRowToMapProcessor(
-                    fieldMapper,
-                    columnIndexMap,
-                    request.getDataStartRowNum()
-            );
-            pipeline.addProcessor(processor);
-            
-            // 设置批处理大小
-            pipeline.setBatchSize(request.getBatchSize());
-            
-            // 设置错误处理方式
-            pipeline.setStopOnError(!request.isIgnoreErrors());
-            
-            // 设置监听器
-            pipeline.setListener(new ImportPipelineListener());
-            
-            // 执行导入
-            PipelineResult result = pipeline.execute();
-            
             // 设置响应信息
             response.setSuccess(true);
             response.setMessage("导入完成");
@@ -171,39 +399,624 @@ public class ExcelImportServiceImpl implements ExcelImportService {
             response.setFailureRecords(result.getFailureRecords());
             
             // 处理错误记录
-            for (DataPipeline.ErrorRecord<?> error : result.getErrorRecords()) {
-                if (error.getData() instanceof Row) {
-                    Row row = (Row) error.getData();
-                    ErrorRecord errorRecord = new ErrorRecord();
-                    errorRecord.setRowNum(row.getRowNum() + 1); // 行号从1开始
-                    errorRecord.setErrorMessage(error.getErrorMessage());
-                    errorRecord.setRowData("Row " + row.getRowNum()); // 实际应用中可以获取行数据内容
-                    response.getErrorRecords().add(errorRecord);
-                }
-            }
+            addErrorRecords(response.getErrorRecords(), result, null);
         } catch (Exception e) {
             log.error("导入Excel出错: {}", e.getMessage(), e);
             response.setSuccess(false);
             response.setMessage("导入失败: " + e.getMessage());
         } finally {
-            // 删除临时文件
-            tempFile.delete();
+            // 删除临时文件，文件仍被占用时（如Windows上未释放的映射）留到退出时删除
+            if (tempFile != null && !tempFile.delete() && tempFile.exists()) {
+                log.warn("删除临时文件失败: {}", tempFile);
+                tempFile.deleteOnExit();
+            }
             
-            // 设置结束时间和处理耗时
-            response.setEndTime(new Date());
-            response.setProcessingTime(response.getEndTime().getTime() - response.getStartTime().getTime());
+            // 设置结束时间、处理耗时和最终进度
+            task.finish();
+            
+            // 先保存结果再移除任务，保证查询期间任务始终可见
+            resultStore.put(response);
+            tasks.remove(task.getTaskId());
+        }
+    }
+    
+    /**
+     * 读取流式数据源并写入目标表
+     * 
+     * @param dataSource 流式数据源（未打开）
+     * @param dataStartRowNum 数据起始行号
+     * @param fieldMapper 字段映射器
+     * @param request 导入请求参数
+     * @param tableColumns 表列信息
+     * @param task 导入任务，用于记录进度
+     * @param writerCount 写入连接数（已占用连接配额）
+     * @return 管道处理结果
+     * @throws IOException 如果处理过程中出现IO错误
+     */
+    private PipelineResult importRows(SheetRowSource dataSource, int dataStartRowNum, ExcelFieldMapper fieldMapper,
+                                      ImportRequest request, Map<String, TableColumnDTO> tableColumns,
+                                      ImportTask task, int writerCount) throws IOException {
+        // 打开数据源，读取表头信息
+        dataSource.open();
+        try {
+            SheetRow headerRow = dataSource.getHeaderRow();
+            
+            // 如果是自动映射模式，根据Excel表头自动创建映射关系
+            if (request.isAutoMapping()) {
+                applyAutoMapping(fieldMapper, headerRow, tableColumns, request.getTableName());
+            }
             
-            // 保存任务结果
-            taskResults.put(taskId, response);
+            // 添加处理器 - 行数据转Map
+            Map<String, Integer> columnIndexMap = fieldMapper.buildColumnIndexMap(headerRow);
+            SheetRowToMapProcessor processor = new SheetRowToMapProcessor(
+                    fieldMapper,
+                    columnIndexMap,
+                    dataStartRowNum
+            );
+            processor.setReuseRecord(request.isColumnarBatch());
+            return executePipeline(dataSource, processor, processor.getSchema(), request, tableColumns, task,
+                    writerCount);
+        } catch (IOException | RuntimeException e) {
+            // 管道执行前出错时数据源不会被管道关闭
+            dataSource.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * 多工作表导入
+     * XLSX文件的包、共享字符串表和样式表只加载一次，各工作表并发解析；XLS文件每个工作表单独读取记录流。
+     * 每个工作表使用独立的管道和数据库连接并分别提交，一个工作表失败不影响其他工作表
+     * 
+     * @param task 导入任务
+     * @param tableColumns 表列信息
+     * @param requiredDbColumns 必填列
+     * @throws IOException 如果读取工作表列表失败
+     */
+    private void importSheets(ImportTask task, Map<String, TableColumnDTO> tableColumns,
+                              List<String> requiredDbColumns) throws IOException {
+        ImportRequest request = task.getRequest();
+        ImportResponse response = task.getResponse();
+        File file = task.getTempFile();
+        boolean xlsx = file.getName().toLowerCase().endsWith(".xlsx");
+        
+        SharedXlsxWorkbook workbook = xlsx ? new SharedXlsxWorkbook(file) : null;
+        ExecutorService executor = null;
+        try {
+            List<String> sheetNames = resolveSheetNames(request,
+                    xlsx ? workbook.getSheetNames() : HssfEventDataSource.listSheetNames(file));
+            // 每个工作表占用writerConnectionCount个写入连接，并发数不超过连接配额能同时容纳的工作表数
+            int sheetsByConnections = Math.max(1, getImportConnectionLimit() / getWriterConnectionCount(request, 0));
+            int threads = Math.max(1, Math.min(Math.min(request.getSheetParallelism(), sheetNames.size()),
+                    sheetsByConnections));
+            log.info("多工作表导入，工作表: {}, 并发数: {}", sheetNames, threads);
+            executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("sheet-import-"));
+            
+            // 每个工作表的错误明细单独收集，结束后按工作表顺序合并
+            List<Future<SheetResult>> futures = new ArrayList<>(sheetNames.size());
+            List<List<ErrorRecord>> sheetErrors = new ArrayList<>(sheetNames.size());
+            for (String sheetName : sheetNames) {
+                List<ErrorRecord> errors = new ArrayList<>();
+                sheetErrors.add(errors);
+                SheetRowSource dataSource = xlsx
+                        ? new StreamingXlsxDataSource(workbook, sheetName, request.getHeaderRowNum(), true)
+                        : new HssfEventDataSource(file, sheetName, request.getHeaderRowNum(), true);
+                futures.add(executor.submit(() -> importSheet(dataSource, sheetName, request,
+                        tableColumns, requiredDbColumns, task, errors)));
+            }
+            
+            List<SheetResult> sheetResults = new ArrayList<>(sheetNames.size());
+            int failedSheets = 0;
+            for (int i = 0; i < futures.size(); i++) {
+                SheetResult sheetResult = futures.get(i).get();
+                sheetResults.add(sheetResult);
+                response.setTotalRecords(response.getTotalRecords() + sheetResult.getTotalRecords());
+                response.setSuccessRecords(response.getSuccessRecords() + sheetResult.getSuccessRecords());
+                response.setFailureRecords(response.getFailureRecords() + sheetResult.getFailureRecords());
+                response.getErrorRecords().addAll(sheetErrors.get(i));
+                if (!sheetResult.isSuccess()) {
+                    failedSheets++;
+                }
+            }
+            
+            response.setSheetResults(sheetResults);
+            response.setSuccess(failedSheets == 0);
+            response.setMessage(failedSheets == 0
+                    ? "导入完成，共 " + sheetResults.size() + " 个工作表"
+                    : "部分工作表导入失败: " + failedSheets + "/" + sheetResults.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("多工作表导入被中断", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("工作表导入出错: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            if (workbook != null) {
+                workbook.close();
+            }
+        }
+    }
+    
+    /**
+     * 导入一个工作表
+     * 
+     * @param dataSource 工作表数据源（未打开）
+     * @param sheetName 工作表名称
+     * @param request 导入请求参数
+     * @param tableColumns 表列信息
+     * @param requiredDbColumns 必填列
+     * @param task 导入任务，用于记录进度
+     * @param errors 用于收集该工作表的错误明细
+     * @return 工作表导入结果，出错时success为false
+     */
+    private SheetResult importSheet(SheetRowSource dataSource, String sheetName, ImportRequest request,
+                                    Map<String, TableColumnDTO> tableColumns, List<String> requiredDbColumns,
+                                    ImportTask task, List<ErrorRecord> errors) {
+        SheetResult sheetResult = new SheetResult();
+        sheetResult.setSheetName(sheetName);
+        long startTime = System.currentTimeMillis();
+        try {
+            // 每个工作表单独建立映射，自动映射时以各自的表头为准
+            ExcelFieldMapper fieldMapper = createFieldMapper(request, tableColumns, requiredDbColumns);
+            int writerCount = getWriterConnectionCount(request, 0);
+            Semaphore connections = acquireConnections(writerCount);
+            PipelineResult result;
+            try {
+                result = importRows(dataSource, request.getDataStartRowNum(), fieldMapper,
+                        request, tableColumns, task, writerCount);
+            } finally {
+                connections.release(writerCount);
+            }
+            sheetResult.setSuccess(true);
+            sheetResult.setMessage("导入完成");
+            sheetResult.setTotalRecords(result.getTotalRecords());
+            sheetResult.setSuccessRecords(result.getSuccessRecords());
+            sheetResult.setFailureRecords(result.getFailureRecords());
+            addErrorRecords(errors, result, sheetName);
+        } catch (Exception e) {
+            log.error("导入工作表 {} 出错: {}", sheetName, e.getMessage(), e);
+            sheetResult.setSuccess(false);
+            sheetResult.setMessage("导入失败: " + e.getMessage());
+        }
+        sheetResult.setProcessingTime(System.currentTimeMillis() - startTime);
+        return sheetResult;
+    }
+    
+    /**
+     * 确定需要导入的工作表
+     * 
+     * @param request 导入请求参数
+     * @param available 工作簿中的所有工作表
+     * @return 工作表名称列表
+     */
+    private static List<String> resolveSheetNames(ImportRequest request, List<String> available) {
+        if (request.isAllSheets()) {
+            if (available.isEmpty()) {
+                throw new IllegalArgumentException("Excel文件中没有工作表");
+            }
+            return available;
         }
         
-        return response;
+        List<String> sheetNames = new ArrayList<>(new LinkedHashSet<>(Arrays.asList(request.getSheetNames())));
+        List<String> missing = sheetNames.stream()
+                .filter(name -> !available.contains(name))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("工作表不存在: " + String.join(", ", missing));
+        }
+        return sheetNames;
+    }
+    
+    /**
+     * 是否为多工作表导入（指定了多个工作表或所有工作表，且为Excel文件）
+     */
+    private static boolean isMultiSheetImport(ImportRequest request, File file) {
+        String fileName = file.getName().toLowerCase();
+        boolean multiSheet = request.isAllSheets()
+                || (request.getSheetNames() != null && request.getSheetNames().length > 0);
+        return multiSheet && (fileName.endsWith(".xlsx") || fileName.endsWith(".xls"));
+    }
+    
+    /**
+     * 将管道的错误记录转换为响应中的错误明细
+     * 
+     * @param target 错误明细列表
+     * @param result 管道处理结果
+     * @param sheetName 工作表名称（多工作表导入时）
+     */
+    private static void addErrorRecords(List<ErrorRecord> target, PipelineResult result, String sheetName) {
+        for (DataPipeline.ErrorRecord<?> error : result.getErrorRecords()) {
+            int rowNum = getRowNum(error.getData());
+            if (rowNum >= 0) {
+                ErrorRecord errorRecord = new ErrorRecord();
+                errorRecord.setSheetName(sheetName);
+                errorRecord.setRowNum(rowNum + 1); // 行号从1开始
+                errorRecord.setErrorMessage(error.getErrorMessage());
+                errorRecord.setRowData("Row " + rowNum); // 实际应用中可以获取行数据内容
+                target.add(errorRecord);
+            }
+        }
+    }
+    
+    /**
+     * 根据文件类型创建流式数据源
+     * 
+     * @param file Excel或CSV文件
+     * @param request 导入请求参数
+     * @return 流式数据源
+     */
+    private SheetRowSource createStreamingSource(File file, ImportRequest request) {
+        String fileName = file.getName().toLowerCase();
+        if (isCsvFile(file)) {
+            Charset charset = request.getCsvCharset() != null && !request.getCsvCharset().isEmpty()
+                    ? Charset.forName(request.getCsvCharset())
+                    : null;
+            if (request.getCsvReaderParallelism() > 1) {
+                return new ParallelCsvDataSource(file, charset, request.getCsvDelimiter(),
+                        request.getHeaderRowNum(), true, request.getCsvReaderParallelism());
+            }
+            return new CsvDataSource(file, charset, request.getCsvDelimiter(), request.getHeaderRowNum(), true);
+        } else if (isRecordFile(file)) {
+            // 手动映射时只读取映射的字段路径，否则根据第一条记录确定
+            List<String> fieldPaths = !request.isAutoMapping() && !request.getColumnMapping().isEmpty()
+                    ? new ArrayList<>(request.getColumnMapping().keySet())
+                    : null;
+            if (isXmlFile(file)) {
+                return new XmlDataSource(file, request.getXmlRecordPath(), fieldPaths);
+            }
+            return new JsonDataSource(file, request.getJsonRecordPath(), fieldPaths);
+        } else if (fileName.endsWith(".xlsx")) {
+            return new StreamingXlsxDataSource(file, request.getSheetName(), request.getHeaderRowNum(), true);
+        } else if (fileName.endsWith(".xls")) {
+            return new HssfEventDataSource(file, request.getSheetName(), request.getHeaderRowNum(), true);
+        }
+        throw new IllegalArgumentException("不支持的Excel文件格式: " + fileName);
+    }
+    
+    /**
+     * 创建读取源表的数据源
+     * 配置了源数据库时使用源库的连接池，否则使用应用的连接池（源表可以在其他模式中）
+     * 
+     * @param request 导入请求参数
+     * @param readerCount 从应用连接池读取的连接数（已占用连接配额），使用源库连接池时为0
+     * @return 数据库数据源，并行读取连接数大于1时按拆分列或ROWID切分并行读取
+     */
+    private SheetRowSource createDatabaseSource(ImportRequest request, int readerCount) {
+        javax.sql.DataSource dataSource;
+        int parallelism;
+        if (sourceDataSourceProvider.isConfigured()) {
+            dataSource = sourceDataSourceProvider.getDataSource();
+            parallelism = Math.min(Math.max(1, request.getSourceReaderParallelism()),
+                    sourceDataSourceProvider.getMaximumPoolSize());
+        } else {
+            dataSource = jdbcTemplate.getDataSource();
+            parallelism = readerCount;
+        }
+        if (parallelism > 1) {
+            // 按拆分列切分时先用一个连接查询取值范围，查询结束后才打开各部分的连接
+            return new ParallelJdbcDataSource(dataSource, request.getSourceTable(), request.getSourceSplitColumn(),
+                    parallelism, request.getSourceFetchSize());
+        }
+        return JdbcDataSource.forTable(dataSource, request.getSourceTable(), request.getSourceFetchSize());
+    }
+    
+    private static boolean isCsvFile(File file) {
+        return file.getName().toLowerCase().endsWith(".csv");
+    }
+    
+    private static boolean isJsonFile(File file) {
+        String fileName = file.getName().toLowerCase();
+        return fileName.endsWith(".json") || fileName.endsWith(".jsonl") || fileName.endsWith(".ndjson");
+    }
+    
+    private static boolean isXmlFile(File file) {
+        return file.getName().toLowerCase().endsWith(".xml");
+    }
+    
+    /**
+     * 是否为按记录组织、没有表头行的文件（JSON、XML）
+     */
+    private static boolean isRecordFile(File file) {
+        return isJsonFile(file) || isXmlFile(file);
+    }
+    
+    /**
+     * 根据Excel表头自动创建映射关系
+     * 
+     * @param fieldMapper 字段映射器
+     * @param headerRow 表头行
+     * @param tableColumns 表列信息
+     * @param tableName 表名
+     */
+    private void applyAutoMapping(ExcelFieldMapper fieldMapper, SheetRow headerRow,
+                                  Map<String, TableColumnDTO> tableColumns, String tableName) {
+        if (headerRow == null) {
+            return;
+        }
+        
+        for (int i = 0; i < headerRow.getLastCellNum(); i++) {
+            Object value = headerRow.getValue(i);
+            if (value != null) {
+                String columnName = value.toString().trim();
+                if (!columnName.isEmpty()) {
+                    // 检查Excel列名是否存在于数据库表中
+                    String dbColumnName = columnName.toUpperCase();
+                    if (!tableColumns.containsKey(dbColumnName)) {
+                        // JSON/XML字段路径（如customer.name、Party/Name、Party/@type）对应下划线连接的列名
+                        dbColumnName = dbColumnName.replace("@", "").replace('.', '_').replace('/', '_');
+                    }
+                    if (tableColumns.containsKey(dbColumnName)) {
+                        // 列存在于数据库表中，创建映射
+                        TableColumnDTO columnInfo = tableColumns.get(dbColumnName);
+                        boolean required = !columnInfo.isNullable() && columnInfo.getDefaultValue() == null;
+                        
+                        fieldMapper.addMapping(columnName, dbColumnName, required);
+                        log.debug("自动映射成功: Excel列 '{}' -> 数据库字段 '{}'", columnName, dbColumnName);
+                    } else {
+                        // 列不存在于数据库表中，记录日志
+                        log.warn("Excel列 '{}' 不存在于表 {} 中，将被忽略", columnName, tableName);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * 创建并执行导入管道
+     * 
+     * @param dataSource 数据源
+     * @param processor 行转Map处理器
+     * @param schema 处理器输出行记录的字段结构
+     * @param request 导入请求参数
+     * @param tableColumns 表列信息
+     * @param task 导入任务，用于记录进度
+     * @param writerCount 写入连接数（已占用连接配额）
+     * @return 管道处理结果
+     * @throws IOException 如果处理过程中出现IO错误
+     */
+    private <S> PipelineResult executePipeline(DataSource<S> dataSource,
+                                               DataProcessor<S, Map<String, Object>> processor,
+                                               RowRecord.Schema schema,
+                                               ImportRequest request,
+                                               Map<String, TableColumnDTO> tableColumns,
+                                               ImportTask task,
+                                               int writerCount) throws IOException {
+        // 创建Oracle数据目标
+        DataTarget<Map<String, Object>> dataTarget = createDataTarget(request, tableColumns, writerCount, task);
+        
+        // 创建管道
+        DataPipeline<S, Map<String, Object>> pipeline = new DataPipeline<>(dataSource, dataTarget);
+        pipeline.addProcessor(processor);
+        
+        // 设置批处理大小，直接路径插入每个批次提交一次，批次太小会使表膨胀
+        int batchSize = request.getBatchSize();
+        if (isDirectPathInsert(request) && batchSize < OracleDataTarget.DIRECT_PATH_MIN_BATCH_SIZE) {
+            log.warn("直接路径写入的批处理大小{}过小，改为{}", batchSize, OracleDataTarget.DIRECT_PATH_MIN_BATCH_SIZE);
+            batchSize = OracleDataTarget.DIRECT_PATH_MIN_BATCH_SIZE;
+        }
+        pipeline.setBatchSize(batchSize);
+        
+        // 设置错误处理方式
+        pipeline.setStopOnError(!request.isIgnoreErrors());
+        
+        // 设置执行方式
+        pipeline.setStaged(request.isPipelined());
+        pipeline.setParallelism(request.getParallelism());
+        pipeline.setPreserveOrder(request.isPreserveOrder());
+        pipeline.setVirtualThreads(request.isVirtualThreads());
+        if (request.isColumnarBatch()) {
+            pipeline.setBatchFactory(capacity -> new ColumnarBatch(schema, capacity));
+        }
+        
+        // 设置监听器
+        pipeline.setListener(new ImportPipelineListener<>(task));
+        
+        // 执行导入
+        return pipeline.execute();
+    }
+    
+    /**
+     * 占用导入连接配额，配额不足时等待其他导入释放
+     * 
+     * @param permits 连接数
+     * @return 连接配额，导入结束后释放相同数量
+     * @throws IOException 如果等待时被中断
+     */
+    private Semaphore acquireConnections(int permits) throws IOException {
+        Semaphore semaphore = importConnections;
+        if (semaphore == null) {
+            synchronized (this) {
+                if (importConnections == null) {
+                    importConnections = new Semaphore(getImportConnectionLimit(), true);
+                }
+                semaphore = importConnections;
+            }
+        }
+        try {
+            semaphore.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("等待数据库连接配额时被中断", e);
+        }
+        return semaphore;
+    }
+    
+    /**
+     * 获取可用于导入（读取源表和写入）的连接总数
+     * 
+     * @return 连接池大小减去保留连接数，至少为1
+     */
+    private int getImportConnectionLimit() {
+        return Math.max(1, connectionPoolSize - RESERVED_CONNECTIONS);
+    }
+    
+    /**
+     * 计算从应用连接池读取源表的连接数
+     * 
+     * @param request 导入请求参数
+     * @return 读取连接数，至少为1且为写入保留至少一个连接；配置了源数据库时不占用应用连接池，返回0
+     */
+    private int getReaderConnectionCount(ImportRequest request) {
+        if (sourceDataSourceProvider.isConfigured()) {
+            return 0;
+        }
+        int limit = getImportConnectionLimit();
+        int count = Math.min(Math.max(1, request.getSourceReaderParallelism()), limit - 1);
+        return Math.max(count, limit > 1 ? 1 : 0);
+    }
+    
+    /**
+     * 计算一个导入管道实际使用的写入连接数
+     * 
+     * @param request 导入请求参数
+     * @param readerCount 同一导入占用的读取连接数
+     * @return 写入连接数，与读取连接数之和不超过可用于导入的连接总数
+     */
+    private int getWriterConnectionCount(ImportRequest request, int readerCount) {
+        int count = isDirectPathInsert(request) ? 1 : Math.max(1, request.getWriterParallelism());
+        return Math.max(1, Math.min(count, getImportConnectionLimit() - readerCount));
+    }
+    
+    /**
+     * 是否使用直接路径插入（只对插入操作有效）
+     * 
+     * @param request 导入请求参数
+     * @return 是否为直接路径插入
+     */
+    private static boolean isDirectPathInsert(ImportRequest request) {
+        return request.isDirectPathLoad() && request.resolveWriteMode() == ImportRequest.WriteMode.INSERT;
+    }
+    
+    /**
+     * 创建Oracle数据目标
+     * 
+     * @param request 导入请求参数
+     * @param tableColumns 表列信息
+     * @param writerCount 写入连接数（已按写入连接配额限制）
+     * @param task 导入任务，各写入连接在数据库执行成功后记录已写入行数
+     * @return 数据目标，写入连接数大于1时返回多连接并行写入的目标
+     */
+    private DataTarget<Map<String, Object>> createDataTarget(ImportRequest request,
+                                                             Map<String, TableColumnDTO> tableColumns,
+                                                             int writerCount,
+                                                             ImportTask task) {
+        WriteMode writeMode = toWriteMode(request.resolveWriteMode());
+        boolean directPath = request.isDirectPathLoad() && writeMode == WriteMode.INSERT;
+        if (request.isDirectPathLoad() && writeMode != WriteMode.INSERT) {
+            log.warn("直接路径写入只支持插入操作，已忽略");
+        }
+        
+        // 暂存更新方式需要先准备好暂存表
+        String stagingTable = writeMode == WriteMode.STAGED_UPDATE
+                ? tableMetadataService.ensureStagingTable(request.getTableName())
+                : null;
+        
+        Supplier<OracleDataTarget> writerFactory = () -> {
+            OracleDataTarget target = new OracleDataTarget(
+                    jdbcTemplate,
+                    request.getTableName(),
+                    writeMode,
+                    request.getKeyColumns(),
+                    tableColumns
+            );
+            target.setDirectPath(directPath);
+            target.setNoLogging(directPath && request.isNoLogging());
+            target.setStagingTable(stagingTable);
+            target.setApplyInterval(request.getStagingApplyInterval());
+            target.setQueryTimeout(request.getWriteTimeoutSeconds());
+            target.setWrittenRowsListener(task.writtenRecords::addAndGet);
+            return target;
+        };
+        
+        if (directPath && request.getWriterParallelism() > 1) {
+            // 直接路径插入持有表级排他锁，多个连接只会互相等待
+            log.warn("直接路径写入只使用一个连接，忽略并行写入连接数: {}", request.getWriterParallelism());
+            return writerFactory.get();
+        }
+        if (writerCount < request.getWriterParallelism() && !directPath) {
+            log.warn("并行写入连接数{}超过可用于写入的连接数，改为{}", request.getWriterParallelism(), writerCount);
+        }
+        if (writerCount <= 1) {
+            return writerFactory.get();
+        }
+        ParallelOracleDataTarget.TransactionPolicy transactionPolicy =
+                toTransactionPolicy(request.getTransactionPolicy());
+        if (writeMode == WriteMode.STAGED_UPDATE
+                && transactionPolicy == ParallelOracleDataTarget.TransactionPolicy.ALL_OR_NOTHING) {
+            // 暂存更新在每个合并间隔提交，无法保证所有连接一起提交
+            log.warn("暂存更新方式按合并间隔提交，事务策略改为PER_CONNECTION");
+            transactionPolicy = ParallelOracleDataTarget.TransactionPolicy.PER_CONNECTION;
+        }
+        // 按唯一键将行固定分配到连接，同一键的行不会在两个连接上互相等待行锁
+        return new ParallelOracleDataTarget(writerFactory, request.getTableName(),
+                writerCount, transactionPolicy, request.getKeyColumns());
+    }
+    
+    /**
+     * 将请求中的写入方式转换为数据目标的写入方式
+     * 
+     * @param writeMode 请求中的写入方式
+     * @return 数据目标的写入方式
+     */
+    private static WriteMode toWriteMode(ImportRequest.WriteMode writeMode) {
+        switch (writeMode) {
+            case UPDATE:
+                return WriteMode.UPDATE;
+            case UPSERT:
+                return WriteMode.UPSERT;
+            case STAGED_UPDATE:
+                return WriteMode.STAGED_UPDATE;
+            default:
+                return WriteMode.INSERT;
+        }
+    }
+    
+    /**
+     * 将请求中的事务策略转换为并行写入目标的事务策略
+     * 
+     * @param policy 请求中的事务策略，为空时按全部成功才提交处理
+     * @return 并行写入目标的事务策略
+     */
+    private static ParallelOracleDataTarget.TransactionPolicy toTransactionPolicy(
+            ImportRequest.TransactionPolicy policy) {
+        return policy == ImportRequest.TransactionPolicy.PER_CONNECTION
+                ? ParallelOracleDataTarget.TransactionPolicy.PER_CONNECTION
+                : ParallelOracleDataTarget.TransactionPolicy.ALL_OR_NOTHING;
+    }
+    
+    /**
+     * 获取源数据的行号
+     * 
+     * @param data 源数据
+     * @return 行号（从0开始），无法识别时返回-1
+     */
+    private static int getRowNum(Object data) {
+        if (data instanceof Row) {
+            return ((Row) data).getRowNum();
+        } else if (data instanceof SheetRow) {
+            return ((SheetRow) data).getRowNum();
+        }
+        return -1;
     }
     
     @Override
-    public ImportResponse getImportResult(String taskId) {
-        return taskResults.getOrDefault(taskId, 
-                ImportResponse.failure("找不到任务ID: " + taskId));
+    public ImportResponse getImportResult(String taskId, int errorPage, int errorPageSize) {
+        ImportTask task = tasks.get(taskId);
+        if (task != null && !task.isFinished()) {
+            return task.snapshot();
+        }
+        
+        ImportResponse response = resultStore.get(taskId, errorPage, errorPageSize);
+        if (response != null) {
+            return response;
+        }
+        if (task != null) {
+            // 任务刚结束，结果尚未保存
+            return task.snapshot();
+        }
+        return ImportResponse.failure("找不到任务ID: " + taskId);
     }
     
     /**
@@ -218,6 +1031,8 @@ public class ExcelImportServiceImpl implements ExcelImportService {
                                               Map<String, TableColumnDTO> tableColumns,
                                               List<String> requiredDbColumns) {
         ExcelFieldMapper fieldMapper = new ExcelFieldMapper(true);
+        // 生成值按写入批次批量获取
+        fieldMapper.setGeneratorBatchSize(request.getBatchSize());
         ValueGeneratorRegistry generatorRegistry = ValueGeneratorRegistry.getInstance();
         
         // 如果手动提供了列映射关系，则使用提供的映射
@@ -242,8 +1057,9 @@ public class ExcelImportServiceImpl implements ExcelImportService {
                     // 检查是否有生成器配置
                     else if (request.getColumnGenerator().containsKey(excelColumn)) {
                         String generatorId = request.getColumnGenerator().get(excelColumn);
-                        if (generatorRegistry.hasGenerator(generatorId)) {
-                            ValueGenerator generator = generatorRegistry.getGenerator(generatorId);
+                        // 按前缀动态创建的生成器（如seq:）不存在时返回null
+                        ValueGenerator generator = generatorRegistry.getGenerator(generatorId);
+                        if (generator != null) {
                             log.debug("列 {} 使用生成器: {}", excelColumn, generator.getName());
                             fieldMapper.addMappingWithGenerator(excelColumn, dbColumn, required, generator);
                         } else {
@@ -300,9 +1116,8 @@ public class ExcelImportServiceImpl implements ExcelImportService {
                     boolean required = !columnInfo.isNullable() && columnInfo.getDefaultValue() == null;
                     
                     // 检查生成器是否存在
-                    if (generatorRegistry.hasGenerator(generatorId)) {
-                        ValueGenerator generator = generatorRegistry.getGenerator(generatorId);
-                        
+                    ValueGenerator generator = generatorRegistry.getGenerator(generatorId);
+                    if (generator != null) {
                         // 使用虚拟列名，确保不与Excel实际列名冲突
                         String virtualColumnName = "__VIRTUAL_" + dbColumn;
                         fieldMapper.addMappingWithGenerator(virtualColumnName, dbColumn, required, generator);
@@ -320,13 +1135,126 @@ public class ExcelImportServiceImpl implements ExcelImportService {
         return fieldMapper;
     }
     
+    /**
+     * 导入任务
+     * 保存任务的输入和执行过程中的进度，进度计数由管道监听器在读取、写入线程中更新
+     */
+    private static class ImportTask {
+        
+        private final String taskId;
+        private final ImportRequest request;
+        private final TableStructureDTO tableStructure;
+        private final File tempFile;
+        private final ImportResponse response = new ImportResponse();
+        
+        private final AtomicInteger readRecords = new AtomicInteger();
+        private final AtomicInteger writtenRecords = new AtomicInteger();
+        private final AtomicInteger failureRecords = new AtomicInteger();
+        private volatile TaskStatus status = TaskStatus.QUEUED;
+        private volatile long runStartTime;
+        
+        ImportTask(String taskId, ImportRequest request, TableStructureDTO tableStructure, File tempFile) {
+            this.taskId = taskId;
+            this.request = request;
+            this.tableStructure = tableStructure;
+            this.tempFile = tempFile;
+            response.setTaskId(taskId);
+            response.setStartTime(new Date());
+        }
+        
+        String getTaskId() {
+            return taskId;
+        }
+        
+        ImportRequest getRequest() {
+            return request;
+        }
+        
+        TableStructureDTO getTableStructure() {
+            return tableStructure;
+        }
+        
+        File getTempFile() {
+            return tempFile;
+        }
+        
+        ImportResponse getResponse() {
+            return response;
+        }
+        
+        boolean isFinished() {
+            return status.isFinished();
+        }
+        
+        /**
+         * 标记任务开始执行
+         */
+        void start() {
+            runStartTime = System.currentTimeMillis();
+            status = TaskStatus.RUNNING;
+        }
+        
+        /**
+         * 标记任务结束，填充最终的进度和耗时
+         */
+        void finish() {
+            response.setEndTime(new Date());
+            response.setProcessingTime(response.getEndTime().getTime() - response.getStartTime().getTime());
+            response.setReadRecords(readRecords.get());
+            response.setWrittenRecords(writtenRecords.get());
+            response.setThroughput(throughput(response.getEndTime().getTime()));
+            response.setStatus(response.isSuccess() ? TaskStatus.COMPLETED : TaskStatus.FAILED);
+            // 响应填充完成后再发布状态，查询线程看到结束状态时即可直接返回响应对象
+            status = response.getStatus();
+        }
+        
+        /**
+         * 获取当前进度
+         * 
+         * @return 任务结束后返回最终结果，否则返回包含实时计数的副本
+         */
+        ImportResponse snapshot() {
+            TaskStatus current = status;
+            if (current.isFinished()) {
+                return response;
+            }
+            
+            ImportResponse progress = new ImportResponse();
+            progress.setSuccess(true);
+            progress.setMessage(current.getDescription());
+            progress.setTaskId(taskId);
+            progress.setStatus(current);
+            progress.setStartTime(response.getStartTime());
+            progress.setReadRecords(readRecords.get());
+            progress.setWrittenRecords(writtenRecords.get());
+            progress.setFailureRecords(failureRecords.get());
+            progress.setThroughput(throughput(System.currentTimeMillis()));
+            progress.setProcessingTime(System.currentTimeMillis() - response.getStartTime().getTime());
+            return progress;
+        }
+        
+        private double throughput(long now) {
+            long elapsed = now - runStartTime;
+            if (runStartTime == 0 || elapsed <= 0) {
+                return 0;
+            }
+            return writtenRecords.get() * 1000.0 / elapsed;
+        }
+    }
+    
     /**
      * 导入管道监听器
      */
-    private class ImportPipelineListener implements PipelineListener<Row, Map<String, Object>> {
+    private static class ImportPipelineListener<S> implements PipelineListener<S, Map<String, Object>> {
+        
+        private final ImportTask task;
+        
+        ImportPipelineListener(ImportTask task) {
+            this.task = task;
+        }
+        
         @Override
-        public void onPipelineStart(com.datatool.exceltooracle.core.DataSource<Row> source, 
-                                   com.datatool.exceltooracle.core.DataTarget<Map<String, Object>> target) {
+        public void onPipelineStart(DataSource<S> source, DataTarget<Map<String, Object>> target) {
             log.info("开始数据导入: 从 {} 到 {}", source.getName(), target.getName());
         }
         
@@ -336,15 +1264,22 @@ public class ExcelImportServiceImpl implements ExcelImportService {
                     totalRecords, successRecords, failureRecords);
         }
         
+        @Override
+        public void onRecordStart(S sourceData) {
+            task.readRecords.incrementAndGet();
+        }
+        
         @Override
         public void onBatchComplete(int batchSize) {
+            // 已写入行数由写入连接在数据库执行后记录，并行写入时批次在这里只是提交给写入线程
             log.debug("批处理完成: {} 条记录", batchSize);
         }
         
         @Override
-        public void onRecordError(Row sourceData, String errorMessage) {
+        public void onRecordError(S sourceData, String errorMessage) {
+            task.failureRecords.incrementAndGet();
             log.warn("记录处理错误: 行 {}, 错误: {}", 
-                    sourceData.getRowNum() + 1, errorMessage);
+                    getRowNum(sourceData) + 1, errorMessage);
         }
     }
 } 
\ No newline at end of file
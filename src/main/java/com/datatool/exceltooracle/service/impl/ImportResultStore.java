@@ -0,0 +1,240 @@
+package com.datatool.exceltooracle.service.impl;
+
+import com.datatool.exceltooracle.dto.ImportResponse;
+import com.datatool.exceltooracle.dto.ImportResponse.ErrorRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已结束导入任务的结果存储
+ * <p>
+ * 内存中只保留不含错误明细的结果摘要，错误明细按行写入本地文件（JSON Lines），查询时分页读取。
+ * 结果按结束顺序保存，超过有效期或数量上限时淘汰最早结束的任务并删除其错误明细文件。
+ * </p>
+ */
+@Component
+@Slf4j
+public class ImportResultStore {
+
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Path errorDir;
+    private final Map<String, StoredResult> results = new LinkedHashMap<>();
+
+    /**
+     * 构造导入结果存储
+     *
+     * @param objectMapper JSON序列化工具
+     * @param ttlSeconds 结果保留时间（秒）
+     * @param maxSize 最多保留的任务数量
+     * @param errorDir 错误明细文件目录，为空时使用临时目录
+     */
+    public ImportResultStore(ObjectMapper objectMapper,
+                             @Value("${excel-to-oracle.task-store.ttl-seconds:3600}") long ttlSeconds,
+                             @Value("${excel-to-oracle.task-store.max-size:500}") int maxSize,
+                             @Value("${excel-to-oracle.task-store.error-dir:}") String errorDir) {
+        this.objectMapper = objectMapper;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.maxSize = maxSize;
+        this.errorDir = errorDir.isEmpty()
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "excel-import", "errors")
+                : Paths.get(errorDir);
+        cleanErrorDir();
+    }
+
+    /**
+     * 保存已结束任务的结果
+     * 错误明细写入文件，内存中只保留摘要，传入的响应对象不会被修改
+     *
+     * @param response 导入结果
+     */
+    public void put(ImportResponse response) {
+        Path errorFile = null;
+        List<ErrorRecord> errorRecords = response.getErrorRecords();
+        if (errorRecords != null && !errorRecords.isEmpty()) {
+            errorFile = errorDir.resolve(response.getTaskId() + ".jsonl");
+            try {
+                writeErrors(errorFile, errorRecords);
+            } catch (IOException e) {
+                log.warn("保存错误明细失败，任务 {} 将只保留结果摘要: {}", response.getTaskId(), e.getMessage());
+                deleteQuietly(errorFile);
+                errorFile = null;
+            }
+        }
+
+        ImportResponse summary = copySummary(response);
+        summary.setErrorRecordCount(errorRecords != null ? errorRecords.size() : 0);
+
+        StoredResult stored = new StoredResult(summary, errorFile, System.currentTimeMillis() + ttlMillis);
+        List<StoredResult> evicted = new ArrayList<>();
+        synchronized (results) {
+            results.put(response.getTaskId(), stored);
+            evict(System.currentTimeMillis(), evicted);
+        }
+        evicted.forEach(StoredResult::deleteErrorFile);
+    }
+
+    /**
+     * 查询任务结果
+     *
+     * @param taskId 任务ID
+     * @param errorPage 错误明细页码（从0开始）
+     * @param errorPageSize 每页错误明细条数
+     * @return 结果摘要及一页错误明细，任务不存在或已过期时返回null
+     */
+    public ImportResponse get(String taskId, int errorPage, int errorPageSize) {
+        StoredResult stored;
+        List<StoredResult> evicted = new ArrayList<>();
+        synchronized (results) {
+            evict(System.currentTimeMillis(), evicted);
+            stored = results.get(taskId);
+        }
+        evicted.forEach(StoredResult::deleteErrorFile);
+        if (stored == null) {
+            return null;
+        }
+
+        ImportResponse response = copySummary(stored.summary);
+        if (stored.errorFile != null && errorPage >= 0 && errorPageSize > 0) {
+            try {
+                response.setErrorRecords(readErrors(stored.errorFile, (long) errorPage * errorPageSize, errorPageSize));
+            } catch (IOException e) {
+                log.warn("读取任务 {} 的错误明细失败: {}", taskId, e.getMessage());
+            }
+        }
+        return response;
+    }
+
+    /**
+     * 淘汰过期和超出数量上限的结果，调用方需持有results锁
+     *
+     * @param now 当前时间
+     * @param evicted 被淘汰的结果，由调用方在锁外删除错误明细文件
+     */
+    private void evict(long now, List<StoredResult> evicted) {
+        Iterator<StoredResult> iterator = results.values().iterator();
+        while (iterator.hasNext()) {
+            StoredResult stored = iterator.next();
+            // 按结束顺序排列，遇到第一个未过期且数量未超限的结果即可停止
+            if (stored.expireAt > now && results.size() <= maxSize) {
+                break;
+            }
+            iterator.remove();
+            evicted.add(stored);
+        }
+    }
+
+    private void writeErrors(Path errorFile, List<ErrorRecord> errorRecords) throws IOException {
+        Files.createDirectories(errorDir);
+        try (BufferedWriter writer = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8)) {
+            for (ErrorRecord errorRecord : errorRecords) {
+                writer.write(objectMapper.writeValueAsString(errorRecord));
+                writer.newLine();
+            }
+        }
+    }
+
+    private List<ErrorRecord> readErrors(Path errorFile, long skip, int limit) throws IOException {
+        List<ErrorRecord> errorRecords = new ArrayList<>(Math.min(limit, 1000));
+        try (BufferedReader reader = Files.newBufferedReader(errorFile, StandardCharsets.UTF_8)) {
+            String line;
+            long lineNum = 0;
+            while ((line = reader.readLine()) != null && errorRecords.size() < limit) {
+                if (lineNum++ >= skip) {
+                    errorRecords.add(objectMapper.readValue(line, ErrorRecord.class));
+                }
+            }
+        }
+        return errorRecords;
+    }
+
+    /**
+     * 复制结果摘要（不含错误明细）
+     *
+     * @param source 导入结果
+     * @return 结果摘要
+     */
+    private static ImportResponse copySummary(ImportResponse source) {
+        ImportResponse summary = new ImportResponse();
+        summary.setSuccess(source.isSuccess());
+        summary.setMessage(source.getMessage());
+        summary.setTaskId(source.getTaskId());
+        summary.setStatus(source.getStatus());
+        summary.setTotalRecords(source.getTotalRecords());
+        summary.setSuccessRecords(source.getSuccessRecords());
+        summary.setFailureRecords(source.getFailureRecords());
+        summary.setReadRecords(source.getReadRecords());
+        summary.setWrittenRecords(source.getWrittenRecords());
+        summary.setThroughput(source.getThroughput());
+        summary.setStartTime(source.getStartTime());
+        summary.setEndTime(source.getEndTime());
+        summary.setProcessingTime(source.getProcessingTime());
+        summary.setErrorRecordCount(source.getErrorRecordCount());
+        summary.setSheetResults(source.getSheetResults());
+        return summary;
+    }
+
+    /**
+     * 启动时清理上次运行留下的错误明细文件，对应的结果摘要已不在内存中
+     */
+    private void cleanErrorDir() {
+        if (!Files.isDirectory(errorDir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(errorDir, "*.jsonl")) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        } catch (IOException e) {
+            log.warn("清理错误明细目录失败: {}", e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除错误明细文件失败: {}", file, e);
+        }
+    }
+
+    /**
+     * 已保存的任务结果
+     */
+    private static class StoredResult {
+
+        private final ImportResponse summary;
+        private final Path errorFile;
+        private final long expireAt;
+
+        StoredResult(ImportResponse summary, Path errorFile, long expireAt) {
+            this.summary = summary;
+            this.errorFile = errorFile;
+            this.expireAt = expireAt;
+        }
+
+        void deleteErrorFile() {
+            if (errorFile != null) {
+                deleteQuietly(errorFile);
+            }
+        }
+    }
+}
@@ -1,18 +1,17 @@
 package com.datatool.exceltooracle.service.impl;
 
+import com.datatool.exceltooracle.db.OracleDataTarget;
 import com.datatool.exceltooracle.dto.TableColumnDTO;
 import com.datatool.exceltooracle.dto.TableStructureDTO;
 import com.datatool.exceltooracle.service.TableMetadataService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
-import java.sql.*;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.sql.Types;
 import java.util.List;
-import java.util.Map;
 
 /**
  * 表元数据服务实现类
@@ -22,74 +21,92 @@ import java.util.Map;
 @Slf4j
 public class TableMetadataServiceImpl implements TableMetadataService {
     
+    private static final String STAGING_TABLE_PREFIX = "STG_";
+    
+    /**
+     * 解析表名对应的表，规则与Oracle解析SQL中的表名一致：给出模式名时只查该模式；
+     * 否则依次查当前模式的表、当前模式的同义词、PUBLIC同义词指向的表。
+     * 参数依次为模式名、表名、模式名、表名
+     */
+    private static final String RESOLVE_TABLE_SQL =
+            "SELECT OWNER, TABLE_NAME FROM ("
+            + "SELECT OWNER, TABLE_NAME FROM ("
+            + "SELECT t.OWNER, t.TABLE_NAME, 1 AS PRIORITY FROM ALL_TABLES t "
+            + "WHERE t.OWNER = NVL(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')) AND t.TABLE_NAME = ? "
+            + "UNION ALL "
+            + "SELECT t.OWNER, t.TABLE_NAME, DECODE(s.OWNER, 'PUBLIC', 3, 2) FROM ALL_SYNONYMS s "
+            + "JOIN ALL_TABLES t ON t.OWNER = s.TABLE_OWNER AND t.TABLE_NAME = s.TABLE_NAME "
+            + "WHERE ? IS NULL AND s.OWNER IN (SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA'), 'PUBLIC') "
+            + "AND s.SYNONYM_NAME = ?"
+            + ") ORDER BY PRIORITY) WHERE ROWNUM = 1";
+    
+    /**
+     * 查询表的列结构，表按RESOLVE_TABLE_SQL的规则解析
+     */
+    private static final String TABLE_COLUMNS_SQL =
+            "WITH target AS (" + RESOLVE_TABLE_SQL + ") "
+            + "SELECT c.COLUMN_NAME, c.DATA_TYPE, "
+            + "DECODE(c.DATA_TYPE, 'NUMBER', NVL(c.DATA_PRECISION, 0), 'CHAR', c.CHAR_LENGTH, "
+            + "'VARCHAR2', c.CHAR_LENGTH, 'NCHAR', c.CHAR_LENGTH, 'NVARCHAR2', c.CHAR_LENGTH, "
+            + "c.DATA_LENGTH) AS COLUMN_SIZE, "
+            + "NVL(c.DATA_SCALE, 0) AS DATA_SCALE, c.NULLABLE, c.COLUMN_ID, cm.COMMENTS, "
+            + "CASE WHEN pk.COLUMN_NAME IS NULL THEN 0 ELSE 1 END AS PRIMARY_KEY, c.DATA_DEFAULT "
+            + "FROM target tg "
+            + "JOIN ALL_TAB_COLUMNS c ON c.OWNER = tg.OWNER AND c.TABLE_NAME = tg.TABLE_NAME "
+            + "LEFT JOIN ALL_COL_COMMENTS cm ON cm.OWNER = c.OWNER AND cm.TABLE_NAME = c.TABLE_NAME "
+            + "AND cm.COLUMN_NAME = c.COLUMN_NAME "
+            + "LEFT JOIN (SELECT cc.OWNER, cc.TABLE_NAME, cc.COLUMN_NAME FROM ALL_CONSTRAINTS con "
+            + "JOIN ALL_CONS_COLUMNS cc ON cc.OWNER = con.OWNER AND cc.CONSTRAINT_NAME = con.CONSTRAINT_NAME "
+            + "WHERE con.CONSTRAINT_TYPE = 'P') pk ON pk.OWNER = c.OWNER AND pk.TABLE_NAME = c.TABLE_NAME "
+            + "AND pk.COLUMN_NAME = c.COLUMN_NAME "
+            + "ORDER BY c.COLUMN_ID";
+    
+    /**
+     * 查询表的列签名，用于比较暂存表与原表，表按RESOLVE_TABLE_SQL的规则解析
+     */
+    private static final String COLUMN_SIGNATURES_SQL =
+            "WITH target AS (" + RESOLVE_TABLE_SQL + ") "
+            + "SELECT c.COLUMN_NAME || ':' || c.DATA_TYPE || ':' || c.DATA_LENGTH || ':' "
+            + "|| c.DATA_PRECISION || ':' || c.DATA_SCALE FROM target tg "
+            + "JOIN ALL_TAB_COLUMNS c ON c.OWNER = tg.OWNER AND c.TABLE_NAME = tg.TABLE_NAME "
+            + "ORDER BY c.COLUMN_NAME";
+    
     private final JdbcTemplate jdbcTemplate;
     
     @Override
     public TableStructureDTO getTableStructure(String tableName) {
         log.info("获取表结构信息: {}", tableName);
         
-        if (!tableExists(tableName)) {
-            log.warn("表不存在: {}", tableName);
-            return TableStructureDTO.builder()
-                    .tableName(tableName)
-                    .exists(false)
-                    .message("表不存在")
-                    .build();
-        }
-        
-        Connection connection = null;
         try {
-            List<TableColumnDTO> columns = new ArrayList<>();
-            Map<String, TableColumnDTO> columnMap = new HashMap<>();
-            
-            // 获取表的基本信息 - 明确获取和关闭连接
-            connection = jdbcTemplate.getDataSource().getConnection();
-            DatabaseMetaData metaData = connection.getMetaData();
+            // 一次查询取出列信息、主键标记和注释，DATA_DEFAULT为LONG类型，放在最后读取
+            List<TableColumnDTO> columns = jdbcTemplate.query(TABLE_COLUMNS_SQL,
+                    (rs, rowNum) -> {
+                        String typeName = rs.getString("DATA_TYPE");
+                        int sqlType = getSqlType(typeName);
+                        return TableColumnDTO.builder()
+                                .columnName(rs.getString("COLUMN_NAME"))
+                                .dataType(getDataTypeName(sqlType))
+                                .typeName(typeName)
+                                .columnSize(rs.getInt("COLUMN_SIZE"))
+                                .decimalDigits(rs.getInt("DATA_SCALE"))
+                                .nullable("Y".equals(rs.getString("NULLABLE")))
+                                .primaryKey(rs.getInt("PRIMARY_KEY") == 1)
+                                .remarks(rs.getString("COMMENTS"))
+                                .ordinalPosition(rs.getInt("COLUMN_ID"))
+                                .defaultValue(rs.getString("DATA_DEFAULT"))
+                                .build();
+                    },
+                    resolveParameters(tableName));
             
-            // 获取主键信息
-            try (ResultSet primaryKeys = metaData.getPrimaryKeys(null, null, tableName.toUpperCase())) {
-                while (primaryKeys.next()) {
-                    String columnName = primaryKeys.getString("COLUMN_NAME");
-                    columnMap.put(columnName, TableColumnDTO.builder()
-                            .columnName(columnName)
-                            .primaryKey(true)
-                            .build());
-                }
+            if (columns.isEmpty()) {
+                log.warn("表不存在: {}", tableName);
+                return TableStructureDTO.builder()
+                        .tableName(tableName)
+                        .exists(false)
+                        .message("表不存在")
+                        .build();
             }
             
-            // 获取列信息
-            try (ResultSet columnsRS = metaData.getColumns(null, null, tableName.toUpperCase(), null)) {
-                while (columnsRS.next()) {
-                    String columnName = columnsRS.getString("COLUMN_NAME");
-                    int dataType = columnsRS.getInt("DATA_TYPE");
-                    String typeName = columnsRS.getString("TYPE_NAME");
-                    int columnSize = columnsRS.getInt("COLUMN_SIZE");
-                    int decimalDigits = columnsRS.getInt("DECIMAL_DIGITS");
-                    int nullable = columnsRS.getInt("NULLABLE");
-                    String remarks = columnsRS.getString("REMARKS");
-                    String defaultValue = columnsRS.getString("COLUMN_DEF");
-                    int ordinalPosition = columnsRS.getInt("ORDINAL_POSITION");
-                    
-                    TableColumnDTO columnDTO = columnMap.getOrDefault(columnName, 
-                            TableColumnDTO.builder().columnName(columnName).build());
-                    
-                    columnDTO.setDataType(getDataTypeName(dataType));
-                    columnDTO.setTypeName(typeName);
-                    columnDTO.setColumnSize(columnSize);
-                    columnDTO.setDecimalDigits(decimalDigits);
-                    columnDTO.setNullable(nullable == DatabaseMetaData.columnNullable);
-                    columnDTO.setRemarks(remarks);
-                    columnDTO.setDefaultValue(defaultValue);
-                    columnDTO.setOrdinalPosition(ordinalPosition);
-                    
-                    columnMap.put(columnName, columnDTO);
-                }
-            }
-            
-            // 转换为列表并按序号排序
-            columns.addAll(columnMap.values());
-            columns.sort((c1, c2) -> Integer.compare(c1.getOrdinalPosition(), c2.getOrdinalPosition()));
-            
             // 创建表结构DTO
             return TableStructureDTO.builder()
                     .tableName(tableName)
@@ -98,47 +115,172 @@ public class TableMetadataServiceImpl implements TableMetadataService {
                     .exists(true)
                     .build();
             
-        } catch (SQLException e) {
+        } catch (DataAccessException e) {
             log.error("获取表结构时出错: {}", e.getMessage(), e);
             return TableStructureDTO.builder()
                     .tableName(tableName)
                     .exists(false)
                     .message("获取表结构失败: " + e.getMessage())
                     .build();
-        } finally {
-            // 确保连接关闭
-            if (connection != null) {
-                try {
-                    connection.close();
-                } catch (SQLException e) {
-                    log.warn("关闭数据库连接时出错", e);
-                }
-            }
         }
     }
     
     @Override
     public boolean tableExists(String tableName) {
-        Connection connection = null;
         try {
-            connection = jdbcTemplate.getDataSource().getConnection();
-            DatabaseMetaData metaData = connection.getMetaData();
-            // 在Oracle中表名通常为大写
-            try (ResultSet tables = metaData.getTables(null, null, tableName.toUpperCase(), new String[]{"TABLE"})) {
-                return tables.next();
-            }
-        } catch (SQLException e) {
+            // 与getTableStructure使用相同的表名解析规则
+            return !jdbcTemplate.queryForList(RESOLVE_TABLE_SQL, resolveParameters(tableName)).isEmpty();
+        } catch (DataAccessException e) {
             log.error("检查表是否存在时出错: {}", e.getMessage(), e);
             return false;
-        } finally {
-            // 确保连接关闭
-            if (connection != null) {
-                try {
-                    connection.close();
-                } catch (SQLException e) {
-                    log.warn("关闭数据库连接时出错", e);
-                }
+        }
+    }
+    
+    @Override
+    public synchronized String ensureStagingTable(String tableName) {
+        String stagingTable = getStagingTableName(tableName);
+        String temporary = queryTemporaryFlag(stagingTable);
+        if (temporary != null) {
+            if (!"Y".equals(temporary)) {
+                // 同名的普通表可能是用户数据，不能删除
+                throw new IllegalStateException("暂存表名" + stagingTable + "已被普通表占用，无法用作暂存表");
+            }
+            if (stagingColumnsMatch(tableName, stagingTable)) {
+                return stagingTable;
+            }
+            log.info("暂存表{}与{}的列结构不一致，重新创建", stagingTable, tableName);
+            jdbcTemplate.execute("DROP TABLE " + stagingTable);
+        }
+        
+        log.info("创建暂存表: {} -> {}", tableName, stagingTable);
+        try {
+            // 附加的序号列记录暂存顺序，合并时同一唯一键以序号最大的行为准
+            jdbcTemplate.execute("CREATE GLOBAL TEMPORARY TABLE " + stagingTable
+                    + " ON COMMIT DELETE ROWS AS SELECT t.*, CAST(NULL AS NUMBER) "
+                    + OracleDataTarget.STAGING_SEQUENCE_COLUMN + " FROM " + tableName + " t WHERE 1 = 0");
+        } catch (DataAccessException e) {
+            // 其他导入任务可能同时创建了暂存表
+            if ("Y".equals(queryTemporaryFlag(stagingTable)) && stagingColumnsMatch(tableName, stagingTable)) {
+                return stagingTable;
             }
+            throw e;
+        }
+        
+        // 暂存行只包含部分列的值，去掉从原表复制过来的非空约束
+        List<String> notNullColumns = jdbcTemplate.queryForList(
+                "SELECT COLUMN_NAME FROM USER_TAB_COLUMNS WHERE TABLE_NAME = ? AND NULLABLE = 'N'",
+                String.class, stagingTable);
+        for (String column : notNullColumns) {
+            jdbcTemplate.execute("ALTER TABLE " + stagingTable + " MODIFY (\"" + column + "\" NULL)");
+        }
+        return stagingTable;
+    }
+    
+    /**
+     * 获取暂存表名，使用不带模式名的表名，超过Oracle标识符长度限制时使用哈希缩短
+     * 
+     * @param tableName 表名，可带模式名
+     * @return 暂存表名
+     */
+    private String getStagingTableName(String tableName) {
+        String unqualified = tableName.substring(tableName.lastIndexOf('.') + 1).toUpperCase();
+        String name = STAGING_TABLE_PREFIX + unqualified;
+        if (name.length() <= 30) {
+            return name;
+        }
+        String hash = Integer.toHexString(unqualified.hashCode()).toUpperCase();
+        return name.substring(0, 29 - hash.length()) + "_" + hash;
+    }
+    
+    /**
+     * 查询当前用户下表的临时表标记
+     * 
+     * @param tableName 表名
+     * @return 临时表为Y，普通表为N，表不存在时为null
+     */
+    private String queryTemporaryFlag(String tableName) {
+        List<String> flags = jdbcTemplate.queryForList(
+                "SELECT TEMPORARY FROM USER_TABLES WHERE TABLE_NAME = ?", String.class, tableName);
+        return flags.isEmpty() ? null : flags.get(0);
+    }
+    
+    /**
+     * 比较暂存表与原表的列：列名、类型、长度和精度都相同，且暂存表带有序号列
+     * 
+     * @param tableName 原表名，可带模式名
+     * @param stagingTable 暂存表名
+     * @return 是否一致
+     */
+    private boolean stagingColumnsMatch(String tableName, String stagingTable) {
+        List<String> tableColumns = jdbcTemplate.queryForList(COLUMN_SIGNATURES_SQL, String.class,
+                resolveParameters(tableName));
+        // 暂存表创建在当前模式下
+        List<String> stagingColumns = jdbcTemplate.queryForList(COLUMN_SIGNATURES_SQL, String.class,
+                resolveParameters(stagingTable));
+        
+        String sequencePrefix = OracleDataTarget.STAGING_SEQUENCE_COLUMN + ":";
+        if (!stagingColumns.removeIf(column -> column.startsWith(sequencePrefix))) {
+            return false;
+        }
+        return !tableColumns.isEmpty() && tableColumns.equals(stagingColumns);
+    }
+    
+    /**
+     * 拆分模式名和表名，生成RESOLVE_TABLE_SQL的参数
+     * 
+     * @param tableName 表名，可带模式名
+     * @return 查询参数，不带模式名时模式名参数为null
+     */
+    private Object[] resolveParameters(String tableName) {
+        int dot = tableName.lastIndexOf('.');
+        String owner = dot > 0 ? tableName.substring(0, dot).toUpperCase() : null;
+        String name = tableName.substring(dot + 1).toUpperCase();
+        return new Object[]{owner, name, owner, name};
+    }
+    
+    /**
+     * 将Oracle类型名称转换为SQL类型代码
+     * 
+     * @param typeName Oracle类型名称
+     * @return SQL类型代码
+     */
+    private int getSqlType(String typeName) {
+        if (typeName == null) {
+            return Types.OTHER;
+        }
+        if (typeName.startsWith("TIMESTAMP")) {
+            return Types.TIMESTAMP;
+        }
+        switch (typeName) {
+            case "VARCHAR2":
+            case "NVARCHAR2":
+                return Types.VARCHAR;
+            case "CHAR":
+            case "NCHAR":
+                return Types.CHAR;
+            case "LONG":
+                return Types.LONGVARCHAR;
+            case "NUMBER":
+                return Types.DECIMAL;
+            case "FLOAT":
+                return Types.FLOAT;
+            case "BINARY_FLOAT":
+                return Types.REAL;
+            case "BINARY_DOUBLE":
+                return Types.DOUBLE;
+            case "DATE":
+                return Types.TIMESTAMP;
+            case "BLOB":
+                return Types.BLOB;
+            case "RAW":
+                return Types.VARBINARY;
+            case "LONG RAW":
+                return Types.LONGVARBINARY;
+            case "CLOB":
+            case "NCLOB":
+                return Types.CLOB;
+            default:
+                return Types.OTHER;
         }
     }
     
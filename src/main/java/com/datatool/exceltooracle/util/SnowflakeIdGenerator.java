@@ -1,5 +1,9 @@
 package com.datatool.exceltooracle.util;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * 雪花算法ID生成器
  * <p>
@@ -8,6 +12,15 @@ package com.datatool.exceltooracle.util;
  * 0 - 0000000000 0000000000 0000000000 0000000000 0 - 00000 - 00000 - 000000000000
  * 1位符号位 - 41位时间戳 - 5位数据中心ID - 5位工作机器ID - 12位序列号
  * </p>
+ * <p>
+ * 时间戳和序列号合并保存在一个AtomicLong中（时间戳 &lt;&lt; 12 | 序列号），通过CAS分配，不加锁。
+ * 同一毫秒内序列号用完时借用下一毫秒继续分配，不忙等；逻辑时钟领先系统时钟超过容忍范围时才短暂等待。
+ * {@link #nextIds(int)}一次CAS即可预留一段连续的序列。
+ * </p>
+ * <p>
+ * 节点标识来自租约时，通过{@link #setValidUntil(long)}设置租约的有效期限，
+ * 超过期限的时间戳不再分配，避免租约被其他节点接管后生成重复的ID。
+ * </p>
  */
 public class SnowflakeIdGenerator {
 
@@ -31,13 +44,20 @@ public class SnowflakeIdGenerator {
     private static final long DATACENTER_ID_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS;        // 数据中心ID左移位数: 17
     private static final long TIMESTAMP_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS + DATACENTER_ID_BITS; // 时间戳左移位数: 22
 
-    // 时钟回拨最大容忍毫秒数
+    // 逻辑时钟领先系统时钟的最大容忍毫秒数（序列号借用后续毫秒或时钟回拨），超出时等待系统时钟追上
     private static final long MAX_BACKWARD_MS = 5L;
+    // 逻辑时钟领先系统时钟超过该毫秒数时认为时钟回拨过大，拒绝生成
+    private static final long MAX_CLOCK_SKEW_MS = 1000L;
+    // 一次预留的最大ID数量（最多借用64毫秒）
+    public static final int MAX_BATCH_SIZE = 1 << 18;
 
     private final long workerId;        // 工作机器ID
     private final long datacenterId;    // 数据中心ID
-    private long sequence = 0L;         // 序列号
-    private long lastTimestamp = -1L;   // 上次生成ID的时间戳
+    private final long nodeBits;        // 数据中心ID和工作机器ID在ID中的位
+    // 最后分配的相对时间戳和序列号：(timestamp - startEpoch) << SEQUENCE_BITS | sequence
+    private final AtomicLong state = new AtomicLong(-1L);
+    // 节点标识的有效期限（毫秒时间戳），不早于该时间的时间戳不再分配
+    private volatile long validUntil = Long.MAX_VALUE;
 
     private static volatile SnowflakeIdGenerator instance;
 
@@ -66,6 +86,7 @@ public class SnowflakeIdGenerator {
         this.workerId = workerId;
         this.datacenterId = datacenterId;
         this.startEpoch = startEpoch;
+        this.nodeBits = (datacenterId << DATACENTER_ID_SHIFT) | (workerId << WORKER_ID_SHIFT);
     }
 
     /**
@@ -87,6 +108,7 @@ public class SnowflakeIdGenerator {
      * 获取自定义参数的单例实例
      * @param workerId 工作ID (0~31)
      * @param datacenterId 数据中心ID (0~31)
+     * @throws IllegalStateException 如果单例已使用其他工作机器ID或数据中心ID创建
      */
     public static SnowflakeIdGenerator getInstance(long workerId, long datacenterId) {
         if (instance == null) {
@@ -96,6 +118,7 @@ public class SnowflakeIdGenerator {
                 }
             }
         }
+        checkInstance(workerId, datacenterId);
         return instance;
     }
 
@@ -104,6 +127,7 @@ public class SnowflakeIdGenerator {
      * @param workerId 工作ID (0~31)
      * @param datacenterId 数据中心ID (0~31)
      * @param startEpoch 起始时间戳
+     * @throws IllegalStateException 如果单例已使用其他工作机器ID或数据中心ID创建
      */
     public static SnowflakeIdGenerator getInstance(long workerId, long datacenterId, long startEpoch) {
         if (instance == null) {
@@ -113,69 +137,98 @@ public class SnowflakeIdGenerator {
                 }
             }
         }
+        checkInstance(workerId, datacenterId);
         return instance;
     }
 
+    /**
+     * 设置单例实例，应用启动时根据节点标识替换默认实例
+     * @param generator ID生成器
+     */
+    public static void setInstance(SnowflakeIdGenerator generator) {
+        synchronized (SnowflakeIdGenerator.class) {
+            instance = generator;
+        }
+    }
+
+    private static void checkInstance(long workerId, long datacenterId) {
+        SnowflakeIdGenerator current = instance;
+        if (current.workerId != workerId || current.datacenterId != datacenterId) {
+            throw new IllegalStateException("Snowflake instance already initialized with worker ID " +
+                    current.workerId + " and datacenter ID " + current.datacenterId);
+        }
+    }
+
     /**
      * 获取下一个ID
      */
-    public synchronized long nextId() {
-        long timestamp = System.currentTimeMillis();
-
-        // 如果当前时间小于上一次ID生成的时间戳，说明系统时钟回退过
-        if (timestamp < lastTimestamp) {
-            long offset = lastTimestamp - timestamp;
-            if (offset <= MAX_BACKWARD_MS) {
-                // 如果时钟回拨在容忍范围内，等待时钟追上来
-                try {
-                    Thread.sleep(offset);
-                    timestamp = System.currentTimeMillis();
-                    if (timestamp < lastTimestamp) {
-                        // 还是小于，使用上一次的时间戳
-                        timestamp = lastTimestamp;
-                    }
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw new RuntimeException("Clock moved backwards. Interrupted while waiting.", e);
+    public long nextId() {
+        return toId(reserve(1));
+    }
+
+    /**
+     * 一次获取多个ID，只需一次CAS预留一段连续的序列
+     * @param n ID数量 (1~{@link #MAX_BATCH_SIZE})
+     * @return 递增的ID
+     */
+    public long[] nextIds(int n) {
+        if (n < 1 || n > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("ID count must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        long packed = reserve(n);
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = toId(packed + i);
+        }
+        return ids;
+    }
+
+    /**
+     * 预留n个连续的序列
+     * @param n 序列数量
+     * @return 第一个序列对应的状态值（相对时间戳 << SEQUENCE_BITS | 序列号）
+     */
+    private long reserve(int n) {
+        while (true) {
+            long last = state.get();
+            long now = System.currentTimeMillis() - startEpoch;
+            long lead = (last >> SEQUENCE_BITS) - now;
+            if (lead > MAX_BACKWARD_MS) {
+                if (lead > MAX_CLOCK_SKEW_MS) {
+                    throw new RuntimeException("Clock moved backwards. Refusing to generate id for " +
+                            lead + " milliseconds");
                 }
-            } else {
-                // 超出容忍范围，抛出异常
-                throw new RuntimeException("Clock moved backwards. Refusing to generate id for " +
-                        offset + " milliseconds");
+                // 逻辑时钟领先过多，等待系统时钟追上来
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(lead - MAX_BACKWARD_MS));
+                continue;
             }
-        }
 
-        // 如果是同一时间生成的，则进行毫秒内序列
-        if (lastTimestamp == timestamp) {
-            sequence = (sequence + 1) & MAX_SEQUENCE;
-            // 毫秒内序列溢出
-            if (sequence == 0) {
-                // 阻塞到下一个毫秒，获得新的时间戳
-                timestamp = getNextMillis(lastTimestamp);
+            // 系统时钟前进时从新毫秒的0号序列开始，否则接着上次的序列（序列号溢出时自然进位到下一毫秒）
+            long first = Math.max(now << SEQUENCE_BITS, last + 1);
+            long lastTimestamp = ((first + n - 1) >> SEQUENCE_BITS) + startEpoch;
+            if (lastTimestamp >= validUntil) {
+                throw new IllegalStateException("Node identity of worker " + workerId + ", datacenter "
+                        + datacenterId + " is no longer valid. Refusing to generate id");
+            }
+            if (state.compareAndSet(last, first + n - 1)) {
+                return first;
             }
-        } else {
-            // 时间戳改变，毫秒内序列重置
-            sequence = 0L;
         }
+    }
 
-        lastTimestamp = timestamp;
-
-        // 组合成64位的ID
-        return ((timestamp - startEpoch) << TIMESTAMP_SHIFT) |
-                (datacenterId << DATACENTER_ID_SHIFT) |
-                (workerId << WORKER_ID_SHIFT) |
-                sequence;
+    /**
+     * 设置节点标识的有效期限，到期后生成ID时抛出IllegalStateException
+     * @param epochMillis 有效期限（毫秒时间戳），Long.MAX_VALUE表示不限制，Long.MIN_VALUE表示立即失效
+     */
+    public void setValidUntil(long epochMillis) {
+        this.validUntil = epochMillis;
     }
 
     /**
-     * 阻塞到下一个毫秒，直到获得新的时间戳
+     * 将状态值组合成64位的ID
      */
-    private long getNextMillis(long lastTimestamp) {
-        long timestamp = System.currentTimeMillis();
-        while (timestamp <= lastTimestamp) {
-            timestamp = System.currentTimeMillis();
-        }
-        return timestamp;
+    private long toId(long packed) {
+        return ((packed >> SEQUENCE_BITS) << TIMESTAMP_SHIFT) | nodeBits | (packed & MAX_SEQUENCE);
     }
 
     /**
@@ -0,0 +1,371 @@
+package com.datatool.exceltooracle.xml;
+
+import com.datatool.exceltooracle.excel.SheetRow;
+import com.datatool.exceltooracle.excel.SheetRowSource;
+import org.apache.poi.util.XMLHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * XML流式数据源实现类
+ * <p>
+ * 基于StAX逐个事件读取，每个匹配记录路径的元素产生一条记录，内存占用只与单条记录的大小有关。
+ * 记录路径为从根元素开始的元素名（如"/Statement/Entries/Entry"），以"//"开头时匹配任意深度
+ * （如"//Entry"），*匹配任意元素名，未指定时记录为根元素的直接子元素。元素名按本地名称匹配，忽略命名空间前缀。
+ * </p>
+ * <p>
+ * 字段路径相对于记录元素：子元素用/分隔（如"Party/Name"），属性用@表示（如"@id"、"Party/@type"），
+ * 取值为元素的文本（去除首尾空白，空文本为null），同一路径出现多次时取第一次出现的值。
+ * 字段路径作为表头参与列映射，未映射的子元素直接跳过；未指定字段路径时根据第一条记录中的
+ * 叶子元素和属性确定。记录的行号从0开始，没有表头行。
+ * </p>
+ */
+public class XmlDataSource implements SheetRowSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(XmlDataSource.class);
+
+    private final File xmlFile;
+    private final String[] recordPath;
+    private final boolean anyDepth;
+    private final List<String> configuredPaths;
+
+    private InputStream inputStream;
+    private XMLStreamReader xmlReader;
+    private final List<String> elementStack = new ArrayList<>();
+    private PathNode root;
+    private int fieldCount;
+    private SheetRow headerRow;
+    private SheetRow nextRow;
+    private boolean finished;
+    private int recordIndex;
+
+    /**
+     * 构造XML流式数据源
+     *
+     * @param xmlFile XML文件
+     * @param recordPath 记录元素路径，为空时为根元素的直接子元素
+     * @param fieldPaths 需要读取的字段路径，为null或空时根据第一条记录确定
+     */
+    public XmlDataSource(File xmlFile, String recordPath, List<String> fieldPaths) {
+        if (recordPath == null || recordPath.replace("/", "").trim().isEmpty()) {
+            recordPath = "/*/*";
+        }
+        this.xmlFile = xmlFile;
+        this.anyDepth = recordPath.startsWith("//");
+        this.recordPath = Arrays.stream(recordPath.split("/"))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toArray(String[]::new);
+        this.configuredPaths = fieldPaths;
+    }
+
+    @Override
+    public void open() throws IOException {
+        if (xmlReader != null) {
+            // 已经打开（例如读取表头时），保持当前读取位置
+            return;
+        }
+
+        logger.debug("打开XML数据源: {}", xmlFile.getAbsolutePath());
+
+        try {
+            inputStream = new BufferedInputStream(Files.newInputStream(xmlFile.toPath()), 64 * 1024);
+            xmlReader = XMLHelper.newXMLInputFactory().createXMLStreamReader(inputStream);
+
+            List<String> paths;
+            if (configuredPaths != null && !configuredPaths.isEmpty()) {
+                paths = new ArrayList<>(new LinkedHashSet<>(configuredPaths));
+                buildPathTree(paths);
+                nextRow = readNextRow();
+            } else {
+                // 根据第一条记录的叶子元素和属性确定字段路径
+                Map<String, String> first = null;
+                if (nextRecordStart()) {
+                    first = new LinkedHashMap<>();
+                    collectElement(first, "");
+                }
+                paths = first != null ? new ArrayList<>(first.keySet()) : new ArrayList<>();
+                buildPathTree(paths);
+                if (first != null) {
+                    nextRow = new SheetRow(recordIndex++, first.values().toArray());
+                }
+            }
+            finished = nextRow == null;
+            headerRow = new SheetRow(-1, paths.toArray());
+
+            logger.debug("XML数据源已打开，记录路径: {}, 字段路径: {}", String.join("/", recordPath), paths);
+        } catch (XMLStreamException e) {
+            close();
+            throw new IOException("打开XML文件失败: " + e.getMessage(), e);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (xmlReader != null) {
+                xmlReader.close();
+            }
+        } catch (XMLStreamException e) {
+            logger.warn("关闭XML读取器时出错: {}", e.getMessage());
+        } finally {
+            xmlReader = null;
+            nextRow = null;
+            elementStack.clear();
+            if (inputStream != null) {
+                inputStream.close();
+                inputStream = null;
+                logger.debug("XML数据源已关闭: {}", xmlFile.getAbsolutePath());
+            }
+        }
+    }
+
+    @Override
+    public Iterator<SheetRow> iterator() {
+        if (xmlReader == null) {
+            throw new IllegalStateException("数据源未打开");
+        }
+
+        return new Iterator<SheetRow>() {
+            @Override
+            public boolean hasNext() {
+                if (nextRow == null && !finished) {
+                    try {
+                        nextRow = readNextRow();
+                    } catch (XMLStreamException e) {
+                        throw new IllegalStateException("读取XML记录失败: " + e.getMessage(), e);
+                    }
+                    finished = nextRow == null;
+                }
+                return nextRow != null;
+            }
+
+            @Override
+            public SheetRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("没有更多的记录");
+                }
+
+                SheetRow row = nextRow;
+                nextRow = null;
+                return row;
+            }
+        };
+    }
+
+    /**
+     * 移动到下一个记录元素的开始标签
+     *
+     * @return 是否找到记录元素
+     */
+    private boolean nextRecordStart() throws XMLStreamException {
+        while (xmlReader.hasNext()) {
+            int event = xmlReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                elementStack.add(xmlReader.getLocalName());
+                if (isRecordElement()) {
+                    // 记录元素由记录解析方法读到结束标签为止
+                    elementStack.remove(elementStack.size() - 1);
+                    return true;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                elementStack.remove(elementStack.size() - 1);
+            }
+        }
+        return false;
+    }
+
+    private boolean isRecordElement() {
+        int depth = elementStack.size();
+        if (anyDepth ? depth < recordPath.length : depth != recordPath.length) {
+            return false;
+        }
+        for (int i = 0; i < recordPath.length; i++) {
+            String name = recordPath[recordPath.length - 1 - i];
+            if (!"*".equals(name) && !name.equals(elementStack.get(depth - 1 - i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private SheetRow readNextRow() throws XMLStreamException {
+        if (!nextRecordStart()) {
+            return null;
+        }
+        Object[] values = new Object[fieldCount];
+        readElement(root, values);
+        return new SheetRow(recordIndex++, values);
+    }
+
+    /**
+     * 读取当前元素中已映射的属性、文本和子元素，读到当前元素的结束标签为止
+     *
+     * @param node 当前元素对应的路径节点
+     * @param values 字段值
+     */
+    private void readElement(PathNode node, Object[] values) throws XMLStreamException {
+        for (int i = 0; i < xmlReader.getAttributeCount(); i++) {
+            Integer index = node.attributes.get(xmlReader.getAttributeLocalName(i));
+            if (index != null && values[index] == null) {
+                values[index] = xmlReader.getAttributeValue(i);
+            }
+        }
+
+        StringBuilder text = node.textIndex >= 0 ? new StringBuilder() : null;
+        while (xmlReader.hasNext()) {
+            int event = xmlReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                PathNode child = node.children.get(xmlReader.getLocalName());
+                if (child != null) {
+                    readElement(child, values);
+                } else {
+                    skipElement();
+                }
+            } else if (text != null && (event == XMLStreamConstants.CHARACTERS
+                    || event == XMLStreamConstants.CDATA)) {
+                text.append(xmlReader.getTextCharacters(), xmlReader.getTextStart(), xmlReader.getTextLength());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+        }
+
+        if (text != null && values[node.textIndex] == null) {
+            values[node.textIndex] = textValue(text);
+        }
+    }
+
+    /**
+     * 跳过当前元素（包括所有子元素）
+     */
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && xmlReader.hasNext()) {
+            int event = xmlReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * 读取当前元素的所有叶子元素和属性（用于根据第一条记录确定字段路径），读到当前元素的结束标签为止
+     *
+     * @param values 字段路径到值的映射
+     * @param path 当前元素的路径（记录元素为空）
+     */
+    private void collectElement(Map<String, String> values, String path) throws XMLStreamException {
+        String prefix = path.isEmpty() ? "" : path + "/";
+        for (int i = 0; i < xmlReader.getAttributeCount(); i++) {
+            values.putIfAbsent(prefix + "@" + xmlReader.getAttributeLocalName(i), xmlReader.getAttributeValue(i));
+        }
+
+        StringBuilder text = new StringBuilder();
+        boolean leaf = true;
+        while (xmlReader.hasNext()) {
+            int event = xmlReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                leaf = false;
+                collectElement(values, prefix + xmlReader.getLocalName());
+            } else if (leaf && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA)) {
+                text.append(xmlReader.getTextCharacters(), xmlReader.getTextStart(), xmlReader.getTextLength());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+        }
+
+        if (leaf && !path.isEmpty()) {
+            values.putIfAbsent(path, textValue(text));
+        }
+    }
+
+    private static String textValue(CharSequence text) {
+        String value = text.toString().trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * 将字段路径组织为按元素名逐级查找的树
+     *
+     * @param paths 字段路径
+     */
+    private void buildPathTree(List<String> paths) {
+        root = new PathNode();
+        for (int i = 0; i < paths.size(); i++) {
+            PathNode node = root;
+            String[] names = paths.get(i).split("/");
+            for (int j = 0; j < names.length; j++) {
+                String name = names[j].trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                if (name.startsWith("@") && j == names.length - 1) {
+                    node.attributes.putIfAbsent(name.substring(1), i);
+                    node = null;
+                    break;
+                }
+                node = node.children.computeIfAbsent(name, key -> new PathNode());
+            }
+            if (node != null && node != root) {
+                node.textIndex = i;
+            }
+        }
+        fieldCount = paths.size();
+    }
+
+    @Override
+    public String getName() {
+        return xmlFile.getName();
+    }
+
+    @Override
+    public SourceType getType() {
+        return SourceType.XML;
+    }
+
+    /**
+     * 获取表头行（字段路径）
+     *
+     * @return 表头行，行号为-1
+     */
+    @Override
+    public SheetRow getHeaderRow() {
+        if (xmlReader == null) {
+            throw new IllegalStateException("数据源未打开");
+        }
+        return headerRow;
+    }
+
+    /**
+     * 字段路径树节点
+     */
+    private static class PathNode {
+
+        private final Map<String, PathNode> children = new HashMap<>();
+        private final Map<String, Integer> attributes = new HashMap<>();
+        private int textIndex = -1;
+    }
+}
@@ -0,0 +1,145 @@
+package com.datatool.exceltooracle.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 按列存储的批数据测试
+ */
+class ColumnarBatchTest {
+
+    private final RowRecord.Schema schema = new RowRecord.Schema(new String[]{"ID", "AMOUNT", "CREATED", "NAME"});
+
+    @Test
+    void storesNumbersAndDatesInPrimitiveColumns() {
+        Timestamp created = Timestamp.valueOf("2024-03-01 08:30:15.123");
+        ColumnarBatch batch = new ColumnarBatch(schema, 4);
+        batch.add(row(7L, 12.5, created, "a"));
+
+        assertEquals(ColumnarBatch.KIND_LONG, batch.getKind(0));
+        assertEquals(ColumnarBatch.KIND_DOUBLE, batch.getKind(1));
+        assertEquals(ColumnarBatch.KIND_DATE, batch.getKind(2));
+        assertEquals(ColumnarBatch.KIND_OBJECT, batch.getKind(3));
+        assertEquals(7L, batch.getLong(0, 0));
+        assertEquals(12.5, batch.getDouble(1, 0));
+        assertEquals(created, batch.getTimestamp(2, 0));
+        assertEquals(row(7L, 12.5, created, "a"), batch.get(0));
+    }
+
+    @Test
+    void restoresTheOriginalValueTypes() {
+        LocalDateTime dateTime = LocalDateTime.of(2024, 3, 1, 8, 30, 15, 123_000_000);
+        LocalDate date = LocalDate.of(1969, 12, 31);
+        RowRecord.Schema temporal = new RowRecord.Schema(new String[]{"N", "DT", "D"});
+        ColumnarBatch batch = new ColumnarBatch(temporal, 4);
+        Map<String, Object> row = new HashMap<>();
+        row.put("N", new BigDecimal("42"));
+        row.put("DT", dateTime);
+        row.put("D", date);
+        batch.add(row);
+
+        assertEquals(ColumnarBatch.KIND_LONG, batch.getKind(0));
+        assertEquals(new BigDecimal("42"), batch.getValue(0, 0));
+        assertEquals(dateTime, batch.getValue(1, 0));
+        assertEquals(date, batch.getValue(2, 0));
+        assertEquals(Timestamp.valueOf(dateTime), batch.getTimestamp(1, 0));
+    }
+
+    @Test
+    void valuesThatCannotBeStoredNativelyFallBackToObjects() {
+        ColumnarBatch batch = new ColumnarBatch(schema, 4);
+        batch.add(row(1L, new BigDecimal("1.25"), Timestamp.valueOf("2024-03-01 08:30:15.123456"), "a"));
+        batch.add(row("X2", null, null, "b"));
+
+        // 第二行的ID是字符串，已有的整数装箱后改为对象存储
+        assertEquals(ColumnarBatch.KIND_OBJECT, batch.getKind(0));
+        assertEquals(1L, batch.getValue(0, 0));
+        assertEquals("X2", batch.getValue(0, 1));
+        assertEquals(ColumnarBatch.KIND_OBJECT, batch.getKind(1));
+        assertEquals(new BigDecimal("1.25"), batch.getValue(1, 0));
+        assertEquals(ColumnarBatch.KIND_OBJECT, batch.getKind(2));
+        assertEquals(123_456_000, ((Timestamp) batch.getValue(2, 0)).getNanos());
+    }
+
+    @Test
+    void tracksNullsAcrossGrowth() {
+        ColumnarBatch batch = new ColumnarBatch(schema, 16);
+        for (int i = 0; i < 150; i++) {
+            batch.add(row(i % 3 == 0 ? null : (long) i, (double) i, null, "n" + i));
+        }
+
+        assertEquals(150, batch.size());
+        for (int i = 0; i < 150; i++) {
+            assertEquals(i % 3 == 0, batch.isNull(0, i));
+            assertTrue(batch.isNull(2, i));
+            assertEquals(i % 3 == 0 ? null : (Object) (long) i, batch.getValue(0, i));
+            assertEquals("n" + i, batch.getValue(3, i));
+        }
+
+        batch.clear();
+        assertEquals(0, batch.size());
+        batch.add(row(5L, 1.0, null, "x"));
+        assertFalse(batch.isNull(0, 0));
+        assertNull(batch.getValue(2, 0));
+    }
+
+    @Test
+    void copyRowCopiesValuesFromBatchesWithTheSameSchema() {
+        Timestamp created = Timestamp.valueOf("2024-03-01 00:00:00");
+        ColumnarBatch source = new ColumnarBatch(schema, 4);
+        source.add(row(1L, 1.5, created, "a"));
+        source.add(row(2L, null, created, "b"));
+        ColumnarBatch target = new ColumnarBatch(schema, 4);
+        target.add(row("mixed", 0.5, created, "c"));
+
+        target.copyRow(source, 1);
+        target.copyRow(source, 0);
+
+        assertEquals(3, target.size());
+        assertArrayEquals(new Object[]{2L, null, created, "b"}, values(target, 1));
+        assertArrayEquals(new Object[]{1L, 1.5, created, "a"}, values(target, 2));
+        ColumnarBatch other = new ColumnarBatch(new RowRecord.Schema(new String[]{"ID"}), 4);
+        assertThrows(IllegalArgumentException.class, () -> other.copyRow(source, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> target.copyRow(source, 2));
+    }
+
+    @Test
+    void rejectsFieldsOutsideTheSchema() {
+        ColumnarBatch batch = new ColumnarBatch(schema, 4);
+        Map<String, Object> row = row(1L, 1.0, null, "a");
+        row.put("UNKNOWN", "x");
+
+        assertThrows(IllegalArgumentException.class, () -> batch.add(row));
+        assertEquals(0, batch.size());
+    }
+
+    private static Object[] values(ColumnarBatch batch, int row) {
+        Object[] values = new Object[batch.getSchema().size()];
+        for (int slot = 0; slot < values.length; slot++) {
+            values[slot] = batch.getValue(slot, row);
+        }
+        return values;
+    }
+
+    private static Map<String, Object> row(Object id, Object amount, Object created, Object name) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("ID", id);
+        row.put("AMOUNT", amount);
+        row.put("CREATED", created);
+        row.put("NAME", name);
+        return row;
+    }
+}
@@ -0,0 +1,67 @@
+package com.datatool.exceltooracle.core;
+
+import com.datatool.exceltooracle.core.generator.UuidValueGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 值生成器注册表测试
+ */
+class ValueGeneratorRegistryTest {
+
+    private final ValueGeneratorRegistry registry = ValueGeneratorRegistry.getInstance();
+
+    @Test
+    void unavailableFactoryGeneratorsAreNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        registry.registerFactory("missing:", name -> {
+            calls.incrementAndGet();
+            return null;
+        });
+
+        assertFalse(registry.hasGenerator("missing:A"));
+        assertNull(registry.getGenerator("missing:A"));
+        // 没有缓存失败的结果，每次查找都重新调用工厂
+        assertTrue(calls.get() >= 2);
+        assertNull(registry.getGenerator("missing:"));
+    }
+
+    @Test
+    void factoryExceptionMeansGeneratorNotFound() {
+        registry.registerFactory("broken:", name -> {
+            throw new IllegalArgumentException("无效的名称: " + name);
+        });
+
+        assertFalse(registry.hasGenerator("broken:1-bad"));
+        assertNull(registry.getGenerator("broken:1-bad"));
+    }
+
+    @Test
+    void createdGeneratorsAreCachedButNotListed() {
+        AtomicInteger calls = new AtomicInteger();
+        registry.registerFactory("made:", name -> {
+            calls.incrementAndGet();
+            return new UuidValueGenerator();
+        });
+
+        ValueGenerator first = registry.getGenerator("made:X");
+        assertNotNull(first);
+        assertSame(first, registry.getGenerator("made:X"));
+        assertTrue(registry.hasGenerator("made:X"));
+        assertEquals(1, calls.get());
+        // 生成器列表只包含注册的生成器
+        assertFalse(registry.getAllGenerators().contains(first));
+
+        registry.unregister("made:X");
+        registry.getGenerator("made:X");
+        assertEquals(2, calls.get());
+    }
+}
@@ -0,0 +1,164 @@
+package com.datatool.exceltooracle.core.generator;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 数据库序列值生成器测试
+ */
+class SequenceValueGeneratorTest {
+
+    @Test
+    void prefetchesBlocksAndRefillsBeforeExhaustion() {
+        StubJdbcTemplate jdbc = new StubJdbcTemplate(1);
+        // 后台预取在调用线程中执行，块切换时不需要同步获取
+        SequenceValueGenerator generator = new SequenceValueGenerator(jdbc, "SEQ_A", 10, 1, Runnable::run);
+
+        for (long expected = 1; expected <= 35; expected++) {
+            assertEquals(expected, generator.nextValue());
+        }
+        // 第一块同步获取，之后每块在用到四分之三时预取下一块
+        assertEquals(4, jdbc.fetches.get());
+    }
+
+    @Test
+    void reservesRangesWhenIncrementIsGreaterThanOne() {
+        StubJdbcTemplate jdbc = new StubJdbcTemplate(100);
+        SequenceValueGenerator generator = new SequenceValueGenerator(jdbc, "SEQ_B", 10, 100, Runnable::run);
+
+        Object[] values = generator.generateBatch(250, null);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(i + 1L, values[i]);
+        }
+        assertEquals(251L, generator.nextValue());
+        assertEquals(3, jdbc.fetches.get());
+    }
+
+    @Test
+    void concurrentCallersNeverShareValues() throws Exception {
+        StubJdbcTemplate jdbc = new StubJdbcTemplate(1);
+        ExecutorService refill = Executors.newSingleThreadExecutor();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            SequenceValueGenerator generator = new SequenceValueGenerator(jdbc, "SEQ_C", 10, 1, refill);
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(callers.submit(() -> {
+                    List<Long> taken = new ArrayList<>();
+                    for (int i = 0; i < 2000; i++) {
+                        if (i % 10 == 0) {
+                            for (Object value : generator.generateBatch(7, null)) {
+                                taken.add((Long) value);
+                            }
+                        } else {
+                            taken.add(generator.nextValue());
+                        }
+                    }
+                    return taken;
+                }));
+            }
+            Set<Long> all = new HashSet<>();
+            int count = 0;
+            for (Future<List<Long>> future : futures) {
+                for (Long value : future.get()) {
+                    assertTrue(all.add(value), "序列值重复: " + value);
+                    count++;
+                }
+            }
+            assertEquals(count, all.size());
+        } finally {
+            callers.shutdownNow();
+            refill.shutdownNow();
+        }
+    }
+
+    @Test
+    void createReturnsNullForInvalidOrMissingSequences() {
+        StubJdbcTemplate jdbc = new StubJdbcTemplate(1);
+
+        assertNull(SequenceValueGenerator.create(jdbc, "1BAD; DROP", 10, Runnable::run));
+        assertEquals(0, jdbc.lookups.get());
+
+        jdbc.sequenceExists = false;
+        assertNull(SequenceValueGenerator.create(jdbc, "app.missing_seq", 10, Runnable::run));
+
+        jdbc.lookupFails = true;
+        assertNull(SequenceValueGenerator.create(jdbc, "SEQ_D", 10, Runnable::run));
+
+        jdbc.lookupFails = false;
+        jdbc.sequenceExists = true;
+        SequenceValueGenerator generator = SequenceValueGenerator.create(jdbc, "app.seq_e", 10, Runnable::run);
+        assertNotNull(generator);
+        assertEquals("seq:APP.SEQ_E", generator.getId());
+        assertEquals(List.of("APP", "SEQ_E", "APP", "SEQ_E"), jdbc.lastLookupArgs);
+    }
+
+    /**
+     * 模拟序列的JdbcTemplate：步长大于1时NEXTVAL每次前进一个步长，否则CONNECT BY查询一次返回多个值
+     */
+    private static final class StubJdbcTemplate extends JdbcTemplate {
+
+        private final long increment;
+        private final AtomicLong next = new AtomicLong(1);
+        private final AtomicInteger fetches = new AtomicInteger();
+        private final AtomicInteger lookups = new AtomicInteger();
+        private volatile boolean sequenceExists = true;
+        private volatile boolean lookupFails;
+        private volatile List<Object> lastLookupArgs;
+
+        StubJdbcTemplate(long increment) {
+            this.increment = increment;
+        }
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            fetches.incrementAndGet();
+            return requiredType.cast(next.getAndAdd(increment));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(PreparedStatementCreator psc, RowMapper<T> rowMapper) {
+            fetches.incrementAndGet();
+            // 预取数量绑定在语句参数中，测试中的生成器都按10个值预取
+            int size = 10;
+            long start = next.getAndAdd(size);
+            List<Long> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(start + i);
+            }
+            return (List<T>) values;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            lookups.incrementAndGet();
+            lastLookupArgs = Arrays.asList(args);
+            if (lookupFails) {
+                throw new DataAccessResourceFailureException("连接失败");
+            }
+            return sequenceExists ? (List<T>) Collections.singletonList(increment) : Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.datatool.exceltooracle.core.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * UUID值生成器测试
+ */
+class UuidValueGeneratorTest {
+
+    private static final Pattern STANDARD = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+    private static final Pattern NO_DASHES = Pattern.compile("[0-9a-f]{32}");
+
+    @Test
+    void standardFormatMatchesUuidToString() {
+        UuidValueGenerator generator = new UuidValueGenerator(UuidValueGenerator.Version.FAST_RANDOM,
+                UuidValueGenerator.Format.STANDARD);
+        for (int i = 0; i < 1000; i++) {
+            String value = (String) generator.generate(null);
+            assertTrue(STANDARD.matcher(value).matches(), value);
+            UUID uuid = UUID.fromString(value);
+            // 十六进制编码与UUID.toString一致
+            assertEquals(uuid.toString(), value);
+            assertEquals(4, uuid.version());
+            assertEquals(2, uuid.variant());
+        }
+    }
+
+    @Test
+    void noDashesAndRawEncodeSameBits() {
+        UuidValueGenerator hex = new UuidValueGenerator(UuidValueGenerator.Version.RANDOM,
+                UuidValueGenerator.Format.NO_DASHES);
+        String value = (String) hex.generate(null);
+        assertTrue(NO_DASHES.matcher(value).matches(), value);
+        assertEquals(4, toUuid(value).version());
+
+        UuidValueGenerator raw = new UuidValueGenerator(UuidValueGenerator.Version.FAST_RANDOM,
+                UuidValueGenerator.Format.RAW);
+        byte[] bytes = (byte[]) raw.generate(null);
+        assertEquals(16, bytes.length);
+        UUID uuid = toUuid(bytes);
+        assertEquals(4, uuid.version());
+        assertArrayEquals(bytes, toBytes(uuid));
+    }
+
+    @Test
+    void timeOrderedUuidCarriesTimestampAndIsNotPrefetchable() {
+        UuidValueGenerator generator = new UuidValueGenerator(UuidValueGenerator.Version.TIME_ORDERED,
+                UuidValueGenerator.Format.STANDARD);
+        long before = System.currentTimeMillis();
+        Object[] values = generator.generateBatch(500, null);
+        long after = System.currentTimeMillis();
+
+        Set<String> unique = new HashSet<>();
+        for (Object value : values) {
+            UUID uuid = UUID.fromString((String) value);
+            assertEquals(7, uuid.version());
+            assertEquals(2, uuid.variant());
+            long timestamp = uuid.getMostSignificantBits() >>> 16;
+            assertTrue(timestamp >= before && timestamp <= after);
+            unique.add((String) value);
+        }
+        assertEquals(values.length, unique.size());
+        assertFalse(generator.isPrefetchable());
+        assertTrue(new UuidValueGenerator().isPrefetchable());
+    }
+
+    @Test
+    void idsReflectVersionAndFormat() {
+        assertEquals("uuid", new UuidValueGenerator().getId());
+        assertEquals("uuid-no-dashes", new UuidValueGenerator(true).getId());
+        assertEquals("uuid-v7-raw", new UuidValueGenerator(UuidValueGenerator.Version.TIME_ORDERED,
+                UuidValueGenerator.Format.RAW).getId());
+        assertEquals(byte[].class, new UuidValueGenerator(UuidValueGenerator.Version.FAST_RANDOM,
+                UuidValueGenerator.Format.RAW).getValueType());
+    }
+
+    private static UUID toUuid(String hex) {
+        return new UUID(Long.parseUnsignedLong(hex.substring(0, 16), 16),
+                Long.parseUnsignedLong(hex.substring(16), 16));
+    }
+
+    private static UUID toUuid(byte[] bytes) {
+        long msb = 0;
+        long lsb = 0;
+        for (int i = 0; i < 8; i++) {
+            msb = (msb << 8) | (bytes[i] & 0xFF);
+            lsb = (lsb << 8) | (bytes[i + 8] & 0xFF);
+        }
+        return new UUID(msb, lsb);
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        byte[] bytes = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (uuid.getMostSignificantBits() >>> (56 - i * 8));
+            bytes[i + 8] = (byte) (uuid.getLeastSignificantBits() >>> (56 - i * 8));
+        }
+        return bytes;
+    }
+}
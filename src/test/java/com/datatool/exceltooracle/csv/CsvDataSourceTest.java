@@ -0,0 +1,183 @@
+package com.datatool.exceltooracle.csv;
+
+import com.datatool.exceltooracle.excel.SheetRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CSV数据源的解析和切分测试
+ */
+class CsvDataSourceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parsesQuotedFieldsEscapedQuotesAndEmbeddedNewlines() throws IOException {
+        File file = write("name,remark,amount\n"
+                + "\"Smith, John\",\"say \"\"hi\"\"\",10\n"
+                + "Anna,\"line1\nline2\",\n", StandardCharsets.UTF_8);
+
+        CsvDataSource source = new CsvDataSource(file);
+        source.open();
+        SheetRow header = source.getHeaderRow();
+        List<SheetRow> rows = readAll(source);
+
+        assertArrayEquals(new Object[]{"name", "remark", "amount"}, values(header));
+        assertEquals(2, rows.size());
+        assertArrayEquals(new Object[]{"Smith, John", "say \"hi\"", "10"}, values(rows.get(0)));
+        assertEquals("line1\nline2", rows.get(1).getValue(1));
+        assertNull(rows.get(1).getValue(2));
+        assertEquals(1, rows.get(0).getRowNum());
+        assertEquals(2, rows.get(1).getRowNum());
+    }
+
+    @Test
+    void handlesCrLfLoneCrBlankLinesAndBom() throws IOException {
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        byte[] body = "a,b\r\n1,2\r\n\r\n3,4\r5,6".getBytes(StandardCharsets.UTF_8);
+        byte[] content = new byte[bom.length + body.length];
+        System.arraycopy(bom, 0, content, 0, bom.length);
+        System.arraycopy(body, 0, content, bom.length, body.length);
+        File file = tempDir.resolve("crlf.csv").toFile();
+        Files.write(file.toPath(), content);
+
+        CsvDataSource source = new CsvDataSource(file);
+        source.open();
+        SheetRow header = source.getHeaderRow();
+        List<SheetRow> rows = readAll(source);
+
+        assertArrayEquals(new Object[]{"a", "b"}, values(header));
+        assertEquals(3, rows.size());
+        assertArrayEquals(new Object[]{"1", "2"}, values(rows.get(0)));
+        // 空行计入行号但不输出
+        assertEquals(3, rows.get(1).getRowNum());
+        assertArrayEquals(new Object[]{"3", "4"}, values(rows.get(1)));
+        assertArrayEquals(new Object[]{"5", "6"}, values(rows.get(2)));
+    }
+
+    @Test
+    void detectsGbkAndUsesCustomDelimiter() throws IOException {
+        Charset gbk = CsvDataSource.GBK;
+        File file = write("姓名;城市\n张三;北京\n", gbk);
+
+        CsvDataSource source = new CsvDataSource(file, null, ';', 0, true);
+        source.open();
+        SheetRow header = source.getHeaderRow();
+        assertEquals(gbk, source.getCharset());
+        List<SheetRow> rows = readAll(source);
+
+        assertArrayEquals(new Object[]{"姓名", "城市"}, values(header));
+        assertArrayEquals(new Object[]{"张三", "北京"}, values(rows.get(0)));
+    }
+
+    @Test
+    void splitsAtRecordBoundariesAndKeepsRowNumbers() throws IOException {
+        StringBuilder content = new StringBuilder("id,text\n");
+        for (int i = 0; i < 500; i++) {
+            // 引号内的换行和分隔符不能作为切分位置
+            content.append(i).append(",\"value ").append(i).append("\n, continued\"\n");
+        }
+        File file = write(content.toString(), StandardCharsets.UTF_8);
+
+        List<SheetRow> sequential = readAll(new CsvDataSource(file));
+        List<CsvDataSource.Split> splits = CsvDataSource.split(file, 4);
+        assertEquals(4, splits.size());
+        assertEquals(0, splits.get(0).getStart());
+        assertEquals(file.length(), splits.get(splits.size() - 1).getEnd());
+
+        List<SheetRow> combined = new ArrayList<>();
+        for (int i = 0; i < splits.size(); i++) {
+            if (i > 0) {
+                assertEquals(splits.get(i - 1).getEnd(), splits.get(i).getStart());
+            }
+            combined.addAll(readAll(new CsvDataSource(file, StandardCharsets.UTF_8, ',', 0, true, splits.get(i))));
+        }
+
+        assertEquals(sequential.size(), combined.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).getRowNum(), combined.get(i).getRowNum());
+            assertArrayEquals(values(sequential.get(i)), values(combined.get(i)));
+        }
+    }
+
+    @Test
+    void parallelSourceReturnsAllRows() throws IOException {
+        StringBuilder content = new StringBuilder("id\n");
+        for (int i = 0; i < 2000; i++) {
+            content.append(i).append('\n');
+        }
+        File file = write(content.toString(), StandardCharsets.UTF_8);
+
+        ParallelCsvDataSource source = new ParallelCsvDataSource(file, null, ',', 0, true, 3);
+        source.open();
+        List<String> ids = new ArrayList<>();
+        try {
+            for (Iterator<SheetRow> iterator = source.iterator(); iterator.hasNext(); ) {
+                ids.add((String) iterator.next().getValue(0));
+            }
+        } finally {
+            source.close();
+        }
+
+        assertEquals(2000, ids.size());
+        assertTrue(ids.containsAll(Arrays.asList("0", "999", "1999")));
+    }
+
+    @Test
+    void fileCanBeDeletedAfterClose() throws IOException {
+        File file = write("id\n1\n2\n", StandardCharsets.UTF_8);
+
+        List<SheetRow> rows = readAll(new CsvDataSource(file));
+        CsvDataSource.split(file, 2);
+
+        assertEquals(2, rows.size());
+        assertTrue(file.delete());
+    }
+
+    private File write(String content, Charset charset) throws IOException {
+        File file = Files.createTempFile(tempDir, "data", ".csv").toFile();
+        Files.write(file.toPath(), content.getBytes(charset));
+        return file;
+    }
+
+    /**
+     * 读取全部数据行后关闭数据源（已打开时从当前位置继续读取）
+     */
+    private static List<SheetRow> readAll(CsvDataSource source) throws IOException {
+        source.open();
+        try {
+            List<SheetRow> rows = new ArrayList<>();
+            for (Iterator<SheetRow> iterator = source.iterator(); iterator.hasNext(); ) {
+                rows.add(iterator.next());
+            }
+            return rows;
+        } finally {
+            source.close();
+        }
+    }
+
+    private static Object[] values(SheetRow row) {
+        Object[] values = new Object[row.getLastCellNum()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = row.getValue(i);
+        }
+        return values;
+    }
+}
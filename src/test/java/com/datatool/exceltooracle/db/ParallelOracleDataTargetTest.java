@@ -0,0 +1,281 @@
+package com.datatool.exceltooracle.db;
+
+import com.datatool.exceltooracle.core.ColumnarBatch;
+import com.datatool.exceltooracle.core.RowRecord;
+import com.datatool.exceltooracle.db.ParallelOracleDataTarget.TransactionPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 多连接并行写入测试（使用不访问数据库的单连接数据目标）
+ */
+class ParallelOracleDataTargetTest {
+
+    private final List<StubWriter> writers = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void rowsWithTheSameKeyAlwaysGoToTheSameConnection() throws IOException {
+        ParallelOracleDataTarget target = newTarget(3, TransactionPolicy.PER_CONNECTION, "ID");
+        target.open();
+        target.write(Arrays.asList(row(1, "a"), row(2, "b"), row(3, "c"), row(4, "d")));
+        // 1、1.0和"1"按数值计算散列值，键列名不区分大小写
+        target.write(Arrays.asList(row(new BigDecimal("1.0"), "e"), lowerCaseRow("1", "f"), row(2, "g")));
+        target.flush();
+        target.close();
+
+        assertEquals(7, totalRows());
+        assertEquals(1, writersWithKey("1"));
+        assertEquals(1, writersWithKey("2"));
+        assertEquals(Arrays.asList("a", "e", "f"), namesOfKey("1"));
+        for (StubWriter writer : writers) {
+            assertEquals(writer.batches.size(), writer.commits.get());
+        }
+    }
+
+    @Test
+    void columnarBatchesArePartitionedByCopyingRows() throws IOException {
+        RowRecord.Schema schema = new RowRecord.Schema(new String[]{"ID", "NAME"});
+        ColumnarBatch batch = new ColumnarBatch(schema, 16);
+        for (int i = 0; i < 20; i++) {
+            batch.add(row(i % 5, "n" + i));
+        }
+        ParallelOracleDataTarget target = newTarget(3, TransactionPolicy.ALL_OR_NOTHING, "id");
+        target.open();
+        target.write(batch);
+        target.flush();
+        target.close();
+
+        assertEquals(20, totalRows());
+        for (StubWriter writer : writers) {
+            for (List<Map<String, Object>> part : writer.batches) {
+                assertTrue(part instanceof ColumnarBatch);
+                assertEquals(schema, ((ColumnarBatch) part).getSchema());
+            }
+        }
+        for (int key = 0; key < 5; key++) {
+            assertEquals(1, writersWithKey(String.valueOf(key)));
+        }
+    }
+
+    @Test
+    void allOrNothingCommitsEveryConnectionOnlyAfterFlush() throws IOException {
+        ParallelOracleDataTarget target = newTarget(2, TransactionPolicy.ALL_OR_NOTHING, "ID");
+        target.open();
+        target.write(Arrays.asList(row(1, "a"), row(2, "b"), row(3, "c")));
+        target.flush();
+
+        for (StubWriter writer : writers) {
+            assertEquals(1, writer.commits.get());
+        }
+        target.close();
+        for (StubWriter writer : writers) {
+            assertTrue(writer.closed);
+        }
+    }
+
+    @Test
+    void allOrNothingRollsBackEveryConnectionWhenOneLaneFails() throws IOException {
+        ParallelOracleDataTarget target = newTarget(3, TransactionPolicy.ALL_OR_NOTHING, "ID");
+        target.open();
+        target.write(Arrays.asList(row(1, "a"), row(2, "b"), row(3, "fail"), row(4, "d")));
+
+        IOException error = assertThrows(IOException.class, target::flush);
+        assertEquals("写入失败: fail", error.getMessage());
+        target.close();
+
+        for (StubWriter writer : writers) {
+            assertEquals(0, writer.commits.get());
+            assertTrue(writer.rollbacks.get() > 0);
+            assertTrue(writer.closed);
+        }
+        assertThrows(IOException.class, () -> target.write(Collections.singletonList(row(5, "e"))));
+    }
+
+    @Test
+    void writeBlocksWhenInFlightBatchesReachTheLimit() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ParallelOracleDataTarget target = new ParallelOracleDataTarget(() -> {
+            StubWriter writer = new StubWriter(release);
+            writers.add(writer);
+            return writer;
+        }, "T", 1, TransactionPolicy.PER_CONNECTION);
+        target.open();
+
+        AtomicInteger submitted = new AtomicInteger();
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 3; i++) {
+                    target.write(Collections.singletonList(row(i, "n" + i)));
+                    submitted.incrementAndGet();
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        producer.start();
+
+        // 一个连接最多两个在途批次，第三个批次要等前面的批次写完
+        long deadline = System.currentTimeMillis() + 5000;
+        while (submitted.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(200);
+        assertEquals(2, submitted.get());
+        assertTrue(producer.isAlive());
+
+        release.countDown();
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+        target.flush();
+        target.close();
+        assertEquals(3, submitted.get());
+        assertEquals(3, totalRows());
+    }
+
+    private ParallelOracleDataTarget newTarget(int parallelism, TransactionPolicy policy, String keyColumn) {
+        return new ParallelOracleDataTarget(() -> {
+            StubWriter writer = new StubWriter(null);
+            writers.add(writer);
+            return writer;
+        }, "T", parallelism, policy, new String[]{keyColumn});
+    }
+
+    private int totalRows() {
+        int rows = 0;
+        for (StubWriter writer : writers) {
+            for (List<Map<String, Object>> batch : writer.batches) {
+                rows += batch.size();
+            }
+        }
+        return rows;
+    }
+
+    private int writersWithKey(String key) {
+        int count = 0;
+        for (StubWriter writer : writers) {
+            if (writer.keys().contains(key)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private List<String> namesOfKey(String key) {
+        List<String> names = new ArrayList<>();
+        for (StubWriter writer : writers) {
+            for (List<Map<String, Object>> batch : writer.batches) {
+                for (Map<String, Object> row : batch) {
+                    if (key.equals(normalize(value(row, "ID")))) {
+                        names.add((String) value(row, "NAME"));
+                    }
+                }
+            }
+        }
+        return names;
+    }
+
+    private static Map<String, Object> row(Object id, String name) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("ID", id);
+        row.put("NAME", name);
+        return row;
+    }
+
+    private static Map<String, Object> lowerCaseRow(Object id, String name) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("name", name);
+        return row;
+    }
+
+    private static Object value(Map<String, Object> row, String column) {
+        Object value = row.get(column);
+        return value != null ? value : row.get(column.toLowerCase());
+    }
+
+    private static String normalize(Object key) {
+        return new BigDecimal(key.toString()).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * 记录写入、提交和回滚的单连接数据目标，NAME为"fail"的行写入失败
+     */
+    private static class StubWriter extends OracleDataTarget {
+
+        private final List<List<Map<String, Object>>> batches = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger commits = new AtomicInteger();
+        private final AtomicInteger rollbacks = new AtomicInteger();
+        private final CountDownLatch release;
+        private volatile boolean closed;
+
+        StubWriter(CountDownLatch release) {
+            super(null, "T", WriteMode.INSERT, null, null);
+            this.release = release;
+        }
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public void write(List<Map<String, Object>> data) throws IOException {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            for (Map<String, Object> row : data) {
+                if ("fail".equals(value(row, "NAME"))) {
+                    throw new IOException("写入失败: fail");
+                }
+            }
+            batches.add(data);
+        }
+
+        @Override
+        public void commit() {
+            commits.incrementAndGet();
+        }
+
+        @Override
+        public void rollback() {
+            rollbacks.incrementAndGet();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        Set<String> keys() {
+            Set<String> keys = new HashSet<>();
+            synchronized (batches) {
+                for (List<Map<String, Object>> batch : batches) {
+                    for (Map<String, Object> row : batch) {
+                        keys.add(normalize(value(row, "ID")));
+                    }
+                }
+            }
+            return keys;
+        }
+    }
+}
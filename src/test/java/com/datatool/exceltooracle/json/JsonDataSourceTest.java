@@ -0,0 +1,114 @@
+package com.datatool.exceltooracle.json;
+
+import com.datatool.exceltooracle.excel.SheetRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * JSON数据源的字段路径测试
+ */
+class JsonDataSourceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsNestedPathsFromJsonLines() throws IOException {
+        File file = write("{\"id\":1,\"customer\":{\"name\":\"A\",\"tags\":[\"x\"]},\"skip\":{\"deep\":[1,2]}}\n"
+                + "{\"id\":12345678901234567890,\"customer\":{\"name\":\"B\"},\"amount\":1.50}\n");
+
+        List<SheetRow> rows = readAll(new JsonDataSource(file, null,
+                Arrays.asList("id", "customer.name", "customer.tags", "amount")));
+
+        assertEquals(2, rows.size());
+        assertArrayEquals(new Object[]{1L, "A", "[\"x\"]", null}, values(rows.get(0)));
+        assertEquals(new BigDecimal("12345678901234567890"), rows.get(1).getValue(0));
+        assertEquals("B", rows.get(1).getValue(1));
+        assertNull(rows.get(1).getValue(2));
+        assertEquals(new BigDecimal("1.50"), rows.get(1).getValue(3));
+    }
+
+    @Test
+    void leavesLeavesNullWhenIntermediateNodeIsNotAnObject() throws IOException {
+        // 中间节点a的值是数组或标量时，a.x为空，不影响其他字段
+        File file = write("{\"a\":[1,2],\"b\":1}\n{\"a\":{\"x\":5},\"b\":2}\n{\"a\":3,\"b\":3}\n");
+
+        List<SheetRow> rows = readAll(new JsonDataSource(file, null, Arrays.asList("a.x", "b")));
+
+        assertEquals(3, rows.size());
+        assertArrayEquals(new Object[]{null, 1L}, values(rows.get(0)));
+        assertArrayEquals(new Object[]{5L, 2L}, values(rows.get(1)));
+        assertArrayEquals(new Object[]{null, 3L}, values(rows.get(2)));
+    }
+
+    @Test
+    void mapsObjectAndItsChildrenAtTheSameTime() throws IOException {
+        File file = write("[{\"a\":{\"x\":1,\"y\":2}}]");
+
+        List<SheetRow> rows = readAll(new JsonDataSource(file, null, Arrays.asList("a", "a.y")));
+
+        assertEquals(1, rows.size());
+        assertEquals("{\"x\":1,\"y\":2}", rows.get(0).getValue(0));
+        assertEquals(2L, rows.get(0).getValue(1));
+    }
+
+    @Test
+    void locatesRecordsByPathAndInfersLeafPaths() throws IOException {
+        File file = write("{\"meta\":{\"n\":2},\"data\":{\"items\":[{\"k\":\"a\",\"v\":{\"w\":true}},{\"k\":\"b\"}]}}");
+
+        JsonDataSource source = new JsonDataSource(file, "data.items", null);
+        source.open();
+        SheetRow header = source.getHeaderRow();
+        List<SheetRow> rows = readAll(source);
+
+        assertArrayEquals(new Object[]{"k", "v.w"}, values(header));
+        assertArrayEquals(new Object[]{"a", Boolean.TRUE}, values(rows.get(0)));
+        assertArrayEquals(new Object[]{"b", null}, values(rows.get(1)));
+        assertEquals(1, rows.get(1).getRowNum());
+    }
+
+    private File write(String content) throws IOException {
+        File file = Files.createTempFile(tempDir, "data", ".json").toFile();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /**
+     * 读取全部记录后关闭数据源（已打开时从当前位置继续读取）
+     */
+    private static List<SheetRow> readAll(JsonDataSource source) throws IOException {
+        source.open();
+        try {
+            List<SheetRow> rows = new ArrayList<>();
+            for (Iterator<SheetRow> iterator = source.iterator(); iterator.hasNext(); ) {
+                rows.add(iterator.next());
+            }
+            return rows;
+        } finally {
+            source.close();
+        }
+    }
+
+    private static Object[] values(SheetRow row) {
+        Object[] values = new Object[row.getLastCellNum()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = row.getValue(i);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,329 @@
+package com.datatool.exceltooracle.pipeline;
+
+import com.datatool.exceltooracle.core.DataProcessor;
+import com.datatool.exceltooracle.core.DataSource;
+import com.datatool.exceltooracle.core.DataTarget;
+import com.datatool.exceltooracle.core.ProcessContext;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 数据处理管道的分阶段和并行执行测试
+ */
+class DataPipelineTest {
+
+    @Test
+    void stagedExecutionWritesAllRowsInOrder() throws IOException {
+        ListSource source = new ListSource(2500, -1);
+        CollectingTarget target = new CollectingTarget(-1);
+        DataPipeline.PipelineResult result = new DataPipeline<>(source, target)
+                .addProcessor(processor(value -> value * 2))
+                .setBatchSize(100)
+                .setStaged(true)
+                .execute();
+
+        assertEquals(2500, result.getTotalRecords());
+        assertEquals(2500, result.getSuccessRecords());
+        assertEquals(expected(2500), target.values);
+        assertTrue(target.maxBatchSize <= 100);
+        assertTrue(source.closed);
+        assertTrue(target.closed);
+    }
+
+    @Test
+    void recordErrorsAreCountedWithoutStoppingThePipeline() throws IOException {
+        CollectingTarget target = new CollectingTarget(-1);
+        DataPipeline.PipelineResult result = new DataPipeline<>(new ListSource(1000, -1), target)
+                .addProcessor(processor(value -> {
+                    if (value % 10 == 0) {
+                        throw new IllegalArgumentException("无效的值: " + value);
+                    }
+                    return value;
+                }))
+                .setBatchSize(64)
+                .setStaged(true)
+                .execute();
+
+        assertEquals(1000, result.getTotalRecords());
+        assertEquals(100, result.getFailureRecords());
+        assertEquals(900, target.values.size());
+    }
+
+    @Test
+    void writeStageErrorIsRethrown() {
+        ListSource source = new ListSource(5000, -1);
+        CollectingTarget target = new CollectingTarget(1234);
+        DataPipeline<Integer, Integer> pipeline = new DataPipeline<>(source, target)
+                .addProcessor(processor(value -> value))
+                .setBatchSize(100)
+                .setStaged(true);
+
+        IOException error = assertThrows(IOException.class, pipeline::execute);
+        assertEquals("写入失败: 1234", error.getMessage());
+        assertTrue(source.closed);
+        assertTrue(target.closed);
+    }
+
+    @Test
+    void readStageErrorIsRethrown() {
+        CollectingTarget target = new CollectingTarget(-1);
+        DataPipeline<Integer, Integer> pipeline = new DataPipeline<>(new ListSource(5000, 777), target)
+                .addProcessor(processor(value -> value))
+                .setBatchSize(100)
+                .setStaged(true);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, pipeline::execute);
+        assertEquals("读取失败: 777", error.getMessage());
+        assertTrue(target.values.size() <= 777);
+    }
+
+    @Test
+    void parallelExecutionPreservesSourceOrder() throws IOException {
+        CollectingTarget target = new CollectingTarget(-1);
+        DataPipeline.PipelineResult result = new DataPipeline<>(new ListSource(3000, -1), target)
+                .addProcessor(processor(value -> {
+                    // 让各批次的完成顺序与提交顺序不同
+                    if (value % 50 == 0) {
+                        sleep(ThreadLocalRandom.current().nextInt(5));
+                    }
+                    return value * 2;
+                }))
+                .setBatchSize(50)
+                .setParallelism(4)
+                .setPreserveOrder(true)
+                .execute();
+
+        assertEquals(3000, result.getSuccessRecords());
+        assertEquals(expected(3000), target.values);
+    }
+
+    @Test
+    void unorderedParallelExecutionWritesEveryRow() throws IOException {
+        CollectingTarget target = new CollectingTarget(-1);
+        new DataPipeline<>(new ListSource(3000, -1), target)
+                .addProcessor(processor(value -> value * 2))
+                .setBatchSize(50)
+                .setParallelism(4)
+                .setPreserveOrder(false)
+                .execute();
+
+        List<Integer> values = new ArrayList<>(target.values);
+        Collections.sort(values);
+        assertEquals(expected(3000), values);
+    }
+
+    @Test
+    void workerErrorStopsTheParallelPipeline() {
+        ListSource source = new ListSource(5000, -1);
+        CollectingTarget target = new CollectingTarget(-1);
+        DataPipeline<Integer, Integer> pipeline = new DataPipeline<>(source, target)
+                .addProcessor(processor(value -> {
+                    if (value == 2000) {
+                        throw new AssertionError("处理失败: " + value);
+                    }
+                    return value;
+                }))
+                .setBatchSize(100)
+                .setParallelism(3);
+
+        IOException error = assertThrows(IOException.class, pipeline::execute);
+        assertTrue(error.getCause() instanceof AssertionError);
+        assertTrue(target.values.size() < 5000);
+        assertTrue(source.closed);
+        assertTrue(target.closed);
+    }
+
+    @Test
+    void parallelWriteErrorIsRethrown() {
+        CollectingTarget target = new CollectingTarget(4321);
+        DataPipeline<Integer, Integer> pipeline = new DataPipeline<>(new ListSource(5000, -1), target)
+                .addProcessor(processor(value -> value))
+                .setBatchSize(100)
+                .setParallelism(3)
+                .setPreserveOrder(false);
+
+        IOException error = assertThrows(IOException.class, pipeline::execute);
+        assertEquals("写入失败: 4321", error.getMessage());
+    }
+
+    @Test
+    void processContextsAreReusedAcrossChunks() throws IOException {
+        Set<ProcessContext> contexts = ConcurrentHashMap.newKeySet();
+        DataProcessor<Integer, Integer> recorder = new DataProcessor<Integer, Integer>() {
+            @Override
+            public Integer process(Integer input, ProcessContext context) {
+                contexts.add(context);
+                return input;
+            }
+
+            @Override
+            public String getName() {
+                return "context";
+            }
+
+            @Override
+            public String getDescription() {
+                return "记录处理上下文";
+            }
+        };
+        new DataPipeline<>(new ListSource(2000, -1), new CollectingTarget(-1))
+                .addProcessor(recorder)
+                .setBatchSize(10)
+                .setParallelism(2)
+                .setVirtualThreads(true)
+                .execute();
+
+        // 200批数据最多使用在途任务上限（工作线程数的两倍）个上下文
+        assertTrue(contexts.size() <= 4, "上下文数量: " + contexts.size());
+    }
+
+    private static List<Integer> expected(int count) {
+        List<Integer> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(i * 2);
+        }
+        return values;
+    }
+
+    private static DataProcessor<Integer, Integer> processor(UnaryOperator<Integer> function) {
+        return new DataProcessor<Integer, Integer>() {
+            @Override
+            public Integer process(Integer input, ProcessContext context) {
+                return function.apply(input);
+            }
+
+            @Override
+            public String getName() {
+                return "test";
+            }
+
+            @Override
+            public String getDescription() {
+                return "测试处理器";
+            }
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 依次产生0到count-1的数据源，读到failAt时抛出异常
+     */
+    private static class ListSource implements DataSource<Integer> {
+
+        private final int count;
+        private final int failAt;
+        volatile boolean closed;
+
+        ListSource(int count, int failAt) {
+            this.count = count;
+            this.failAt = failAt;
+        }
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return new Iterator<Integer>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < count;
+                }
+
+                @Override
+                public Integer next() {
+                    if (next == failAt) {
+                        throw new IllegalStateException("读取失败: " + failAt);
+                    }
+                    return next++;
+                }
+            };
+        }
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public SourceType getType() {
+            return SourceType.CSV;
+        }
+    }
+
+    /**
+     * 收集写入数据的数据目标，批次中包含failOn时写入失败
+     */
+    private static class CollectingTarget implements DataTarget<Integer> {
+
+        private final int failOn;
+        final List<Integer> values = Collections.synchronizedList(new ArrayList<>());
+        volatile int maxBatchSize;
+        volatile boolean closed;
+
+        CollectingTarget(int failOn) {
+            this.failOn = failOn;
+        }
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public void write(Integer data) throws IOException {
+            write(Collections.singletonList(data));
+        }
+
+        @Override
+        public void write(List<Integer> data) throws IOException {
+            if (data.contains(failOn)) {
+                throw new IOException("写入失败: " + failOn);
+            }
+            maxBatchSize = Math.max(maxBatchSize, data.size());
+            values.addAll(data);
+        }
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public TargetType getType() {
+            return TargetType.OTHER_DATABASE;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.datatool.exceltooracle.service.impl;
+
+import com.datatool.exceltooracle.dto.ImportResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 导入结果存储测试
+ */
+class ImportResultStoreTest {
+
+    @TempDir
+    Path errorDir;
+
+    @Test
+    void keepsSummaryInMemoryAndPagesErrorsFromFile() {
+        ImportResultStore store = newStore(3600, 10);
+        ImportResponse response = response("t1", 25);
+        store.put(response);
+
+        ImportResponse page = store.get("t1", 1, 10);
+
+        assertEquals(25, page.getErrorRecordCount());
+        assertEquals(25, page.getFailureRecords());
+        assertEquals(10, page.getErrorRecords().size());
+        assertEquals(10, page.getErrorRecords().get(0).getRowNum());
+        assertEquals("错误19", page.getErrorRecords().get(9).getErrorMessage());
+        assertEquals(5, store.get("t1", 2, 10).getErrorRecords().size());
+        assertTrue(store.get("t1", 0, 0).getErrorRecords().isEmpty());
+        // 传入的响应对象不被修改
+        assertEquals(25, response.getErrorRecords().size());
+        assertTrue(Files.exists(errorDir.resolve("t1.jsonl")));
+    }
+
+    @Test
+    void evictsTheOldestResultAndItsErrorFileWhenFull() {
+        ImportResultStore store = newStore(3600, 2);
+        store.put(response("t1", 3));
+        store.put(response("t2", 0));
+        store.put(response("t3", 1));
+
+        assertNull(store.get("t1", 0, 10));
+        assertFalse(Files.exists(errorDir.resolve("t1.jsonl")));
+        assertNotNull(store.get("t2", 0, 10));
+        assertEquals(1, store.get("t3", 0, 10).getErrorRecords().size());
+    }
+
+    @Test
+    void expiredResultsAreRemoved() {
+        ImportResultStore store = newStore(0, 10);
+        store.put(response("t1", 2));
+
+        assertNull(store.get("t1", 0, 10));
+        assertFalse(Files.exists(errorDir.resolve("t1.jsonl")));
+    }
+
+    @Test
+    void removesErrorFilesLeftByThePreviousRun() throws IOException {
+        Path leftover = Files.write(errorDir.resolve("old.jsonl"), "{}".getBytes());
+        Path other = Files.write(errorDir.resolve("keep.txt"), "x".getBytes());
+
+        newStore(3600, 10);
+
+        assertFalse(Files.exists(leftover));
+        assertTrue(Files.exists(other));
+    }
+
+    private ImportResultStore newStore(long ttlSeconds, int maxSize) {
+        return new ImportResultStore(new ObjectMapper(), ttlSeconds, maxSize, errorDir.toString());
+    }
+
+    private static ImportResponse response(String taskId, int errors) {
+        ImportResponse response = ImportResponse.success("完成");
+        response.setTaskId(taskId);
+        response.setFailureRecords(errors);
+        List<ImportResponse.ErrorRecord> errorRecords = response.getErrorRecords();
+        for (int i = 0; i < errors; i++) {
+            ImportResponse.ErrorRecord errorRecord = new ImportResponse.ErrorRecord();
+            errorRecord.setRowNum(i);
+            errorRecord.setErrorMessage("错误" + i);
+            errorRecords.add(errorRecord);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,104 @@
+package com.datatool.exceltooracle.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 雪花算法ID生成器测试
+ */
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void concurrentIdsAreUniqueAndIncreasingPerThread() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, 7);
+        int threads = 8;
+        int perThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Callable<long[]> task = () -> {
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        // 单个获取和批量获取交替使用
+                        if (i % 100 == 0 && i + 50 <= perThread) {
+                            long[] batch = generator.nextIds(50);
+                            System.arraycopy(batch, 0, ids, i, 50);
+                            i += 49;
+                        } else {
+                            ids[i] = generator.nextId();
+                        }
+                    }
+                    return ids;
+                };
+                futures.add(executor.submit(task));
+            }
+
+            Set<Long> all = new HashSet<>(threads * perThread * 2);
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                for (int i = 0; i < ids.length; i++) {
+                    if (i > 0) {
+                        assertTrue(ids[i] > ids[i - 1], "同一线程内ID应递增");
+                    }
+                    assertTrue(all.add(ids[i]), "ID重复: " + ids[i]);
+                }
+            }
+            assertEquals(threads * perThread, all.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void nextIdsReturnsConsecutiveIdsWithNodeBits() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(5, 9);
+        long[] ids = generator.nextIds(10_000);
+
+        assertEquals(10_000, ids.length);
+        for (int i = 1; i < ids.length; i++) {
+            assertTrue(ids[i] > ids[i - 1]);
+        }
+        for (long id : ids) {
+            assertEquals(5, generator.getWorkerId(id));
+            assertEquals(9, generator.getDatacenterId(id));
+        }
+        // 序列号用完时借用下一毫秒：4096个序列之后时间戳加一
+        assertTrue(generator.getTimestamp(ids[ids.length - 1]) >= generator.getTimestamp(ids[0]) + 2);
+    }
+
+    @Test
+    void rejectsInvalidBatchSizeAndNodeIds() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> generator.nextIds(0));
+        assertThrows(IllegalArgumentException.class, () -> generator.nextIds(SnowflakeIdGenerator.MAX_BATCH_SIZE + 1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(32, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(0, -1));
+    }
+
+    @Test
+    void refusesIdsAfterNodeIdentityExpires() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 1);
+        generator.nextId();
+
+        generator.setValidUntil(Long.MIN_VALUE);
+        assertThrows(IllegalStateException.class, generator::nextId);
+        assertThrows(IllegalStateException.class, () -> generator.nextIds(10));
+
+        generator.setValidUntil(Long.MAX_VALUE);
+        assertTrue(generator.nextId() > 0);
+    }
+}
@@ -0,0 +1,104 @@
+package com.datatool.exceltooracle.xml;
+
+import com.datatool.exceltooracle.excel.SheetRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * XML数据源的记录路径和字段路径测试
+ */
+class XmlDataSourceTest {
+
+    private static final String STATEMENT = "<?xml version=\"1.0\"?>"
+            + "<ns:Statement xmlns:ns=\"urn:test\"><Header><Id>H</Id></Header><Entries>"
+            + "<Entry id=\"1\"><Party type=\"org\"><Name> ACME </Name></Party><Amount>10</Amount>"
+            + "<Amount>20</Amount><Ignored><Deep>x</Deep></Ignored></Entry>"
+            + "<Entry id=\"2\"><Party><Name></Name></Party></Entry>"
+            + "</Entries></ns:Statement>";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsAttributesNestedElementsAndFirstOccurrence() throws IOException {
+        File file = write(STATEMENT);
+
+        List<SheetRow> rows = readAll(new XmlDataSource(file, "/Statement/Entries/Entry",
+                Arrays.asList("@id", "Party/@type", "Party/Name", "Amount")));
+
+        assertEquals(2, rows.size());
+        assertArrayEquals(new Object[]{"1", "org", "ACME", "10"}, values(rows.get(0)));
+        // 空文本和缺少的元素为null
+        assertArrayEquals(new Object[]{"2", null, null, null}, values(rows.get(1)));
+    }
+
+    @Test
+    void matchesRecordsAtAnyDepth() throws IOException {
+        File file = write(STATEMENT);
+
+        List<SheetRow> rows = readAll(new XmlDataSource(file, "//Entry", Arrays.asList("@id")));
+
+        assertEquals(2, rows.size());
+        assertEquals("2", rows.get(1).getValue(0));
+        assertEquals(1, rows.get(1).getRowNum());
+    }
+
+    @Test
+    void infersFieldPathsFromFirstRecord() throws IOException {
+        File file = write("<rows><row code=\"a\"><name>N1</name><sub><v>1</v></sub></row>"
+                + "<row code=\"b\"><sub><v>2</v></sub><extra>e</extra></row></rows>");
+
+        XmlDataSource source = new XmlDataSource(file, null, null);
+        source.open();
+        SheetRow header = source.getHeaderRow();
+        List<SheetRow> rows = readAll(source);
+
+        assertArrayEquals(new Object[]{"@code", "name", "sub/v"}, values(header));
+        assertArrayEquals(new Object[]{"a", "N1", "1"}, values(rows.get(0)));
+        // 第一条记录之外的元素不在字段路径中
+        assertArrayEquals(new Object[]{"b", null, "2"}, values(rows.get(1)));
+    }
+
+    private File write(String content) throws IOException {
+        File file = Files.createTempFile(tempDir, "data", ".xml").toFile();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /**
+     * 读取全部记录后关闭数据源（已打开时从当前位置继续读取）
+     */
+    private static List<SheetRow> readAll(XmlDataSource source) throws IOException {
+        source.open();
+        try {
+            List<SheetRow> rows = new ArrayList<>();
+            for (Iterator<SheetRow> iterator = source.iterator(); iterator.hasNext(); ) {
+                rows.add(iterator.next());
+            }
+            return rows;
+        } finally {
+            source.close();
+        }
+    }
+
+    private static Object[] values(SheetRow row) {
+        Object[] values = new Object[row.getLastCellNum()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = row.getValue(i);
+        }
+        return values;
+    }
+}